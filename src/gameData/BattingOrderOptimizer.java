@@ -0,0 +1,462 @@
+package gameData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import players.HitterData;
+import players.PitcherData;
+
+/**
+ * Searches for the best order to bat a team's nine hitters in against the
+ * other team's pitcher and defense. Orders are scored exactly with
+ * RunExpectancy, chaining each inning's expected runs through the chance of
+ * each spot leading off the next, so an order is worth the runs it expects
+ * over nine innings. Games are then simulated with the best orders to
+ * confirm them.
+ *
+ * Nine hitters have 362,880 orders, far too many to score one by one, so
+ * the search builds orders a spot at a time. A partial order is scored by
+ * filling the spots left with the hitters left, best on-base first, and only
+ * the best partial orders are carried on to the next spot. The best orders
+ * found are then improved by swapping pairs of hitters for as long as that
+ * helps. Each matchup is worked out once for the whole search, and every
+ * full order scored is remembered, so partial orders that fill out to the
+ * same order share the work. Candidates are scored across the common
+ * fork-join pool, and the search stops where it is when its time is up.
+ *
+ * @author Matthew Bunge
+ */
+
+public class BattingOrderOptimizer {
+
+	/**
+	 * The number of partial orders carried on to the next spot by default
+	 */
+	public static final int DEFAULT_BEAM_WIDTH = 16;
+
+	private static final int SPOTS = 9;
+	private static final int INNINGS = 9;
+
+	/**
+	 * The number of candidate orders one task scores before it stops
+	 * splitting
+	 */
+	private static final int ORDERS_PER_TASK = 4;
+
+	private final LineupManager lineup;
+	private final LineupManager opponent;
+	private final HitterData[] hitters;
+	private final int[] fatigueOf; // by inning, an index into results
+	private final double[][][] results; // [fatigue][hitter][result group]
+	private final double[] doublePlay; // by hitter
+	private final Integer[] byOnBase; // hitters, best on-base first
+	private final Map<Long, Double> scored = new ConcurrentHashMap<Long, Double>();
+	private int beamWidth = DEFAULT_BEAM_WIDTH;
+	private int games;
+	private long seed;
+	private long deadline;
+
+	/**
+	 * Sets up a search over the batting orders of a team
+	 *
+	 * @param lineup
+	 *            The team whose nine batters are reordered, with its batting
+	 *            order set
+	 * @param opponent
+	 *            The team in the field, with its pitcher and field set
+	 * @throws IllegalArgumentException
+	 *             if a spot in the order is empty or a card has a roll with no
+	 *             result
+	 */
+	public BattingOrderOptimizer(LineupManager lineup, LineupManager opponent) {
+		this.lineup = lineup;
+		this.opponent = opponent;
+		hitters = new HitterData[SPOTS];
+		for (int spot = 1; spot <= SPOTS; spot++) {
+			hitters[spot - 1] = lineup.getBatter(spot);
+			if (hitters[spot - 1] == null) {
+				throw new IllegalArgumentException("Nobody is batting " + spot + "th");
+			}
+		}
+		PitcherData pitcher = opponent.getCurrentPitcher();
+		int infield = 0;
+		for (int pos = 3; pos <= 6; pos++) {
+			infield += opponent.getFielding(pos);
+		}
+		// Innings where the pitcher is equally tired share their matchups
+		fatigueOf = new int[INNINGS + 1];
+		List<Integer> fatigues = new ArrayList<Integer>();
+		List<Integer> firstInning = new ArrayList<Integer>();
+		for (int inning = 1; inning <= INNINGS; inning++) {
+			int fatigue = pitcher.checkInnings(inning);
+			if (!fatigues.contains(fatigue)) {
+				fatigues.add(fatigue);
+				firstInning.add(inning);
+			}
+			fatigueOf[inning] = fatigues.indexOf(fatigue);
+		}
+		results = new double[fatigues.size()][SPOTS][];
+		for (int f = 0; f < fatigues.size(); f++) {
+			for (int h = 0; h < SPOTS; h++) {
+				results[f][h] = RunExpectancy.matchup(hitters[h], pitcher, firstInning.get(f), null);
+			}
+		}
+		doublePlay = new double[SPOTS];
+		byOnBase = new Integer[SPOTS];
+		final double[] outs = new double[SPOTS];
+		for (int h = 0; h < SPOTS; h++) {
+			doublePlay[h] = RunExpectancy.doublePlay(hitters[h], infield);
+			outs[h] = RunExpectancy.outChance(results[0][h]);
+			byOnBase[h] = h;
+		}
+		Arrays.sort(byOnBase, new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				return Double.compare(outs[a], outs[b]);
+			}
+		});
+	}
+
+	/**
+	 * Sets how many partial orders are carried on to the next spot. Wider
+	 * searches more orders and takes longer.
+	 *
+	 * @param beamWidth
+	 *            The number of partial orders kept, at least 1
+	 * @return This optimizer
+	 */
+	public BattingOrderOptimizer setBeamWidth(int beamWidth) {
+		if (beamWidth < 1) {
+			throw new IllegalArgumentException("The search has to keep at least one order");
+		}
+		this.beamWidth = beamWidth;
+		return this;
+	}
+
+	/**
+	 * Sets how many games are simulated with each of the best orders once
+	 * the search is done
+	 *
+	 * @param games
+	 *            The number of games, 0 to skip simulating
+	 * @param seed
+	 *            The seed of the games, shared by every order so they face
+	 *            the same dice
+	 * @return This optimizer
+	 */
+	public BattingOrderOptimizer setSimulation(int games, long seed) {
+		if (games < 0) {
+			throw new IllegalArgumentException("Number of games can't be negative");
+		}
+		this.games = games;
+		this.seed = seed;
+		return this;
+	}
+
+	/**
+	 * Searches for the best batting orders
+	 *
+	 * @param top
+	 *            The number of orders to return
+	 * @param budgetMillis
+	 *            How long the search may take, not counting simulating the
+	 *            best orders afterwards
+	 * @return The best orders found, best first
+	 */
+	public List<Result> optimize(int top, long budgetMillis) {
+		// The order as it stands is always scored, however short the time
+		int[] current = { 0, 1, 2, 3, 4, 5, 6, 7, 8 };
+		scored.put(key(current), score(current));
+		deadline = System.nanoTime() + budgetMillis * 1000000;
+		List<int[]> beam = new ArrayList<int[]>();
+		beam.add(new int[0]);
+		for (int spot = 0; spot < SPOTS && !timeUp(); spot++) {
+			List<int[]> next = new ArrayList<int[]>();
+			for (int[] prefix : beam) {
+				for (int h = 0; h < SPOTS; h++) {
+					if (!contains(prefix, h)) {
+						int[] longer = Arrays.copyOf(prefix, prefix.length + 1);
+						longer[prefix.length] = h;
+						next.add(longer);
+					}
+				}
+			}
+			beam = best(next, beamWidth, true);
+		}
+		improve(best(orders(), beamWidth, false));
+		List<Result> found = new ArrayList<Result>();
+		for (int[] order : best(orders(), top, false)) {
+			found.add(new Result(order, scored.get(key(order))));
+		}
+		if (games > 0) {
+			for (Result r : found) {
+				r.simulated = Simulator.simulate(opponent, r.getLineup(), games, seed).getAwayRunsPerGame();
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Gets the number of full orders scored so far
+	 *
+	 * @return The count of distinct orders scored
+	 */
+	public int getOrdersScored() {
+		return scored.size();
+	}
+
+	/**
+	 * Swaps pairs of hitters in each order for as long as it scores better
+	 * and there's time left
+	 */
+	private void improve(List<int[]> orders) {
+		for (int[] order : orders) {
+			boolean better = true;
+			while (better && !timeUp()) {
+				List<int[]> swaps = new ArrayList<int[]>();
+				for (int i = 0; i < SPOTS; i++) {
+					for (int j = i + 1; j < SPOTS; j++) {
+						int[] swapped = order.clone();
+						swapped[i] = order[j];
+						swapped[j] = order[i];
+						swaps.add(swapped);
+					}
+				}
+				List<int[]> best = best(swaps, 1, false);
+				better = !best.isEmpty() && scored.get(key(best.get(0))) > scored.get(key(order));
+				if (better) {
+					order = best.get(0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Scores every candidate and keeps the best. Partial orders are scored by
+	 * filling them out, best on-base first.
+	 */
+	private List<int[]> best(List<int[]> candidates, int keep, boolean partial) {
+		final List<int[]> full = new ArrayList<int[]>(candidates.size());
+		for (int[] c : candidates) {
+			full.add(partial ? fill(c) : c);
+		}
+		ForkJoinPool.commonPool().invoke(new ScoreTask(full, 0, full.size()));
+		List<Integer> ranked = new ArrayList<Integer>();
+		for (int i = 0; i < candidates.size(); i++) {
+			// Orders left unscored when time ran out are dropped
+			if (scored.containsKey(key(full.get(i)))) {
+				ranked.add(i);
+			}
+		}
+		Collections.sort(ranked, new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				int c = Double.compare(scored.get(key(full.get(b))), scored.get(key(full.get(a))));
+				return c != 0 ? c : Long.compare(key(full.get(a)), key(full.get(b)));
+			}
+		});
+		List<int[]> kept = new ArrayList<int[]>();
+		for (int i = 0; i < ranked.size() && kept.size() < keep; i++) {
+			kept.add(candidates.get(ranked.get(i)));
+		}
+		return kept;
+	}
+
+	private int[] fill(int[] prefix) {
+		int[] order = Arrays.copyOf(prefix, SPOTS);
+		int spot = prefix.length;
+		for (int h : byOnBase) {
+			if (!contains(prefix, h)) {
+				order[spot++] = h;
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * Gets every full order scored so far
+	 */
+	private List<int[]> orders() {
+		List<int[]> orders = new ArrayList<int[]>();
+		for (long key : scored.keySet()) {
+			int[] order = new int[SPOTS];
+			for (int spot = 0; spot < SPOTS; spot++) {
+				order[spot] = (int) (key >>> (4 * spot)) & 0xF;
+			}
+			orders.add(order);
+		}
+		return orders;
+	}
+
+	/**
+	 * Works out the runs an order expects over nine innings, starting from
+	 * the top of the order. Each inning's leadoff is a chance over the spots,
+	 * carried from one inning to the next.
+	 */
+	private double score(int[] order) {
+		RunExpectancy[] re = new RunExpectancy[results.length];
+		double[] dp = new double[SPOTS];
+		for (int spot = 0; spot < SPOTS; spot++) {
+			dp[spot] = doublePlay[order[spot]];
+		}
+		double[] leadoff = new double[SPOTS];
+		leadoff[0] = 1;
+		double runs = 0;
+		for (int inning = 1; inning <= INNINGS; inning++) {
+			int f = fatigueOf[inning];
+			if (re[f] == null) {
+				double[][] r = new double[SPOTS][];
+				for (int spot = 0; spot < SPOTS; spot++) {
+					r[spot] = results[f][order[spot]];
+				}
+				re[f] = new RunExpectancy(r, dp);
+			}
+			double[] next = new double[SPOTS];
+			for (int spot = 0; spot < SPOTS; spot++) {
+				if (leadoff[spot] > 0) {
+					runs += leadoff[spot] * re[f].getExpectedRuns(spot + 1);
+					if (inning < INNINGS) {
+						double[] l = re[f].getNextLeadoff(spot + 1);
+						for (int up = 0; up < SPOTS; up++) {
+							next[up] += leadoff[spot] * l[up];
+						}
+					}
+				}
+			}
+			leadoff = next;
+		}
+		return runs;
+	}
+
+	private boolean timeUp() {
+		return System.nanoTime() - deadline > 0;
+	}
+
+	private static boolean contains(int[] prefix, int h) {
+		for (int p : prefix) {
+			if (p == h) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Packs an order into a long, four bits a spot
+	 */
+	private static long key(int[] order) {
+		long key = 0;
+		for (int spot = 0; spot < order.length; spot++) {
+			key |= (long) order[spot] << (4 * spot);
+		}
+		return key;
+	}
+
+	/**
+	 * Works out the expected runs of a run of candidate orders and adds them
+	 * to the scores, skipping orders already scored and stopping once time is
+	 * up
+	 */
+	private final class ScoreTask extends RangeTask<Void> {
+
+		private static final long serialVersionUID = 1L;
+		private final List<int[]> orders;
+
+		private ScoreTask(List<int[]> orders, int first, int last) {
+			super(first, last, ORDERS_PER_TASK);
+			this.orders = orders;
+		}
+
+		@Override
+		protected Void computeRange() {
+			for (int i = first; i < last && !timeUp(); i++) {
+				long key = key(orders.get(i));
+				if (!scored.containsKey(key)) {
+					scored.put(key, score(orders.get(i)));
+				}
+			}
+			return null;
+		}
+
+		@Override
+		protected ScoreTask subtask(int first, int last) {
+			return new ScoreTask(orders, first, last);
+		}
+	}
+
+	/**
+	 * A batting order found by the search, with the runs it expects
+	 */
+	public final class Result {
+
+		private final int[] order;
+		private final double expected;
+		private double simulated = Double.NaN;
+
+		private Result(int[] order, double expected) {
+			this.order = order;
+			this.expected = expected;
+		}
+
+		/**
+		 * Gets the batter at a spot in the order
+		 *
+		 * @param spot
+		 *            The spot in the order, from 1 to 9
+		 * @return The batter there
+		 */
+		public HitterData getBatter(int spot) {
+			return hitters[order[spot - 1]];
+		}
+
+		/**
+		 * Gets the runs the order expects over nine innings, worked out
+		 * exactly without strategy cards
+		 *
+		 * @return The expected runs per game
+		 */
+		public double getExpectedRuns() {
+			return expected;
+		}
+
+		/**
+		 * Gets the runs the order scored per game when simulated, extra
+		 * innings included
+		 *
+		 * @return The average runs per game, NaN if no games were simulated
+		 */
+		public double getSimulatedRuns() {
+			return simulated;
+		}
+
+		/**
+		 * Makes a copy of the team batting in this order
+		 *
+		 * @return A new LineupManager with the order set
+		 */
+		public LineupManager getLineup() {
+			LineupManager copy = new LineupManager(lineup);
+			for (int spot = 1; spot <= SPOTS; spot++) {
+				copy.hitInOrder(getBatter(spot).getHandle(), spot);
+			}
+			return copy;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder s = new StringBuilder();
+			for (int spot = 1; spot <= SPOTS; spot++) {
+				s.append(spot).append(". ").append(getBatter(spot)).append(", ");
+			}
+			s.append(String.format("%.3f runs", expected));
+			if (!Double.isNaN(simulated)) {
+				s.append(String.format(" (%.3f simulated)", simulated));
+			}
+			return s.toString();
+		}
+	}
+}
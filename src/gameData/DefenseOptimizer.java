@@ -0,0 +1,187 @@
+package gameData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import players.PitcherData;
+import players.PlayerData;
+
+/**
+ * Puts a team's players in the field where their fielding counts the most.
+ * Each player is worth their fielding at a position times the weight of the
+ * position, and the players are assigned to the positions so the total is as
+ * high as it can be, with every position filled if the roster allows it.
+ * The assignment is solved exactly with the Hungarian algorithm, in time
+ * cubic in the size of the roster rather than trying every arrangement.
+ *
+ * By default the weights follow the engine: the infield check adds up the
+ * fielding at positions 3 to 6, so those count in full, and the rest only
+ * break ties. Positions are numbered as on a scorecard, with the designated
+ * hitter at 0. The current pitcher stays on the mound; any hitter can be the
+ * designated hitter, as PlayerData.playsPosition has it.
+ *
+ * @author Matthew Bunge
+ */
+
+public class DefenseOptimizer {
+
+	/**
+	 * The weights of the positions as the engine uses them, by position
+	 */
+	public static final double[] ENGINE_WEIGHTS = { 0, 0, 0.001, 1, 1, 1, 1, 0.001, 0.001, 0.001 };
+
+	private static final int POSITIONS = 10;
+
+	/**
+	 * What filling a position is worth on top of the fielding, far more than
+	 * any fielding, so no position is left empty to field better elsewhere
+	 */
+	private static final double FILLED = 1e6;
+
+	/**
+	 * Works out the best field for a team with the engine's weights
+	 *
+	 * @param team
+	 *            The team, with its pitcher set if there is one
+	 * @return The handle of the player at each position, -1 where nobody on
+	 *         the team can play it
+	 */
+	public static int[] assign(LineupManager team) {
+		return assign(team, ENGINE_WEIGHTS);
+	}
+
+	/**
+	 * Works out the best field for a team
+	 *
+	 * @param team
+	 *            The team, with its pitcher set if there is one
+	 * @param weights
+	 *            What a point of fielding is worth at each position, by
+	 *            position
+	 * @return The handle of the player at each position, -1 where nobody on
+	 *         the team can play it
+	 * @throws IllegalArgumentException
+	 *             if there isn't a weight for every position
+	 */
+	public static int[] assign(LineupManager team, double[] weights) {
+		if (weights.length != POSITIONS) {
+			throw new IllegalArgumentException("Need a weight for each of the " + POSITIONS + " positions");
+		}
+		PitcherData pitcher = team.getCurrentPitcher();
+		List<PlayerData> players = new ArrayList<PlayerData>();
+		for (PlayerData p : team.getTeam()) {
+			if (p != pitcher) {
+				players.add(p);
+			}
+		}
+		// Extra columns are spots on the bench, so every player is placed
+		int size = Math.max(players.size(), POSITIONS);
+		double[][] value = new double[size][size];
+		for (int i = 0; i < players.size(); i++) {
+			for (int pos = 0; pos < POSITIONS; pos++) {
+				if (players.get(i).playsPosition(pos) && (pos != 1 || pitcher == null)) {
+					// A designated hitter doesn't field
+					int fielding = pos == 0 ? 0 : players.get(i).getFielding(pos);
+					value[i][pos] = FILLED + weights[pos] * fielding;
+				}
+			}
+		}
+		int[] column = maximize(value);
+		int[] field = new int[POSITIONS];
+		Arrays.fill(field, -1);
+		for (int i = 0; i < players.size(); i++) {
+			int pos = column[i];
+			if (pos < POSITIONS && value[i][pos] > 0) {
+				field[pos] = players.get(i).getHandle();
+			}
+		}
+		if (pitcher != null) {
+			field[1] = pitcher.getHandle();
+		}
+		return field;
+	}
+
+	/**
+	 * Puts a team in the best field for it with the engine's weights
+	 *
+	 * @param team
+	 *            The team, with its pitcher set if there is one
+	 * @return The handle of the player now at each position, -1 where nobody
+	 *         on the team can play it and the position is left empty
+	 */
+	public static int[] setField(LineupManager team) {
+		int[] field = assign(team);
+		// Cleared first so nobody is left at a position nobody can fill while
+		// also being put somewhere else
+		team.clearField();
+		for (int pos = 0; pos < POSITIONS; pos++) {
+			if (field[pos] >= 0) {
+				team.playTheField(field[pos], pos);
+			}
+		}
+		return field;
+	}
+
+	/**
+	 * Finds the assignment of rows to columns of a square matrix with the
+	 * highest total value, by the Hungarian algorithm. Potentials are kept
+	 * for the rows and columns and one row is added at a time, extending the
+	 * assignment along the cheapest augmenting path.
+	 *
+	 * @return The column given to each row
+	 */
+	static int[] maximize(double[][] value) {
+		int n = value.length;
+		// Columns and rows are counted from 1, with 0 as the row being added
+		double[] u = new double[n + 1];
+		double[] v = new double[n + 1];
+		int[] rowOf = new int[n + 1];
+		int[] way = new int[n + 1];
+		for (int row = 1; row <= n; row++) {
+			rowOf[0] = row;
+			int col = 0;
+			double[] slack = new double[n + 1];
+			boolean[] used = new boolean[n + 1];
+			Arrays.fill(slack, Double.POSITIVE_INFINITY);
+			do {
+				used[col] = true;
+				int r = rowOf[col];
+				double delta = Double.POSITIVE_INFINITY;
+				int next = 0;
+				for (int j = 1; j <= n; j++) {
+					if (!used[j]) {
+						double cost = -value[r - 1][j - 1] - u[r] - v[j];
+						if (cost < slack[j]) {
+							slack[j] = cost;
+							way[j] = col;
+						}
+						if (slack[j] < delta) {
+							delta = slack[j];
+							next = j;
+						}
+					}
+				}
+				for (int j = 0; j <= n; j++) {
+					if (used[j]) {
+						u[rowOf[j]] += delta;
+						v[j] -= delta;
+					} else {
+						slack[j] -= delta;
+					}
+				}
+				col = next;
+			} while (rowOf[col] != 0);
+			do {
+				int prev = way[col];
+				rowOf[col] = rowOf[prev];
+				col = prev;
+			} while (col != 0);
+		}
+		int[] columnOf = new int[n];
+		for (int j = 1; j <= n; j++) {
+			columnOf[rowOf[j] - 1] = j - 1;
+		}
+		return columnOf;
+	}
+}
@@ -2,7 +2,12 @@ package gameData;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import players.*;
 
@@ -17,19 +22,41 @@ import players.*;
 
 public class DraftManager {
 
-	private Map<String, PlayerData> pool;
-	private Map<String, PlayerData> drafted;
+	private PlayerData[] players;
+	private BitSet available;
+	private PoolLoadReport report;
+	private PlayerIndex index;
 
 	/**
-	 * Creates a DraftManager from a Map of player names to players
+	 * Creates a DraftManager from a collection of players, all of them
+	 * available to be drafted. Players are stored by their handle, so a later
+	 * card with the same PlayerId replaces an earlier one.
 	 * 
 	 * @param pool
-	 *            Map<String, PlayerData> containing playernames connected to
-	 *            players
+	 *            The players in the draft pool
 	 */
-	public DraftManager(Map<String, PlayerData> pool) {
-		this.pool = pool;
-		this.drafted = new TreeMap<String, PlayerData>();
+	public DraftManager(Collection<PlayerData> pool) {
+		players = new PlayerData[0];
+		available = new BitSet();
+		for (PlayerData p : pool) {
+			add(p);
+		}
+	}
+
+	/**
+	 * Puts a player into the pool under its handle
+	 * 
+	 * @return The player that was replaced, null if the handle was free
+	 */
+	private PlayerData add(PlayerData p) {
+		int handle = p.getHandle();
+		if (handle >= players.length) {
+			players = Arrays.copyOf(players, Math.max(handle + 1, players.length * 2));
+		}
+		PlayerData replaced = players[handle];
+		players[handle] = p;
+		available.set(handle);
+		return replaced;
 	}
 
 	/**
@@ -43,44 +70,248 @@ public class DraftManager {
 	 * @return The DraftManager containing all players in the passed input
 	 *         file(s)
 	 * @throws FileNotFoundException
-	 *             if no files are passed
+	 *             if a passed file does not exist
 	 * @throws IllegalArgumentException
-	 *             if a bad file name is passed or if there is an formatting
-	 *             error in an input file
+	 *             if no files are passed
+	 * @throws CardFormatException
+	 *             if there is a formatting error in an input file, giving the
+	 *             file, line and column of the error
 	 */
 	public static DraftManager initializePool(File pitchers, File hitters) throws FileNotFoundException {
-		Map<String, PlayerData> pool = new TreeMap<String, PlayerData>();
-		Scanner processor = null;
-		PlayerData player;
+		if (pitchers == null && hitters == null) {
+			throw new IllegalArgumentException("You need at least 1 file in input");
+		}
+		List<File> files = new ArrayList<File>();
+		List<Boolean> kinds = new ArrayList<Boolean>();
 		if (pitchers != null) {
-			processor = new Scanner(pitchers);
-			processor.useDelimiter("\\n|\\t");
-			while (processor.hasNext()) {
-				try {
-					player = new PitcherData(processor);
-					pool.put(player.toString(), player);
-				} catch (Exception e) {
-					throw new IllegalArgumentException("Input error in the Pitcher file");
+			files.add(pitchers);
+			kinds.add(true);
+		}
+		if (hitters != null) {
+			files.add(hitters);
+			kinds.add(false);
+		}
+		return load(files, kinds);
+	}
+
+	/**
+	 * Factory method to create a DraftManager from any number of card files,
+	 * for example every season in DataFiles. Each file is parsed by its own
+	 * task so the files load concurrently, and the results are merged in the
+	 * order the files were passed, later players replacing earlier ones with
+	 * the same PlayerId. Timing and counts for each file are available from
+	 * getLoadReport.
+	 * 
+	 * @param files
+	 *            The card files, each one's name must contain "pitchers" or
+	 *            "hitters" to tell which kind of card it holds
+	 * @return The DraftManager containing all players in the passed files
+	 * @throws FileNotFoundException
+	 *             if a passed file does not exist
+	 * @throws IllegalArgumentException
+	 *             if no files are passed or a file isn't a pitcher or hitter
+	 *             file
+	 * @throws CardFormatException
+	 *             if there is a formatting error in an input file, giving the
+	 *             file, line and column of the error
+	 */
+	public static DraftManager initializePool(File... files) throws FileNotFoundException {
+		if (files.length == 0) {
+			throw new IllegalArgumentException("You need at least 1 file in input");
+		}
+		List<Boolean> kinds = new ArrayList<Boolean>();
+		for (File f : files) {
+			String name = f.getName().toLowerCase();
+			if (name.contains("pitchers")) {
+				kinds.add(true);
+			} else if (name.contains("hitters")) {
+				kinds.add(false);
+			} else {
+				throw new IllegalArgumentException(f + " is not a pitcher or hitter file");
+			}
+		}
+		return load(Arrays.asList(files), kinds);
+	}
+
+	/**
+	 * Parses each file in its own task on the common pool and merges the
+	 * players in file order
+	 */
+	private static DraftManager load(List<File> files, List<Boolean> pitchers) throws FileNotFoundException {
+		for (File f : files) {
+			if (!f.isFile()) {
+				throw new FileNotFoundException(f.getPath());
+			}
+		}
+		long start = System.nanoTime();
+		List<ForkJoinTask<List<PlayerData>>> tasks = new ArrayList<ForkJoinTask<List<PlayerData>>>();
+		final long[] nanos = new long[files.size()];
+		for (int i = 0; i < files.size(); i++) {
+			final File file = files.get(i);
+			final boolean pitcherFile = pitchers.get(i);
+			final int index = i;
+			tasks.add(ForkJoinPool.commonPool().submit(new Callable<List<PlayerData>>() {
+				@Override
+				public List<PlayerData> call() throws FileNotFoundException {
+					long fileStart = System.nanoTime();
+					List<PlayerData> players = parse(file, pitcherFile);
+					nanos[index] = System.nanoTime() - fileStart;
+					return players;
 				}
+			}));
+		}
+		DraftManager dm = new DraftManager(Collections.<PlayerData>emptyList());
+		PoolLoadReport report = new PoolLoadReport();
+		for (int i = 0; i < tasks.size(); i++) {
+			List<PlayerData> players = join(tasks.get(i));
+			int replaced = 0;
+			for (PlayerData player : players) {
+				if (dm.add(player) != null) {
+					replaced++;
+				}
+			}
+			report.add(files.get(i), players.size(), replaced, nanos[i]);
+		}
+		report.finish(dm.available.cardinality(), System.nanoTime() - start);
+		dm.report = report;
+		return dm;
+	}
+
+	private static List<PlayerData> parse(File f, boolean pitchers) throws FileNotFoundException {
+		List<PlayerData> players = new ArrayList<PlayerData>();
+		CardReader input = new CardReader(f);
+		while (input.nextRecord()) {
+			if (pitchers) {
+				players.add(new PitcherData(input));
+			} else {
+				players.add(new HitterData(input));
 			}
 		}
+		return players;
+	}
+
+	/**
+	 * Waits for a parse task, rethrowing whatever it failed with
+	 */
+	private static List<PlayerData> join(ForkJoinTask<List<PlayerData>> task) throws FileNotFoundException {
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading the pool", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof FileNotFoundException) {
+				throw (FileNotFoundException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Factory method to create a DraftManager from a binary snapshot of the
+	 * pool when one is current, falling back to parsing the text files. When
+	 * the text files are parsed a fresh snapshot is written for next time.
+	 * 
+	 * @param snapshot
+	 *            The snapshot file, which need not exist yet
+	 * @param pitchers
+	 *            The file containing pitchers to be used
+	 * @param hitters
+	 *            The file containing hitters to be used
+	 * @return The DraftManager containing all players in the passed input
+	 *         file(s)
+	 * @throws FileNotFoundException
+	 *             if the snapshot is stale and no files are passed
+	 * @throws IllegalArgumentException
+	 *             if the snapshot is stale and there is a bad file name or a
+	 *             formatting error in an input file
+	 */
+	public static DraftManager loadPool(File snapshot, File pitchers, File hitters) throws FileNotFoundException {
+		List<File> sources = new ArrayList<File>();
+		if (pitchers != null) {
+			sources.add(pitchers);
+		}
 		if (hitters != null) {
-			processor = new Scanner(hitters);
-			processor.useDelimiter("\\n|\\t");
-			while (processor.hasNext()) {
-				try {
-					player = new HitterData(processor);
-					pool.put(player.toString(), player);
-				} catch (Exception e) {
-					throw new IllegalArgumentException("Input error in the hitter file");
-				}
+			sources.add(hitters);
+		}
+		File[] files = sources.toArray(new File[sources.size()]);
+		DraftManager snapshotted = readSnapshot(snapshot, files);
+		if (snapshotted != null) {
+			return snapshotted;
+		}
+		DraftManager parsed = initializePool(pitchers, hitters);
+		writeSnapshot(parsed, snapshot, files);
+		return parsed;
+	}
+
+	/**
+	 * Factory method to create a DraftManager from any number of card files
+	 * through a binary snapshot, as loadPool does for a single pitcher and
+	 * hitter file
+	 * 
+	 * @param snapshot
+	 *            The snapshot file, which need not exist yet
+	 * @param files
+	 *            The card files, named as initializePool(File...) expects
+	 * @return The DraftManager containing all players in the passed files
+	 * @throws FileNotFoundException
+	 *             if the snapshot is stale and a passed file does not exist
+	 * @throws IllegalArgumentException
+	 *             if the snapshot is stale and a file can't be parsed
+	 */
+	public static DraftManager loadPool(File snapshot, File... files) throws FileNotFoundException {
+		DraftManager snapshotted = readSnapshot(snapshot, files);
+		if (snapshotted != null) {
+			return snapshotted;
+		}
+		DraftManager parsed = initializePool(files);
+		writeSnapshot(parsed, snapshot, files);
+		return parsed;
+	}
+
+	private static DraftManager readSnapshot(File snapshot, File[] files) {
+		try {
+			List<PlayerData> players = PoolSnapshot.read(snapshot, files);
+			if (players != null) {
+				return new DraftManager(players);
 			}
+		} catch (IOException e) {
+			// A corrupt snapshot is replaced once the text is parsed
 		}
-		if (processor == null) {
-			throw new IllegalArgumentException("You need at least 1 file in input");
+		return null;
+	}
+
+	private static void writeSnapshot(DraftManager parsed, File snapshot, File[] files) {
+		try {
+			PoolSnapshot.write(parsed.getPool(), snapshot, files);
+		} catch (IOException e) {
+			// Without a snapshot the next startup simply parses the text again
+		}
+	}
+
+	/**
+	 * Drafts a player into the passed LineupManager.
+	 * 
+	 * @param soFar
+	 *            The LineupManager the player is being drafted into
+	 * @param handle
+	 *            The handle of the player being drafted
+	 * @return The modified LineupManager including the newly drafted player
+	 * @throws IllegalArgumentException
+	 *             if the player isn't available in the pool
+	 */
+	public LineupManager draftPlayer(LineupManager soFar, int handle) {
+		if (!isAvailable(handle)) {
+			throw new IllegalArgumentException("Player not in pool");
 		}
-		processor.close();
-		return new DraftManager(pool);
+		available.clear(handle);
+		soFar.addPlayer(players[handle]);
+		return soFar;
 	}
 
 	/**
@@ -88,36 +319,159 @@ public class DraftManager {
 	 * 
 	 * @param soFar
 	 *            The LineupManager the player is being drafted into
+	 * @param player
+	 *            The player being drafted
+	 * @return The modified LineupManager including the newly drafted player
+	 * @throws IllegalArgumentException
+	 *             if the player isn't available in the pool
+	 */
+	public LineupManager draftPlayer(LineupManager soFar, PlayerData player) {
+		return draftPlayer(soFar, player.getHandle());
+	}
+
+	/**
+	 * Drafts a player into the passed LineupManager by name. Only usable when
+	 * a single card with that name is still available.
+	 * 
+	 * @param soFar
+	 *            The LineupManager the player is being drafted into
 	 * @param playerName
 	 *            The name of the player being drafted
 	 * @return The modified LineupManager including the newly drafted player
+	 * @throws IllegalArgumentException
+	 *             if no available card or more than one has that name
 	 */
 	public LineupManager draftPlayer(LineupManager soFar, String playerName) {
-		if (!pool.containsKey(playerName)) {
+		PlayerData draftee = null;
+		for (int i = available.nextSetBit(0); i >= 0; i = available.nextSetBit(i + 1)) {
+			if (players[i].toString().equals(playerName)) {
+				if (draftee != null) {
+					throw new IllegalArgumentException("More than one card for " + playerName + " in pool");
+				}
+				draftee = players[i];
+			}
+		}
+		if (draftee == null) {
 			throw new IllegalArgumentException("Player not in pool");
 		}
-		PlayerData draftee = pool.remove(playerName);
-		soFar.addPlayer(draftee);
-		drafted.put(playerName, draftee);
-		return soFar;
+		return draftPlayer(soFar, draftee.getHandle());
+	}
+
+	/**
+	 * Checks whether a player is in the pool and hasn't been drafted
+	 * 
+	 * @param handle
+	 *            The handle of the player
+	 * @return true if the player can be drafted
+	 */
+	public boolean isAvailable(int handle) {
+		return handle >= 0 && available.get(handle);
+	}
+
+	/**
+	 * Gets a player loaded into this DraftManager, whether or not they have
+	 * been drafted
+	 * 
+	 * @param handle
+	 *            The handle of the player
+	 * @return The player with that handle, null if they weren't loaded
+	 */
+	public PlayerData getPlayer(int handle) {
+		if (handle < 0 || handle >= players.length) {
+			return null;
+		}
+		return players[handle];
+	}
+
+	/**
+	 * Gets a player loaded into this DraftManager, whether or not they have
+	 * been drafted
+	 * 
+	 * @param id
+	 *            The id of the player's card
+	 * @return The player with that id, null if they weren't loaded
+	 */
+	public PlayerData getPlayer(PlayerId id) {
+		return getPlayer(PlayerId.handleOf(id));
+	}
+
+	/**
+	 * Gets every card loaded into this DraftManager for a player name, drafted
+	 * or not
+	 * 
+	 * @param name
+	 *            The name of the player
+	 * @return The cards with that name, in handle order
+	 */
+	public List<PlayerData> findPlayers(String name) {
+		List<PlayerData> found = new ArrayList<PlayerData>();
+		for (PlayerData p : players) {
+			if (p != null && p.toString().equals(name)) {
+				found.add(p);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Gets an index of every player loaded into this DraftManager for
+	 * searching and sorting, built the first time it's asked for. Use
+	 * Query.available to leave out drafted players.
+	 * 
+	 * @return The index of the pool
+	 */
+	public synchronized PlayerIndex getIndex() {
+		if (index == null) {
+			List<PlayerData> loaded = new ArrayList<PlayerData>();
+			for (PlayerData p : players) {
+				if (p != null) {
+					loaded.add(p);
+				}
+			}
+			index = new PlayerIndex(loaded);
+		}
+		return index;
+	}
+
+	/**
+	 * Gets the handles of the players still available, for PlayerIndex
+	 */
+	BitSet available() {
+		return available;
 	}
 
 	/**
-	 * Gets a copy of the pool of available players
+	 * Gets the players still available to be drafted
 	 * 
-	 * @return Copy of the map of all players in the draft pool
+	 * @return New list of the players in the draft pool, in handle order
 	 */
-	public Map<String, PlayerData> getPool() {
-		Map<String, PlayerData> copy = new HashMap<String, PlayerData>();
-		copy.putAll(pool);
-		return copy;
+	public List<PlayerData> getPool() {
+		List<PlayerData> pool = new ArrayList<PlayerData>(available.cardinality());
+		for (int i = available.nextSetBit(0); i >= 0; i = available.nextSetBit(i + 1)) {
+			pool.add(players[i]);
+		}
+		return pool;
+	}
+
+	/**
+	 * Gets the timing and counts of the files this DraftManager was loaded
+	 * from
+	 * 
+	 * @return The report of the load, null if the pool wasn't parsed from
+	 *         card files
+	 */
+	public PoolLoadReport getLoadReport() {
+		return report;
 	}
 
 	/**
 	 * Empties all the drafted players back into the draft pool
 	 */
 	public void reset() {
-		pool.putAll(drafted);
-		drafted.clear();
+		for (int i = 0; i < players.length; i++) {
+			if (players[i] != null) {
+				available.set(i);
+			}
+		}
 	}
 }
@@ -0,0 +1,192 @@
+package gameData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single compiled instruction from the effect code of a strategy card. The
+ * effect code of a card is a space separated list of instructions, each one a
+ * code followed by its "+" separated arguments, for example "DI+SE+1 SW+AR".
+ * Cards compile their effect code into a list of Effects once when they're
+ * loaded and the GameManager only ever runs the compiled list.
+ *
+ * @author Matthew Bunge
+ */
+
+public class Effect {
+
+	/**
+	 * The kind of instruction an Effect carries out
+	 */
+	public enum Op {
+		SwingMod, PitchMod, FieldMod, PitcherIs, BatterIs, Discard, Draw, Emit;
+	}
+
+	private final Op op;
+	private final int amount;
+	private final boolean perRunner;
+	private final boolean self;
+	private final List<String> choices;
+	private final Token token;
+
+	private Effect(Op op, int amount, boolean perRunner, boolean self, List<String> choices, Token token) {
+		this.op = op;
+		this.amount = amount;
+		this.perRunner = perRunner;
+		this.self = self;
+		this.choices = choices;
+		this.token = token;
+	}
+
+	/**
+	 * Parses the effect code of a card into the list of instructions it
+	 * describes
+	 *
+	 * @param code
+	 *            The effect code as written in the card file
+	 * @return An unmodifiable list of the Effects in the order they're run
+	 * @throws IllegalArgumentException
+	 *             if any instruction in the code is malformed
+	 */
+	public static List<Effect> compile(String code) {
+		List<Effect> effects = new ArrayList<Effect>();
+		for (String instruction : code.trim().split(" +")) {
+			effects.add(compileInstruction(instruction));
+		}
+		return Collections.unmodifiableList(effects);
+	}
+
+	private static Effect compileInstruction(String s) {
+		String[] pre = s.split("\\+");
+		switch (pre[0]) {
+		case "SW": // Change swingMod
+			return modifier(Op.SwingMod, s, pre);
+		case "PI": // Change pitchMod
+			return modifier(Op.PitchMod, s, pre);
+		case "D": // Change fieldMod
+			return modifier(Op.FieldMod, s, pre);
+		case "P": // Status related to the pitcher, TI for tired, CL for closer
+			return guard(Op.PitcherIs, s, pre, "TI", "CL", "L", "R");
+		case "B": // Status related to the batter
+			return guard(Op.BatterIs, s, pre, "R", "S", "L");
+		case "DI": // Discard a card
+			return cards(Op.Discard, s, pre);
+		case "DR": // Draw a card
+			return cards(Op.Draw, s, pre);
+		case "PU": // Change result to pop out
+			return emit(Token.Popout, s, pre);
+		case "BB": // Change result to walk
+			return emit(Token.Walk, s, pre);
+		case "RRS": // Reroll a swing
+			return emit(Token.RerollSwing, s, pre);
+		case "RRDP": // Reroll a doubleplay
+			return emit(Token.RerollDoublePlay, s, pre);
+		default:
+			throw new IllegalArgumentException(pre[0] + ": not a valid postcondition");
+		}
+	}
+
+	private static Effect modifier(Op op, String s, String[] pre) {
+		arguments(s, pre, 1);
+		if (pre[1].equals("AR")) { // All runners
+			return new Effect(op, 0, true, false, null, null);
+		}
+		return new Effect(op, number(s, pre[1]), false, false, null, null);
+	}
+
+	private static Effect guard(Op op, String s, String[] pre, String... legal) {
+		arguments(s, pre, 1);
+		List<String> choices = Arrays.asList(pre[1].split("\\^"));
+		for (String choice : choices) {
+			if (!Arrays.asList(legal).contains(choice)) {
+				throw new IllegalArgumentException(s + ": " + choice + " is not a valid status");
+			}
+		}
+		return new Effect(op, 0, false, false, Collections.unmodifiableList(choices), null);
+	}
+
+	private static Effect cards(Op op, String s, String[] pre) {
+		arguments(s, pre, 2);
+		if (!pre[1].equals("SE") && !pre[1].equals("OP")) {
+			throw new IllegalArgumentException(s + ": " + pre[1] + " is not SE or OP");
+		}
+		return new Effect(op, number(s, pre[2]), false, pre[1].equals("SE"), null, null);
+	}
+
+	private static Effect emit(Token token, String s, String[] pre) {
+		arguments(s, pre, 0);
+		return new Effect(Op.Emit, 0, false, false, null, token);
+	}
+
+	private static void arguments(String s, String[] pre, int expected) {
+		if (pre.length != expected + 1) {
+			throw new IllegalArgumentException(s + ": expected " + expected + " arguments");
+		}
+	}
+
+	private static int number(String s, String n) {
+		try {
+			return Integer.parseInt(n);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(s + ": " + n + " is not a number", e);
+		}
+	}
+
+	/**
+	 * Gets the kind of instruction this is
+	 *
+	 * @return The Op of this Effect
+	 */
+	public Op getOp() {
+		return op;
+	}
+
+	/**
+	 * Gets the amount of a modifier, or the number of cards drawn or discarded
+	 *
+	 * @return The amount of this Effect
+	 */
+	public int getAmount() {
+		return amount;
+	}
+
+	/**
+	 * Indicates whether a modifier is worth 1 for each runner on base rather
+	 * than a fixed amount
+	 *
+	 * @return true if the modifier counts the runners on base
+	 */
+	public boolean isPerRunner() {
+		return perRunner;
+	}
+
+	/**
+	 * Indicates whether cards are drawn or discarded by the team playing the
+	 * card rather than by its opponent
+	 *
+	 * @return true if the player of the card draws or discards
+	 */
+	public boolean isSelf() {
+		return self;
+	}
+
+	/**
+	 * Gets the statuses that satisfy a guard on the pitcher or batter
+	 *
+	 * @return The list of statuses, any of which lets the card continue
+	 */
+	public List<String> getChoices() {
+		return choices;
+	}
+
+	/**
+	 * Gets the token an Emit instruction adds to the GameLog
+	 *
+	 * @return The token emitted
+	 */
+	public Token getToken() {
+		return token;
+	}
+}
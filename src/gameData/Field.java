@@ -8,57 +8,122 @@ import players.HitterData;
  * A representation of the basepaths, IE who is on which base. Contains all the
  * methods to do the final processing of the field after a card result is
  * finalized.
- * 
+ *
+ * Which bases are occupied is kept as a 3 bit mask, bit 0 for first base up to
+ * bit 2 for third, next to an array holding the runner on each base. Every way
+ * the runners can advance is worked out once for each of the 8 masks when the
+ * class loads, so processing a result is a few table lookups rather than a
+ * chain of checks on each base.
+ *
  * @author Matthew Bunge
  */
 
 public class Field {
 
-	private BaseSlot first;
-	private BaseSlot second;
-	private BaseSlot third;
+	/**
+	 * Number of distinct base-out states, 8 arrangements of runners for each
+	 * of 0, 1 or 2 outs
+	 */
+	public static final int BASE_OUT_STATES = 24;
+
+	// The ways runners can be advanced, used to index the tables below
+	private static final int SINGLE = 0;
+	private static final int SINGLE_PLUS = 1;
+	private static final int DOUBLE = 2;
+	private static final int TRIPLE = 3;
+	private static final int HOMER = 4;
+	private static final int WALK = 5;
+	private static final int GROUNDOUT = 6;
+	private static final int PLAYS = 7;
+	private static final int HOME = 4;
+
+	// Base each runner ends up on, indexed by play, mask and starting base
+	// with 0 for the batter. 0 means out or not on base, HOME means scored.
+	private static final byte[][][] ADVANCE = new byte[PLAYS][8][4];
+	private static final byte[][] NEXT_BASES = new byte[PLAYS][8];
+	private static final byte[][] RUNS = new byte[PLAYS][8];
+
+	static {
+		for (int bases = 0; bases < 8; bases++) {
+			for (int base = 1; base <= 3; base++) {
+				if (occupied(bases, base)) {
+					ADVANCE[SINGLE][bases][base] = (byte) Math.min(base + 1, HOME);
+					ADVANCE[SINGLE_PLUS][bases][base] = (byte) Math.min(base + 1, HOME);
+					ADVANCE[DOUBLE][bases][base] = (byte) Math.min(base + 2, HOME);
+					ADVANCE[TRIPLE][bases][base] = HOME;
+					ADVANCE[HOMER][bases][base] = HOME;
+					ADVANCE[WALK][bases][base] = (byte) (forced(bases, base) ? base + 1 : base);
+					ADVANCE[GROUNDOUT][bases][base] = (byte) (base == 1 ? 1 : base + 1);
+				}
+			}
+			ADVANCE[SINGLE][bases][0] = 1;
+			ADVANCE[SINGLE_PLUS][bases][0] = (byte) (occupied(bases, 1) ? 1 : 2);
+			ADVANCE[DOUBLE][bases][0] = 2;
+			ADVANCE[TRIPLE][bases][0] = 3;
+			ADVANCE[HOMER][bases][0] = HOME;
+			ADVANCE[WALK][bases][0] = 1;
+			ADVANCE[GROUNDOUT][bases][0] = 0;
+			for (int play = 0; play < PLAYS; play++) {
+				int next = 0;
+				int runs = 0;
+				for (int base = 0; base <= 3; base++) {
+					int to = ADVANCE[play][bases][base];
+					if (to == HOME) {
+						runs++;
+					} else if (to > 0) {
+						next |= 1 << (to - 1);
+					}
+				}
+				NEXT_BASES[play][bases] = (byte) next;
+				RUNS[play][bases] = (byte) runs;
+			}
+		}
+	}
+
+	private int bases;
+	private HitterData[] runners;
 	private List<String> problems;
+	private GameLog log;
 
 	/**
 	 * Constructs a field upon which to play a game of baseball
+	 *
+	 * @param log
+	 *            The GameLog of the game being played on this field
 	 */
-	public Field() {
-		third = new BaseSlot(null);
-		second = new BaseSlot(third);
-		first = new BaseSlot(second);
+	public Field(GameLog log) {
+		this.log = log;
+		bases = 0;
+		runners = new HitterData[4];
 		problems = new ArrayList<String>();
 	}
 
 	/**
 	 * Returns a list of problems resulting from a strategy card interrupt
-	 * 
+	 *
 	 * @return List of String tokens representing problems
 	 */
 	public List<String> getProblems() {
 		return problems;
 	}
-	
+
 	/**
 	 * Gets the playerdata of the runner on some given base
-	 * 
+	 *
 	 * @param base The base the runner is being requested for
 	 * @return The runner on that base, null if no runner on base
 	 */
 	public HitterData getRunner(int base) {
-		if (base == 1) {
-			return first.getRunner();
-		} else if (base == 2) {
-			return second.getRunner();
-		} else if (base == 3) {
-			return third.getRunner();
+		if (base < 1 || base > 3) {
+			throw new IllegalArgumentException("Valid base argument not passed");
 		}
-		throw new IllegalArgumentException("Valid base argument not passed");
+		return runners[base];
 	}
 
 	/**
 	 * Informs on whether there are existing problems that halted execution of
 	 * Field methods
-	 * 
+	 *
 	 * @return True if there are any existing problems, False otherwise
 	 */
 	public boolean hasProblems() {
@@ -67,7 +132,7 @@ public class Field {
 
 	/**
 	 * Updates the field and GameStat based on a single result
-	 * 
+	 *
 	 * @param onCard
 	 *            The hitter who obtained this result
 	 * @param track
@@ -76,24 +141,12 @@ public class Field {
 	 */
 	public GameStat single(HitterData onCard, GameStat track) {
 		track.hit();
-		if (!third.isEmpty()) {
-			third.onBase = null;
-			track.score();
-		}
-		if (!second.isEmpty()) {
-			third.onBase = second.onBase;
-			second.onBase = null;
-		}
-		if (!first.isEmpty()) {
-			second.onBase = first.onBase;
-		}
-		first.onBase = onCard;
-		return track;
+		return advance(SINGLE, onCard, track);
 	}
 
 	/**
 	 * Updates the field and GameStat based on a double result
-	 * 
+	 *
 	 * @param onCard
 	 *            The hitter who obtained this result
 	 * @param track
@@ -102,25 +155,12 @@ public class Field {
 	 */
 	public GameStat twoBase(HitterData onCard, GameStat track) {
 		track.hit();
-		if (!third.isEmpty()) {
-			third.onBase = null;
-			track.score();
-		}
-		if (!second.isEmpty()) {
-			second.onBase = null;
-			track.score();
-		}
-		if (!first.isEmpty()) {
-			third.onBase = first.onBase;
-			first.onBase = null;
-		}
-		second.onBase = onCard;
-		return track;
+		return advance(DOUBLE, onCard, track);
 	}
 
 	/**
 	 * Updates the field and GameStat based on a triple result
-	 * 
+	 *
 	 * @param onCard
 	 *            The hitter who obtained this result
 	 * @param track
@@ -129,50 +169,24 @@ public class Field {
 	 */
 	public GameStat triple(HitterData onCard, GameStat track) {
 		track.hit();
-		if (!third.isEmpty()) {
-			third.onBase = null;
-			track.score();
-		}
-		if (!second.isEmpty()) {
-			second.onBase = null;
-			track.score();
-		}
-		if (!first.isEmpty()) {
-			first.onBase = null;
-			track.score();
-		}
-		third.onBase = onCard;
-		return track;
+		return advance(TRIPLE, onCard, track);
 	}
 
 	/**
 	 * Updates the field and GameStat based on a homerun result
-	 * 
+	 *
 	 * @param track
 	 *            GameStat of the current game
 	 * @return The updated GameStat
 	 */
 	public GameStat homer(GameStat track) {
 		track.hit();
-		track.score();
-		if (!third.isEmpty()) {
-			third.onBase = null;
-			track.score();
-		}
-		if (!second.isEmpty()) {
-			second.onBase = null;
-			track.score();
-		}
-		if (!first.isEmpty()) {
-			first.onBase = null;
-			track.score();
-		}
-		return track;
+		return advance(HOMER, null, track);
 	}
 
 	/**
 	 * Updates the field and GameStat based on a walk result
-	 * 
+	 *
 	 * @param onCard
 	 *            The hitter who obtained this result
 	 * @param track
@@ -180,22 +194,12 @@ public class Field {
 	 * @return The updated GameStat
 	 */
 	public GameStat walk(HitterData onCard, GameStat track) {
-		if (!first.isEmpty()) {
-			if (!second.isEmpty()) {
-				if (!third.isEmpty()) {
-					track.score();
-				}
-				third.onBase = second.onBase;
-			}
-			second.onBase = first.onBase;
-		}
-		first.onBase = onCard;
-		return track;
+		return advance(WALK, onCard, track);
 	}
 
 	/**
 	 * Updates the field and GameStat based on a single+ result
-	 * 
+	 *
 	 * @param onCard
 	 *            The hitter who obtained this result
 	 * @param track
@@ -204,18 +208,13 @@ public class Field {
 	 */
 	public GameStat singlePlus(HitterData onCard, GameStat track) {
 		track.hit();
-		track = single(onCard, track);
-		if (second.isEmpty()) {
-			second.onBase = first.onBase;
-			first.onBase = null;
-		}
-		return track;
+		return advance(SINGLE_PLUS, onCard, track);
 	}
 
 	/**
 	 * Updates the field and GameStat based on a groundout result Also does the
 	 * required calculations and updates for a potential double play
-	 * 
+	 *
 	 * @param fielder
 	 *            The lineup of the team currently in the field
 	 * @param atBat
@@ -229,42 +228,59 @@ public class Field {
 		if (checkOuts(track)) {
 			return track;
 		}
-		if (first.onBase != null) {
-			StrategyCard.emit("BDP");
+		if (occupied(bases, 1)) {
+			log.emit(Token.BeforeDoublePlay);
 			return track;
 		}
-		return finalizeGroundout(track);
+		return advance(GROUNDOUT, null, track);
 	}
-	
+
 	public GameStat doublePlay(HitterData atBat, GameStat track, boolean iC) {
-		StrategyCard.emit("DPC");
+		log.emit(Token.DoublePlayChecked);
 		if (iC) {
 			track.yerOut();
 			if (checkOuts(track)) {
 				return track;
 			}
-			first.onBase = null;
+			runners[1] = null;
+			bases &= ~1;
 		} else {
-			first.onBase = atBat;
+			runners[1] = atBat;
+			bases |= 1;
 		}
-		return finalizeGroundout(track);
+		return advance(GROUNDOUT, null, track);
 	}
-	
-	private GameStat finalizeGroundout(GameStat track) {
-		if (third.onBase != null) {
-			track.score();
-			third.onBase = null;
+
+	/**
+	 * Moves every runner, and the batter if they reach base, according to the
+	 * precomputed tables for a play
+	 */
+	private GameStat advance(int play, HitterData onCard, GameStat track) {
+		byte[] to = ADVANCE[play][bases];
+		// Runners only move forward, so moving the lead runner first never
+		// overwrites a runner who hasn't moved yet
+		for (int base = 3; base >= 1; base--) {
+			HitterData runner = runners[base];
+			if (runner != null) {
+				runners[base] = null;
+				if (to[base] < HOME) {
+					runners[to[base]] = runner;
+				}
+			}
 		}
-		if (second.onBase != null) {
-			third.onBase = second.onBase;
-			second.onBase = null;
+		if (to[0] > 0 && to[0] < HOME) {
+			runners[to[0]] = onCard;
+		}
+		for (int i = RUNS[play][bases]; i > 0; i--) {
+			track.score();
 		}
+		bases = NEXT_BASES[play][bases];
 		return track;
 	}
 
 	/**
 	 * Updates the GameStat based on a strikeout result
-	 * 
+	 *
 	 * @param track
 	 *            GameStat of the current game
 	 * @return The updated GameStat
@@ -276,7 +292,7 @@ public class Field {
 
 	/**
 	 * Updates the GameStat based on a flyout result
-	 * 
+	 *
 	 * @param track
 	 *            GameStat of the current game
 	 * @return The updated GameStat
@@ -288,7 +304,7 @@ public class Field {
 
 	/**
 	 * Updates the GameStat based on a popout result
-	 * 
+	 *
 	 * @param track
 	 *            GameStat of the current game
 	 * @return The updated GameStat
@@ -300,21 +316,33 @@ public class Field {
 
 	/**
 	 * Gets number of runners on the basepaths
-	 * 
+	 *
 	 * @return Integer representing the number of runners on base
 	 */
 	public int getState() {
-		int runners = 0;
-		if (first.onBase != null) {
-			runners++;
-		}
-		if (second.onBase != null) {
-			runners++;
-		}
-		if (third.onBase != null) {
-			runners++;
-		}
-		return runners;
+		return Integer.bitCount(bases);
+	}
+
+	/**
+	 * Gets which bases are occupied
+	 *
+	 * @return A mask with bit 0 set for a runner on first, bit 1 for second and
+	 *         bit 2 for third
+	 */
+	public int getBases() {
+		return bases;
+	}
+
+	/**
+	 * Gets the index of the current base-out state, for use with tables such
+	 * as run expectancy that have one entry for each state
+	 *
+	 * @param outs
+	 *            The number of outs in the inning, from 0 to 2
+	 * @return An index from 0 to BASE_OUT_STATES - 1
+	 */
+	public int getBaseOutState(int outs) {
+		return outs * 8 + bases;
 	}
 
 	/**
@@ -322,32 +350,95 @@ public class Field {
 	 * according to a GameStat there are 3 outs
 	 */
 	public void clear() {
-		first.onBase = null;
-		second.onBase = null;
-		third.onBase = null;
+		bases = 0;
+		Arrays.fill(runners, null);
+	}
+
+	/**
+	 * Gets which bases will be occupied after a result that moves the runners,
+	 * without changing the field
+	 *
+	 * @param result
+	 *            A walk or a hit
+	 * @param bases
+	 *            The mask of occupied bases before the result
+	 * @return The mask of occupied bases after the result
+	 */
+	public static int nextBases(Token result, int bases) {
+		return NEXT_BASES[playOf(result)][bases];
 	}
 
 	/**
-	 * Private class for the purpose of representing a single base, may be
-	 * modified in the future
-	 * 
-	 * @author Matthew Bunge
+	 * Gets the number of runs scored by a result that moves the runners
+	 *
+	 * @param result
+	 *            A walk or a hit
+	 * @param bases
+	 *            The mask of occupied bases before the result
+	 * @return The number of runs that score on the result
 	 */
-	private class BaseSlot {
+	public static int runsScored(Token result, int bases) {
+		return RUNS[playOf(result)][bases];
+	}
 
-		public HitterData onBase;
+	/**
+	 * Gets which bases will be occupied after a groundout that isn't turned
+	 * into a double play, IE the runners on second and third move up a base
+	 *
+	 * @param bases
+	 *            The mask of occupied bases before the groundout
+	 * @return The mask of occupied bases after the groundout
+	 */
+	public static int basesAfterGroundout(int bases) {
+		return NEXT_BASES[GROUNDOUT][bases];
+	}
 
-		private BaseSlot(BaseSlot nextBase) {
-			onBase = null;
-		}
+	/**
+	 * Gets the number of runs scored on a groundout that isn't turned into a
+	 * double play
+	 *
+	 * @param bases
+	 *            The mask of occupied bases before the groundout
+	 * @return The number of runs that score
+	 */
+	public static int runsOnGroundout(int bases) {
+		return RUNS[GROUNDOUT][bases];
+	}
 
-		private boolean isEmpty() {
-			return onBase == null;
+	private static int playOf(Token result) {
+		switch (result) {
+		case Single:
+			return SINGLE;
+		case SinglePlus:
+			return SINGLE_PLUS;
+		case Double:
+			return DOUBLE;
+		case Triple:
+			return TRIPLE;
+		case Homerun:
+			return HOMER;
+		case Walk:
+			return WALK;
+		default:
+			throw new IllegalArgumentException(result + " doesn't move the runners");
 		}
-		
-		private HitterData getRunner() {
-			return onBase;
+	}
+
+	private static boolean occupied(int bases, int base) {
+		return (bases & (1 << (base - 1))) != 0;
+	}
+
+	/**
+	 * A runner is forced to advance on a walk only if every base behind them
+	 * is occupied
+	 */
+	private static boolean forced(int bases, int base) {
+		for (int b = 1; b <= base; b++) {
+			if (!occupied(bases, b)) {
+				return false;
+			}
 		}
+		return true;
 	}
 
 	// Implement in the case of stolen base functionality implementation
@@ -360,7 +451,7 @@ public class Field {
 	/**
 	 * Returns whether or not there are 3 outs in the inning. Useful for
 	 * verifying whether a complex procedure like double play is even necessary
-	 * 
+	 *
 	 * @param track
 	 *            The GameStat of the current game
 	 * @return True if there are exactly 3 outs, false otherwise
@@ -368,4 +459,4 @@ public class Field {
 	private boolean checkOuts(GameStat track) {
 		return track.getOuts() == 3;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,212 @@
+package gameData;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The running log of tokens emitted over the course of a single game. Every
+ * GameManager owns its own GameLog, so several games can be played in the same
+ * JVM without stepping on each other's token stream.
+ *
+ * The engine only ever looks a few tokens back, so only the most recent tokens
+ * are held in memory in a fixed size ring buffer and memory use stays flat no
+ * matter how long the log runs. When the whole history is needed, for example
+ * to replay a game, the log can be given a sink that every token is written to
+ * as a single byte. Such a history can be read back with replay.
+ *
+ * @author Matthew Bunge
+ */
+
+public class GameLog implements Closeable {
+
+	/**
+	 * The number of tokens kept in memory by a log created without a capacity
+	 */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	private static final Token[] TOKENS = Token.values();
+
+	private final Token[] window;
+	private long emitted;
+	private OutputStream sink;
+
+	/**
+	 * Creates an empty GameLog holding the last DEFAULT_CAPACITY tokens
+	 */
+	public GameLog() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty GameLog holding a given number of the most recent tokens
+	 *
+	 * @param capacity
+	 *            How many tokens can be looked back on
+	 */
+	public GameLog(int capacity) {
+		this(capacity, null);
+	}
+
+	/**
+	 * Creates an empty GameLog that also writes every token emitted to a sink
+	 *
+	 * @param capacity
+	 *            How many tokens can be looked back on
+	 * @param sink
+	 *            Stream the full history is written to, null for none. The log
+	 *            buffers writes itself and closes the stream when it is closed.
+	 */
+	public GameLog(int capacity, OutputStream sink) {
+		if (capacity < 2) {
+			throw new IllegalArgumentException("A GameLog must hold at least 2 tokens");
+		}
+		window = new Token[capacity];
+		if (sink != null) {
+			this.sink = new BufferedOutputStream(sink);
+		}
+	}
+
+	/**
+	 * Appends a token to the end of the log
+	 *
+	 * @param t
+	 *            The token being emitted
+	 */
+	public void emit(Token t) {
+		window[(int) (emitted % window.length)] = t;
+		emitted++;
+		if (sink != null) {
+			try {
+				sink.write(t.ordinal());
+			} catch (IOException e) {
+				throw new UncheckedIOException("Unable to write the game log", e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the most recently emitted token
+	 *
+	 * @return The last token in the log
+	 */
+	public Token last() {
+		return back(1);
+	}
+
+	/**
+	 * Returns a token a given distance from the end of the log, where 1 is the
+	 * most recent token, 2 the one before it, and so on
+	 *
+	 * @param i
+	 *            How far back from the end of the log to look
+	 * @return The token i places from the end of the log
+	 * @throws IndexOutOfBoundsException
+	 *             if the token was never emitted or has fallen out of the
+	 *             window held in memory
+	 */
+	public Token back(int i) {
+		if (i < 1 || i > emitted || i > window.length) {
+			throw new IndexOutOfBoundsException("Token " + i + " back isn't held by the log");
+		}
+		return window[(int) ((emitted - i) % window.length)];
+	}
+
+	/**
+	 * Returns the number of tokens emitted so far, including those no longer
+	 * held in memory
+	 *
+	 * @return The size of the log
+	 */
+	public int size() {
+		return (int) Math.min(emitted, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the number of tokens the log can look back on
+	 *
+	 * @return The capacity of the log
+	 */
+	public int getCapacity() {
+		return window.length;
+	}
+
+	/**
+	 * Gets the tokens still held in memory
+	 *
+	 * @return List of the most recent tokens in the order they were emitted
+	 */
+	public List<Token> getTokens() {
+		int held = (int) Math.min(emitted, window.length);
+		List<Token> tokens = new ArrayList<Token>(held);
+		for (int i = held; i > 0; i--) {
+			tokens.add(back(i));
+		}
+		return tokens;
+	}
+
+	/**
+	 * Prints the tokens held in memory to standard out, mostly for debugging
+	 */
+	public void printLog() {
+		System.out.println(getTokens());
+	}
+
+	/**
+	 * Pushes any buffered tokens out to the sink
+	 *
+	 * @throws IOException
+	 *             if the sink can't be written to
+	 */
+	public void flush() throws IOException {
+		if (sink != null) {
+			sink.flush();
+		}
+	}
+
+	/**
+	 * Flushes and closes the sink, if there is one. Tokens emitted afterwards
+	 * are only kept in memory.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (sink != null) {
+			try {
+				sink.close();
+			} finally {
+				sink = null;
+			}
+		}
+	}
+
+	/**
+	 * Reads back a history written by a GameLog's sink
+	 *
+	 * @param in
+	 *            Stream containing the history, it is read to the end but not
+	 *            closed
+	 * @return Every token in the history in the order it was emitted
+	 * @throws IOException
+	 *             if the stream can't be read or doesn't hold a history
+	 */
+	public static List<Token> replay(InputStream in) throws IOException {
+		List<Token> tokens = new ArrayList<Token>();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			for (int i = 0; i < read; i++) {
+				int ordinal = buffer[i] & 0xFF;
+				if (ordinal >= TOKENS.length) {
+					throw new IOException("Byte " + (tokens.size()) + " isn't a token: " + ordinal);
+				}
+				tokens.add(TOKENS[ordinal]);
+			}
+		}
+		return tokens;
+	}
+}
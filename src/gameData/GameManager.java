@@ -7,7 +7,7 @@ public class GameManager {
 	
 	public enum ProgramState {
 		BeforePitch, AfterSwing, BeforeReroll, AfterReroll, BatterResolved, 
-		ProcessResult, BeforeDoublePlay, AfterDoublePlay;
+		ProcessResult, BeforeDoublePlay, AfterDoublePlay, GameOver;
 	}
 	
 	private Field grass;
@@ -16,8 +16,9 @@ public class GameManager {
 	private LineupManager defense;
 	private LineupManager offense;
 	private GameStat gamestat;
+	private GameLog log;
 	StrategyCard scMan;
-	Random dice;
+	SplittableRandom dice;
 	private int swingMod;
 	private int pitchMod;
 	private int fieldMod;
@@ -27,11 +28,51 @@ public class GameManager {
 	private int pitch;
 	private String adv;
 	private boolean checkPassed;
+	private boolean stopForCards;
 
 	public GameManager(LineupManager home, LineupManager away, StrategyCard scMan) {
+		this(home, away, scMan, new SplittableRandom());
+	}
+
+	/**
+	 * Creates a game whose dice rolls and card draws come from a given source,
+	 * so that a run of games can be repeated from a seed
+	 * 
+	 * @param home
+	 *            The lineup of the home team
+	 * @param away
+	 *            The lineup of the away team
+	 * @param scMan
+	 *            The strategy card deck in use, may be null for headless games,
+	 *            which draw no cards
+	 * @param dice
+	 *            The source of every dice roll made in this game
+	 */
+	public GameManager(LineupManager home, LineupManager away, StrategyCard scMan, SplittableRandom dice) {
+		this(home, away, scMan, dice, new GameLog());
+	}
+
+	/**
+	 * Creates a game that records its events to a given log, for example one
+	 * that also streams the full history of the game to a file
+	 * 
+	 * @param home
+	 *            The lineup of the home team
+	 * @param away
+	 *            The lineup of the away team
+	 * @param scMan
+	 *            The strategy card deck in use, may be null for headless games,
+	 *            which draw no cards
+	 * @param dice
+	 *            The source of every dice roll made in this game
+	 * @param log
+	 *            An empty GameLog the game's tokens are emitted to
+	 */
+	public GameManager(LineupManager home, LineupManager away, StrategyCard scMan, SplittableRandom dice, GameLog log) {
 		this.scMan = scMan;
-		grass = new Field();
-		dice = new Random();
+		this.log = log;
+		grass = new Field(log);
+		this.dice = dice;
 		gamestat = new GameStat();
 		homeTeam = home;
 		awayTeam = away;
@@ -40,9 +81,27 @@ public class GameManager {
 		swingMod = 0;
 		pitchMod = 0;
 		state = ProgramState.BeforePitch;
-		StrategyCard.emit("BP");
+		log.emit(Token.BeforePitch);
+		stopForCards = scMan != null;
+	}
+
+	/**
+	 * Sets whether runUntil, finishHalfInning and finishGame stop when a team
+	 * holds a card that could be played. Games with a deck stop by default
+	 * and headless games don't, since nobody is there to play a card.
+	 * 
+	 * @param stop
+	 *            true to stop for cards, false to play on past them
+	 */
+	public void setStopForCards(boolean stop) {
+		stopForCards = stop;
 	}
 	
+	/**
+	 * Plays any strategy cards the teams have readied and then moves the game
+	 * forward to the next state where a card could be played. States that
+	 * never stop for a card are passed straight through in a loop.
+	 */
 	public void advanceProgram() {
 		for (StrategyCard sc : offense.getUseCards()) {
 			useStrategy(offense, "offense", sc);
@@ -52,7 +111,75 @@ public class GameManager {
 		}
 		offense.processDiscard(); offense.processUse();
 		defense.processDiscard(); defense.processUse();
-		List<String> tokens = StrategyCard.getTokens();
+		while (step()) {
+		}
+	}
+
+	/**
+	 * Keeps advancing the game until it reaches a given state, the game ends,
+	 * or, when stopping for cards, either team holds a strategy card that
+	 * could be played now. The game
+	 * always advances at least once, so calling this again after passing on a
+	 * card carries on from there.
+	 * 
+	 * @param target
+	 *            The state to stop at
+	 * @return The state the game stopped in
+	 */
+	public ProgramState runUntil(ProgramState target) {
+		do {
+			advanceProgram();
+		} while (state != target && state != ProgramState.GameOver && !awaitingCard());
+		return state;
+	}
+
+	/**
+	 * Keeps advancing the game until the current half inning is over, the game
+	 * ends, or, when stopping for cards, either team holds a strategy card
+	 * that could be played now.
+	 * 
+	 * @return The state the game stopped in
+	 */
+	public ProgramState finishHalfInning() {
+		int inning = gamestat.getInning();
+		boolean top = gamestat.getHalf();
+		do {
+			advanceProgram();
+		} while (gamestat.getInning() == inning && gamestat.getHalf() == top && state != ProgramState.GameOver
+				&& !awaitingCard());
+		return state;
+	}
+
+	/**
+	 * Keeps advancing the game until it ends or, when stopping for cards,
+	 * either team holds a strategy card that could be played now.
+	 * 
+	 * @return The state the game stopped in, GameOver if it was finished
+	 */
+	public ProgramState finishGame() {
+		return runUntil(ProgramState.GameOver);
+	}
+
+	/**
+	 * Checks whether either team holds a strategy card that could be played at
+	 * this point of the game, IE whether the game needs a decision before it
+	 * moves on. Cards for the other side and cards that can be played at any
+	 * time don't count, or the game would stop at nearly every step.
+	 * 
+	 * @return true if a card in either hand is playable here, false otherwise
+	 *         or if the game isn't stopping for cards
+	 */
+	public boolean awaitingCard() {
+		return stopForCards && (offense.hasPlayableCard(log, true) || defense.hasPlayableCard(log, false));
+	}
+
+	/**
+	 * Carries out a single transition of the state machine
+	 * 
+	 * @return true if the new state is passed straight through without giving
+	 *         the teams a chance to play a card
+	 */
+	private boolean step() {
 		switch (state) {
 		case BeforePitch:
 			pitcher = defense.getCurrentPitcher();
@@ -62,11 +189,11 @@ public class GameManager {
 			state = ProgramState.AfterSwing;
 			break;
 		case AfterSwing:
-			if (tokens.get(tokens.size() - 1).equals("RRS")) {
+			if (log.last() == Token.RerollSwing) {
 				state = ProgramState.BeforeReroll;
 			} else {
 				state = ProgramState.ProcessResult;
-				advanceProgram();
+				return true;
 			}
 			break;
 		case BeforeReroll:
@@ -74,55 +201,60 @@ public class GameManager {
 			state = ProgramState.AfterReroll;
 			break;
 		case AfterReroll:
-			if (tokens.get(tokens.size() - 1).equals("RRS")) {
+			if (log.last() == Token.RerollSwing) {
 				state = ProgramState.BeforeReroll;
 			} else {
 				state = ProgramState.ProcessResult;
-				advanceProgram();
+				return true;
 			}
 			break;	
 		case ProcessResult:
 			processResult();
-			if (tokens.get(tokens.size() - 1).equals("BDP")) {
+			if (log.last() == Token.BeforeDoublePlay) {
 				state = ProgramState.BeforeDoublePlay;
-			} else if (tokens.get(tokens.size() - 1).equals("ADP")) {
+			} else if (log.last() == Token.AfterDoublePlay) {
 				state = ProgramState.AfterDoublePlay;
 			} else {
 				state = ProgramState.BatterResolved;
-				advanceProgram();
+				return true;
 			}
 			break;
 		case BeforeDoublePlay:
 			state = ProgramState.ProcessResult;
-			advanceProgram();
-			break;
+			return true;
 		case AfterDoublePlay:
-			if (tokens.get(tokens.size() - 1).equals("RRDP")) {
+			if (log.last() == Token.RerollDoublePlay) {
 				state = ProgramState.BeforeDoublePlay;
-				advanceProgram();
-				break;
+			} else {
+				state = ProgramState.ProcessResult;
 			}
-			state = ProgramState.ProcessResult;
-			advanceProgram();
-			break;
+			return true;
 		case BatterResolved:
 			offense.nextBatter();
 			gamestat.update();
 			swingMod = 0;
 			pitchMod = 0;
+			if (gamestat.isGameOver()) {
+				grass.clear();
+				state = ProgramState.GameOver;
+				break;
+			}
 			if (gamestat.inningEnd()) {
-				StrategyCard.emit("IO");
+				log.emit(Token.InningOver);
 				grass.clear();
 				LineupManager temp = offense;
 				offense = defense;
 				defense = temp;
-				offense.drawCard();
-				defense.drawCard();
+				draw(offense);
+				draw(defense);
 			}
 			state = ProgramState.BeforePitch;
-			StrategyCard.emit("BP");
+			log.emit(Token.BeforePitch);
+			break;
+		case GameOver:
 			break;
 		}
+		return false;
 	}
 
 	/* public void pitch() {
@@ -148,12 +280,12 @@ public class GameManager {
 	public String swing(int pitch, HitterData hitter, PitcherData pitcher) {
 		String adv;
 		if (pitch >= hitter.getBaseMod()) {
-			StrategyCard.emit("PC");
-			pitcher.checkCard(roll() + swingMod);
+			log.emit(Token.PitcherChart);
+			pitcher.checkCard(roll() + swingMod, log);
 			adv = "Pitcher";
 		} else {
-			StrategyCard.emit("HC");
-			hitter.checkCard(roll() + swingMod);
+			log.emit(Token.HitterChart);
+			hitter.checkCard(roll() + swingMod, log);
 			adv = "Hitter";
 		}
 		swingMod = 0;
@@ -162,11 +294,22 @@ public class GameManager {
 	
 	public void useStrategy(LineupManager user, String team, StrategyCard s) {
 		if (user.getSCards().contains(s)) {
-			this.parsePostcondition(s.getPost(), offense, defense, team);
+			this.runEffects(s.getEffects(), offense, defense, team);
 		}
 		
 	}
 
+	/**
+	 * Draws a strategy card for a team, unless the game has no deck. Headless
+	 * games then never touch the dice for cards, so their results for a seed
+	 * don't depend on whether a deck happens to be loaded.
+	 */
+	private void draw(LineupManager team) {
+		if (scMan != null) {
+			team.drawCard(dice);
+		}
+	}
+
 	private int roll() {
 		return dice.nextInt(20) + 1;
 	}
@@ -181,49 +324,63 @@ public class GameManager {
 	}
 	
 	public GameStat processResult() {
-		List<String> tokens = StrategyCard.getTokens();
-		String token = tokens.get(tokens.size() - 1);
+		Token token = log.last();
 		int i = 1;
-		while (token.startsWith("'")) {
+		while (token == Token.CardPlayed) {
 			i++;
-			token = tokens.get(tokens.size() - i);
+			token = log.back(i);
 		}
 		switch (token) {
-		case "PU":
+		case Popout:
 			return grass.popout(gamestat);
-		case "SO":
+		case Strikeout:
 			return grass.strikeout(gamestat);
-		case "GO":
+		case Groundout:
 			return grass.groundout(defense, offense.getCurrentBatter(), gamestat);
-		case "FO":
+		case Flyout:
 			return grass.flyout(gamestat);
-		case "BB":
+		case Walk:
 			return grass.walk(offense.getCurrentBatter(), gamestat);
-		case "1B":
+		case Single:
 			return grass.single(offense.getCurrentBatter(), gamestat);
-		case "1B+":
+		case SinglePlus:
 			return grass.singlePlus(offense.getCurrentBatter(), gamestat);
-		case "2B":
+		case Double:
 			return grass.twoBase(offense.getCurrentBatter(), gamestat);
-		case "3B":
+		case Triple:
 			return grass.triple(offense.getCurrentBatter(), gamestat);
-		case "HR":
+		case Homerun:
 			return grass.homer(gamestat);
-		case "RRDP":
-		case "BDP":
+		case RerollDoublePlay:
+		case BeforeDoublePlay:
 			checkPassed = infieldCheck(defense, offense.getCurrentBatter());
-			StrategyCard.emit("ADP");
+			log.emit(Token.AfterDoublePlay);
 			return gamestat;
-		case "ADP":
+		case AfterDoublePlay:
 			fieldMod = 0;
 			return grass.doublePlay(offense.getCurrentBatter(), gamestat, checkPassed);
 		default:
-			StrategyCard.printLog();
+			log.printLog();
 			throw new IllegalArgumentException("This method was called at a bad time");
 		}
 	}
 
-	public boolean parsePostcondition(String s, LineupManager offense, LineupManager defense, String team) {
+	/**
+	 * Carries out the compiled effects of a strategy card in order. A guard on
+	 * the pitcher or batter that isn't satisfied stops the remaining effects.
+	 * 
+	 * @param effects
+	 *            The compiled effects of the card being played
+	 * @param offense
+	 *            The lineup of the team at bat
+	 * @param defense
+	 *            The lineup of the team in the field
+	 * @param team
+	 *            "offense" if the card was played by the team at bat,
+	 *            "defense" otherwise
+	 * @return true if every effect was carried out, false if a guard failed
+	 */
+	public boolean runEffects(List<Effect> effects, LineupManager offense, LineupManager defense, String team) {
 		LineupManager user;
 		LineupManager enemy;
 		if (team.equals("offense")) {
@@ -233,95 +390,78 @@ public class GameManager {
 			user = defense;
 			enemy = offense;
 		}
-		String[] all = s.split(" ");
-		for (int i = 0; i < all.length; i++) {
-			String[] pre = all[i].split("\\+");
-			if (pre.length > 1) {
-				String[] post = pre[1].split("\\^");
-				if (post.length > 1) {
-					for (String p : post) {
-						if (parsePostcondition(pre[0] + "+" + p, offense, defense, team)) {
-							break;
-						}
-					}
-				}
-			}
-			switch (pre[0]) {
-			case "SW": // Change swingMod
-				swingMod += parseIntCondition(pre[1]);
+		for (Effect e : effects) {
+			switch (e.getOp()) {
+			case SwingMod:
+				swingMod += effectAmount(e);
 				break;
-			case "PI": // Change pitchMod
-				pitchMod += parseIntCondition(pre[1]);
+			case PitchMod:
+				pitchMod += effectAmount(e);
 				break;
-			case "D": // Change fieldMod
-				fieldMod += parseIntCondition(pre[1]);
+			case FieldMod:
+				fieldMod += effectAmount(e);
 				break;
-			case "P": // Status related to the pitcher
-				PitcherData pitcher = defense.getCurrentPitcher();
-				if (pre[1].equals("TI")) { // Pitcher is tired
-					//defense.getCurrentPitcher().checkInnings(defense.g)
-				} else if (pre[1].equals("CL") && !pitcher.getRole().equals("Closer")) { // Pitcher is a closer
-					return false;
-				} else if (pre[1].equals("L") && !pitcher.getHand().equals("L")) {
-					return false;
-				} else if (pre[1].equals("R") && !pitcher.getHand().equals("R")) {
+			case PitcherIs:
+				if (!pitcherIs(defense.getCurrentPitcher(), e.getChoices())) {
 					return false;
 				}
 				break;
-			case "B":	// Status related to the batter
-				HitterData batter = offense.getCurrentBatter();
-				if (pre[1].equals("R") && !batter.getBattingSide().equals("R")) {
-					return false;
-				} else if (pre[1].equals("S") && batter.getBattingSide().equals("S")) {
-					return false;
-				} else if (pre[1].equals("L") && batter.getBattingSide().equals("L")) {
+			case BatterIs:
+				if (!e.getChoices().contains(offense.getCurrentBatter().getBattingSide())) {
 					return false;
 				}
 				break;
-			case "DI": // Discard a card
-				for (int j = 0; j < Integer.parseInt(pre[2]); j++) {
-					if (pre[1].equals("SE")) {
+			case Discard:
+				for (int j = 0; j < e.getAmount(); j++) {
+					if (e.isSelf()) {
 						user.processDiscard();
 					} else {
 						enemy.processDiscard();
 					}
 				}
 				break;
-			case "DR": // Draw a card
-				for (int j = 0; j < Integer.parseInt(pre[2]); j++) {
-					if (pre[1].equals("SE")) {
-						user.drawCard();
+			case Draw:
+				for (int j = 0; j < e.getAmount(); j++) {
+					if (e.isSelf()) {
+						draw(user);
 					} else {
-						enemy.drawCard();
+						draw(enemy);
 					}
 				}
 				break;
-			case "PU":	// Change result to pop out
-				StrategyCard.emit("PU");
-				break;
-			case "BB":	// Change result to walk
-				StrategyCard.emit("BB");
-				break;
-			case "RRS": // Reroll a swing
-				StrategyCard.emit("RRS");
+			case Emit:
+				log.emit(e.getToken());
 				break;
-			case "RRDP": // Reroll a doubleplay
-				StrategyCard.emit("RRDP");
-				break;
-			default:
-				throw new IllegalArgumentException(pre[0] + ": not a valid postcondition");
 			}
 		}
 		return true;
 	}
 
-	private int parseIntCondition(String s) {
-		switch (s) {
-		case "AR": // All runners
+	private int effectAmount(Effect e) {
+		if (e.isPerRunner()) {
 			return grass.getState();
-		default:
-			return Integer.parseInt(s);
 		}
+		return e.getAmount();
+	}
+
+	private boolean pitcherIs(PitcherData pitcher, List<String> choices) {
+		for (String choice : choices) {
+			switch (choice) {
+			case "TI": // Pitcher is tired
+				//defense.getCurrentPitcher().checkInnings(defense.g)
+				return true;
+			case "CL": // Pitcher is a closer
+				if (pitcher.getRole().equals("Closer")) {
+					return true;
+				}
+				break;
+			default: // Pitcher throws with the given hand
+				if (pitcher.getHand().equals(choice)) {
+					return true;
+				}
+			}
+		}
+		return false;
 	}
 
 	/*
@@ -329,7 +469,7 @@ public class GameManager {
 	 * substitution
 	 */
 	public void resetGameTrack() {
-		gamestat = new GameStat();
+		gamestat.reset();
 	}
 
 	public int getTotalRuns() {
@@ -353,7 +493,16 @@ public class GameManager {
 	}
 	
 	public boolean inningSwitched() {
-		return StrategyCard.getTokens().get(StrategyCard.getTokens().size() - 2).equals("IO");
+		return log.back(2) == Token.InningOver;
+	}
+	
+	/**
+	 * Gets the log of tokens emitted over the course of this game
+	 * 
+	 * @return The GameLog owned by this game
+	 */
+	public GameLog getLog() {
+		return log;
 	}
 	
 	public LineupManager getAway() {
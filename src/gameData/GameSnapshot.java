@@ -0,0 +1,224 @@
+package gameData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import players.HitterData;
+import players.PitcherData;
+import players.PlayerData;
+
+/**
+ * An immutable copy of everything the interface shows about a game at one
+ * moment. A GameManager is only safe to touch from the thread playing it, so
+ * that thread takes a snapshot after each step and hands it to the interface,
+ * which reads the snapshot and never the game itself.
+ *
+ * Players and strategy cards are shared with the game rather than copied;
+ * they don't change once loaded.
+ *
+ * @author Matthew Bunge
+ */
+
+public final class GameSnapshot {
+
+	private final GameManager.ProgramState state;
+	private final HitterData hitter;
+	private final PitcherData pitcher;
+	private final String prevAdv;
+	private final Token last;
+	private final boolean checkPassed;
+	private final boolean inningSwitched;
+	private final int inning;
+	private final int outs;
+	private final int awayRuns;
+	private final int awayHits;
+	private final int homeRuns;
+	private final int homeHits;
+	private final List<Integer> awaySpread;
+	private final List<Integer> homeSpread;
+	private final PlayerData[] runners;
+	private final PlayerData[] fielders;
+	private final List<StrategyCard> homeCards;
+	private final List<StrategyCard> awayCards;
+	private final List<StrategyCard> playable;
+
+	/**
+	 * Copies the state of a game. Must be called from the thread playing it.
+	 *
+	 * @param game
+	 *            The game being copied
+	 */
+	public GameSnapshot(GameManager game) {
+		GameStat gs = game.getGameStat();
+		GameLog log = game.getLog();
+		state = game.getProgramState();
+		hitter = game.getHitter();
+		pitcher = game.getPitcher();
+		prevAdv = game.getPrevAdv();
+		last = log.size() > 0 ? log.last() : null;
+		checkPassed = game.checkPassed();
+		inningSwitched = log.size() > 1 && game.inningSwitched();
+		inning = gs.getInning();
+		outs = gs.getOuts();
+		awayRuns = gs.getAwayRuns();
+		awayHits = gs.getAwayHits();
+		homeRuns = gs.getHomeRuns();
+		homeHits = gs.getHomeHits();
+		awaySpread = Collections.unmodifiableList(new ArrayList<Integer>(gs.getAwaySpread()));
+		homeSpread = Collections.unmodifiableList(new ArrayList<Integer>(gs.getHomeSpread()));
+		runners = new PlayerData[3];
+		for (int base = 1; base <= 3; base++) {
+			runners[base - 1] = game.getRunnerOn(base);
+		}
+		fielders = new PlayerData[9];
+		for (int pos = 1; pos <= 9; pos++) {
+			fielders[pos - 1] = game.getDefense().getPlayerAtPosition(pos);
+		}
+		homeCards = Collections.unmodifiableList(game.getHome().getSCards());
+		awayCards = Collections.unmodifiableList(game.getAway().getSCards());
+		List<StrategyCard> canPlay = new ArrayList<StrategyCard>();
+		addPlayable(canPlay, homeCards, log);
+		addPlayable(canPlay, awayCards, log);
+		playable = Collections.unmodifiableList(canPlay);
+	}
+
+	private static void addPlayable(List<StrategyCard> canPlay, List<StrategyCard> hand, GameLog log) {
+		for (StrategyCard sc : hand) {
+			if (!canPlay.contains(sc) && sc.isPlayable(log)) {
+				canPlay.add(sc);
+			}
+		}
+	}
+
+	public GameManager.ProgramState getProgramState() {
+		return state;
+	}
+
+	public HitterData getHitter() {
+		return hitter;
+	}
+
+	public PitcherData getPitcher() {
+		return pitcher;
+	}
+
+	public String getPrevAdv() {
+		return prevAdv;
+	}
+
+	/**
+	 * Gets the last token the game emitted
+	 *
+	 * @return The most recent token, null if there is none yet
+	 */
+	public Token getLast() {
+		return last;
+	}
+
+	public boolean checkPassed() {
+		return checkPassed;
+	}
+
+	public boolean inningSwitched() {
+		return inningSwitched;
+	}
+
+	public int getInning() {
+		return inning;
+	}
+
+	public int getOuts() {
+		return outs;
+	}
+
+	public int getAwayRuns() {
+		return awayRuns;
+	}
+
+	public int getAwayHits() {
+		return awayHits;
+	}
+
+	public int getHomeRuns() {
+		return homeRuns;
+	}
+
+	public int getHomeHits() {
+		return homeHits;
+	}
+
+	/**
+	 * Gets the away team's runs in each inning played so far
+	 *
+	 * @return Unmodifiable list of runs per inning
+	 */
+	public List<Integer> getAwaySpread() {
+		return awaySpread;
+	}
+
+	/**
+	 * Gets the home team's runs in each inning played so far
+	 *
+	 * @return Unmodifiable list of runs per inning
+	 */
+	public List<Integer> getHomeSpread() {
+		return homeSpread;
+	}
+
+	/**
+	 * Gets the runner on a base
+	 *
+	 * @param base
+	 *            The base, 1 to 3
+	 * @return The runner on that base, null if it's empty
+	 */
+	public PlayerData getRunnerOn(int base) {
+		return runners[base - 1];
+	}
+
+	/**
+	 * Gets the defensive player at a position
+	 *
+	 * @param pos
+	 *            The position, 1 to 9
+	 * @return The player fielding that position
+	 */
+	public PlayerData getPlayerAtPosition(int pos) {
+		return fielders[pos - 1];
+	}
+
+	/**
+	 * Gets the strategy cards in the home team's hand
+	 *
+	 * @return Unmodifiable list of the cards
+	 */
+	public List<StrategyCard> getHomeCards() {
+		return homeCards;
+	}
+
+	/**
+	 * Gets the strategy cards in the away team's hand
+	 *
+	 * @return Unmodifiable list of the cards
+	 */
+	public List<StrategyCard> getAwayCards() {
+		return awayCards;
+	}
+
+	/**
+	 * Checks whether a card in either hand could be played at this point of
+	 * the game
+	 *
+	 * @param sc
+	 *            The card being checked
+	 * @return true if the card is playable
+	 */
+	public boolean isPlayable(StrategyCard sc) {
+		return playable.contains(sc);
+	}
+
+	public boolean isGameOver() {
+		return state == GameManager.ProgramState.GameOver;
+	}
+}
@@ -1,6 +1,7 @@
 package gameData;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -16,6 +17,11 @@ import java.util.List;
 
 public class GameStat {
 
+	/**
+	 * The number of innings in a regulation game.
+	 */
+	public static final int REGULATION_INNINGS = 9;
+
 	private int outs;
 	private int homeRuns;
 	private int awayRuns;
@@ -23,21 +29,43 @@ public class GameStat {
 	private int awayHits;
 	private boolean top;
 	private boolean inningEnd;
+	private boolean gameOver;
 	private int inning;
-	private ArrayList<Integer> homeSpread;
-	private ArrayList<Integer> awaySpread;
+	// Runs by inning, only the first homeFrames and awayFrames entries have
+	// been reached. Both grow on demand for extra innings.
+	private int[] homeSpread;
+	private int[] awaySpread;
+	private int homeFrames;
+	private int awayFrames;
+	private final List<Integer> homeView;
+	private final List<Integer> awayView;
 
 	/**
 	 * Creates a GameStat representing a brand new game instance.
 	 */
 	public GameStat() {
+		homeSpread = new int[REGULATION_INNINGS];
+		awaySpread = new int[REGULATION_INNINGS];
+		homeView = new SpreadView(true);
+		awayView = new SpreadView(false);
+		reset();
+	}
+
+	/**
+	 * Returns this GameStat to the state of a brand new game so it can be
+	 * reused without allocating a new one.
+	 */
+	public void reset() {
 		outs = 0;
 		homeRuns = awayRuns = homeHits = awayHits = 0;
 		top = true;
+		inningEnd = false;
+		gameOver = false;
 		inning = 1;
-		homeSpread = new ArrayList<>();
-		awaySpread = new ArrayList<>();
-		awaySpread.add(0);
+		Arrays.fill(homeSpread, 0);
+		Arrays.fill(awaySpread, 0);
+		homeFrames = 0;
+		awayFrames = 1;
 	}
 
 	/**
@@ -60,17 +88,27 @@ public class GameStat {
 	}
 
 	/**
-	 * Flips over the inning if a third out has been recorded.
+	 * Flips over the inning if a third out has been recorded. Ends the game
+	 * instead if the home team leads after the top of the final inning, or if
+	 * either team leads after the bottom of it.
 	 */
 	public void update() {
 		if (outs == 3) {
 			if (top) {
-				top = false;
-				homeSpread.add(0);
+				if (inning >= REGULATION_INNINGS && homeRuns > awayRuns) {
+					gameOver = true;
+				} else {
+					top = false;
+					homeSpread = newFrame(homeSpread, homeFrames++);
+				}
 			} else {
-				inning++;
-				top = true;
-				awaySpread.add(0);
+				if (inning >= REGULATION_INNINGS && homeRuns != awayRuns) {
+					gameOver = true;
+				} else {
+					inning++;
+					top = true;
+					awaySpread = newFrame(awaySpread, awayFrames++);
+				}
 			}
 			inningEnd = true;
 			outs = 0;
@@ -78,15 +116,19 @@ public class GameStat {
 	}
 
 	/**
-	 * Increments runs of the current team batting.
+	 * Increments runs of the current team batting. A home team taking the lead
+	 * in the bottom of the final inning ends the game.
 	 */
 	public void score() {
 		if (top) {
 			awayRuns++;
-			awaySpread.add(inning - 1, awaySpread.remove(inning - 1) + 1);
+			awaySpread[inning - 1]++;
 		} else {
 			homeRuns++;
-			homeSpread.add(inning - 1, homeSpread.remove(inning - 1) + 1);
+			homeSpread[inning - 1]++;
+			if (inning >= REGULATION_INNINGS && homeRuns > awayRuns) {
+				gameOver = true;
+			}
 		}
 	}
 
@@ -115,6 +157,15 @@ public class GameStat {
 		return false;
 	}
 
+	/**
+	 * Indicates whether the game has been decided.
+	 * 
+	 * @return true if the game is over, false otherwise.
+	 */
+	public boolean isGameOver() {
+		return gameOver;
+	}
+
 	/**
 	 * Returns the inning by inning list of the runs scored by the home team.
 	 * If a frame has not been reaching the spread will have no value for it.
@@ -122,7 +173,7 @@ public class GameStat {
 	 * @return the list of runs scored by inning by the home team.
 	 */
 	public List<Integer> getHomeSpread() {
-		return homeSpread;
+		return homeView;
 	}
 
 	/**
@@ -132,7 +183,33 @@ public class GameStat {
 	 * @return the list of runs scored by inning by the away team.
 	 */
 	public List<Integer> getAwaySpread() {
-		return awaySpread;
+		return awayView;
+	}
+
+	/**
+	 * Gets the runs scored by the home team in a single inning without going
+	 * through the list view.
+	 * 
+	 * @param inning
+	 *            the inning, starting from 1.
+	 * @return the runs scored by the home team in that inning, 0 if it hasn't
+	 *         been reached.
+	 */
+	public int getHomeRuns(int inning) {
+		return inning <= homeFrames ? homeSpread[inning - 1] : 0;
+	}
+
+	/**
+	 * Gets the runs scored by the away team in a single inning without going
+	 * through the list view.
+	 * 
+	 * @param inning
+	 *            the inning, starting from 1.
+	 * @return the runs scored by the away team in that inning, 0 if it hasn't
+	 *         been reached.
+	 */
+	public int getAwayRuns(int inning) {
+		return inning <= awayFrames ? awaySpread[inning - 1] : 0;
 	}
 	
 	/**
@@ -189,4 +266,42 @@ public class GameStat {
 	public boolean getHalf() {
 		return top;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Starts a new frame in a spread, doubling the array if extra innings have
+	 * run past its end.
+	 */
+	private static int[] newFrame(int[] spread, int frame) {
+		if (frame == spread.length) {
+			spread = Arrays.copyOf(spread, spread.length * 2);
+		}
+		spread[frame] = 0;
+		return spread;
+	}
+
+	/**
+	 * Read only list over the frames of a spread that have been reached, so
+	 * the interface can keep treating a spread as a list.
+	 */
+	private class SpreadView extends AbstractList<Integer> {
+
+		private final boolean home;
+
+		private SpreadView(boolean home) {
+			this.home = home;
+		}
+
+		@Override
+		public Integer get(int index) {
+			if (index < 0 || index >= size()) {
+				throw new IndexOutOfBoundsException("Inning " + (index + 1) + " hasn't been reached");
+			}
+			return home ? homeSpread[index] : awaySpread[index];
+		}
+
+		@Override
+		public int size() {
+			return home ? homeFrames : awayFrames;
+		}
+	}
+}
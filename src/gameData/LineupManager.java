@@ -8,7 +8,12 @@ import players.*;
 
 public class LineupManager {
 
-	private Map<String, PlayerData> team;
+	/**
+	 * The set save files that name their players were drafted from
+	 */
+	private static final String LEGACY_YEAR = "'04";
+
+	private Map<Integer, PlayerData> team;
 	private PlayerData[] field;
 	private HitterData[] lineup;
 	private PitcherData currentPitcher;
@@ -22,7 +27,7 @@ public class LineupManager {
 	 * Creates new empty LineupManager.
 	 */
 	public LineupManager() {
-		team = new HashMap<>();
+		team = new LinkedHashMap<>();
 		field = new PlayerData[10];
 		lineup = new HitterData[9];
 		currentPitcher = null;
@@ -36,25 +41,63 @@ public class LineupManager {
 	 * Creates LineupManager with initial collection of players.
 	 * 
 	 * @param team
-	 *            Map<String, PlayerData> of initial players in LineupManager.
+	 *            Collection of initial players in LineupManager.
+	 */
+	public LineupManager(Collection<PlayerData> team) {
+		this();
+		for (PlayerData p : team) {
+			addPlayer(p);
+		}
+	}
+
+	/**
+	 * Creates a copy of a LineupManager with the same roster, field and batting
+	 * order, starting from the top of the order with an empty hand. Useful for
+	 * playing many games with the same lineup at once.
+	 * 
+	 * @param other
+	 *            The LineupManager being copied.
 	 */
-	public LineupManager(Map<String, PlayerData> team) {
+	public LineupManager(LineupManager other) {
 		this();
-		this.team = team;
+		team = new LinkedHashMap<>(other.team);
+		field = other.field.clone();
+		lineup = other.lineup.clone();
+		currentPitcher = other.currentPitcher;
 	}
 
 	/**
 	 * Gets players on the team.
 	 * 
-	 * @return Map<String, PlayerData> of players on the team.
+	 * @return Unmodifiable collection of the players on the team, in the order
+	 *         they were added.
 	 */
-	public Map<String, PlayerData> getTeam() {
-		return team;
+	public Collection<PlayerData> getTeam() {
+		return Collections.unmodifiableCollection(team.values());
 	}
 
-	public int playerInField(String s) {
+	/**
+	 * Gets a player on the team.
+	 * 
+	 * @param handle
+	 *            The handle of the player.
+	 * @return The PlayerData with that handle, null if they aren't on the team.
+	 */
+	public PlayerData getPlayer(int handle) {
+		return team.get(handle);
+	}
+
+	/**
+	 * Checks if a given player is playing in the field.
+	 * 
+	 * @param handle
+	 *            The handle of the player being checked.
+	 * @return int representing the position the player is playing, -1 if they
+	 *         aren't in the field.
+	 */
+	public int playerInField(int handle) {
 		for (int i = 0; i < field.length; i++) {
-			if (field[i] != null && field[i].equals(team.get(s))) {
+			if (field[i] != null && field[i].getHandle() == handle) {
 				return i;
 			}
 		}
@@ -62,16 +105,16 @@ public class LineupManager {
 	}
 
 	/**
-	 * Checks if a given player is playing in the field.
+	 * Checks if a given player is in the batting order.
 	 * 
-	 * @param s
-	 *            String name of the player being checked.
-	 * @return int representing the position the player is playing, -1 if they
-	 *         aren't in the field.
+	 * @param handle
+	 *            The handle of the player being checked.
+	 * @return int representing the player's spot in the order counting from 0,
+	 *         10 if they aren't in the order.
 	 */
-	public int playerInLineup(String s) {
+	public int playerInLineup(int handle) {
 		for (int i = 0; i < lineup.length; i++) {
-			if (lineup[i] != null && lineup[i].equals(team.get(s))) {
+			if (lineup[i] != null && lineup[i].getHandle() == handle) {
 				return i;
 			}
 		}
@@ -96,19 +139,18 @@ public class LineupManager {
 	 *            The PlayerData being added to the LineupManager
 	 */
 	public void addPlayer(PlayerData p) {
-		team.put(p.toString(), p);
+		team.put(p.getHandle(), p);
 	}
 
 	/**
 	 * Substitutes in a new pitcher as the current pitcher for this lineup.
 	 * 
 	 * @param p
-	 *            String representing the name of the pitcher being substituted
-	 *            in.
+	 *            The handle of the pitcher being substituted in.
 	 * @throws IllegalArgumentException
 	 *             if the passed player is not a pitcher.
 	 */
-	public void subPitcher(String p) {
+	public void subPitcher(int p) {
 		if (team.get(p).getClass() != PitcherData.class) { // Don't want phantom
 															// HitterData by
 															// accident
@@ -125,14 +167,14 @@ public class LineupManager {
 	 * Inserts a player into the field at a given position.
 	 * 
 	 * @param s
-	 *            String name of the player being inserted into the field.
+	 *            The handle of the player being inserted into the field.
 	 * @param field
 	 *            int representing the position being inserted into.
 	 * @return PlayerData of any player who was currently at that position.
 	 * @throws IllegalArgumentException
 	 *             if the passed int isn't a real position.
 	 */
-	public PlayerData playTheField(String s, int field) {
+	public PlayerData playTheField(int s, int field) {
 		if (field > 9 || field < 0) {
 			throw new IllegalArgumentException("Field position must be between 0 and 9");
 		}
@@ -145,7 +187,7 @@ public class LineupManager {
 	 * Inserts a player into the batting order at a given position.
 	 * 
 	 * @param s
-	 *            String name of the player being inserted into the batting
+	 *            The handle of the player being inserted into the batting
 	 *            order.
 	 * @param lineup
 	 *            int representing the position being inserted into.
@@ -153,7 +195,7 @@ public class LineupManager {
 	 * @throws IllegalArgumentException
 	 *             if lineup position passed isn't a real position.
 	 */
-	public PlayerData hitInOrder(String s, int lineup) {
+	public PlayerData hitInOrder(int s, int lineup) {
 		if (lineup > 9 || lineup < 1) {
 			throw new IllegalArgumentException("Lineup position must be between 1 and 9");
 		}
@@ -177,6 +219,17 @@ public class LineupManager {
 		return lineup[currentSpot];
 	}
 
+	/**
+	 * Gets the batter at a spot in the batting order.
+	 * 
+	 * @param spot
+	 *            The spot in the order, from 1 to 9.
+	 * @return HitterData of the player batting there, null if nobody is.
+	 */
+	public HitterData getBatter(int spot) {
+		return lineup[spot - 1];
+	}
+
 	/**
 	 * Gets current pitcher.
 	 * 
@@ -247,10 +300,30 @@ public class LineupManager {
 	/**
 	 * Draws random strategy card.
 	 * 
-	 * @return true if card successfully drawn.
+	 * @return true if card successfully drawn, false if there is no deck to
+	 *         draw from.
 	 */
 	public boolean drawCard() {
-		StrategyCard s = StrategyCard.getRandomCard();
+		return addCard(StrategyCard.getRandomCard());
+	}
+
+	/**
+	 * Draws random strategy card using a given source of randomness, so the
+	 * cards drawn can be repeated from a seed.
+	 * 
+	 * @param dice
+	 *            The source of randomness for the draw.
+	 * @return true if card successfully drawn, false if there is no deck to
+	 *         draw from.
+	 */
+	public boolean drawCard(SplittableRandom dice) {
+		return addCard(StrategyCard.getRandomCard(dice));
+	}
+
+	private boolean addCard(StrategyCard s) {
+		if (s == null) {
+			return false;
+		}
 		if (sCards.containsKey(s)) {
 			sCards.put(s, sCards.get(s) + 1);
 		} else {
@@ -293,7 +366,23 @@ public class LineupManager {
 	}
 
 	/**
-	 * Converts the LineupManager into a save file.
+	 * Sets up initial hand of 4 cards drawn with a given source of randomness
+	 * 
+	 * @param dice
+	 *            The source of randomness for the draws.
+	 */
+	public void populateSCards(SplittableRandom dice) {
+		for (int i = 0; i < 4; i++) {
+			drawCard(dice);
+		}
+	}
+
+	/**
+	 * Converts the LineupManager into a save file. Each line holds a player's
+	 * PlayerId, their field position, their spot in the batting order and
+	 * their name, separated by tabs, with "_" for no position and "D" in
+	 * place of the field position for discarded players. The name is only
+	 * there to make the file readable.
 	 * 
 	 * @param fileName
 	 *            The name of the file the lineupManager is being written to.
@@ -301,26 +390,17 @@ public class LineupManager {
 	public void export(String fileName) {
 		try {
 			FileWriter writer = new FileWriter("SaveData/" + fileName);
-			for (String s : team.keySet()) {
-				writer.write(s);
-				String field = "_";
-				String lineup = "_";
-				for (int i = 0; i < 10; i++) {
-					if (this.field[i] != null && this.field[i].equals(team.get(s))) {
-						field = Integer.toString(i);
-					}
-					if (i < 9) {
-						if (this.lineup[i] != null && this.lineup[i].equals(team.get(s))) {
-							lineup = Integer.toString(i);
-						}
-					}
-				}
-				writer.write("\t" + field);
-				writer.write("\t" + lineup);
+			for (PlayerData p : team.values()) {
+				int field = playerInField(p.getHandle());
+				int lineup = playerInLineup(p.getHandle());
+				writer.write(p.getId().toString());
+				writer.write("\t" + (field < 0 ? "_" : Integer.toString(field)));
+				writer.write("\t" + (lineup > 8 ? "_" : Integer.toString(lineup)));
+				writer.write("\t" + p.toString());
 				writer.write("\n");
 			}
 			for (PlayerData p : discarded) {
-				writer.write(p.toString() + " D\n");
+				writer.write(p.getId() + "\tD\t_\t" + p.toString() + "\n");
 			}
 			writer.close();
 		} catch (IOException e) {
@@ -328,6 +408,27 @@ public class LineupManager {
 		}
 	}
 	
+	/**
+	 * Checks whether the team holds a card it could play at this point of a
+	 * game but not at every point. Cards for the other side and cards that are
+	 * always playable are left out, since holding one is no reason to stop
+	 * here rather than anywhere else.
+	 * 
+	 * @param log
+	 *            The GameLog of the game the card would be played in
+	 * @param offense
+	 *            true if the team is at bat, false if it is in the field
+	 * @return true if such a card is in the hand, false otherwise
+	 */
+	public boolean hasPlayableCard(GameLog log, boolean offense) {
+		for (StrategyCard s : sCards.keySet()) {
+			if (s.isUsableBy(offense) && !s.isAlwaysPlayable() && s.isPlayable(log)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Gets an instance of the list of all StrategyCards in the LineupManager
 	 * 
@@ -388,7 +489,10 @@ public class LineupManager {
 	}
 
 	/**
-	 * Imports a save file to a new LineupManager.
+	 * Imports a save file to a new LineupManager. Older save files that name
+	 * players instead of giving their PlayerId are still read; where more than
+	 * one season has a card with the name, the '04 card is taken, since that
+	 * was the only set loaded when they were saved.
 	 * 
 	 * @param fileName
 	 *            the name of the file being imported.
@@ -397,40 +501,75 @@ public class LineupManager {
 	 *            imported from.
 	 * @return a new LineupManager with all attributes as specified in the save
 	 *         file.
+	 * @throws IllegalArgumentException
+	 *             if the file can't be read or names a player that isn't in
+	 *             the pool.
 	 */
-	public static LineupManager teamImport(String fileName, Map<String, PlayerData> pool) {
+	public static LineupManager teamImport(String fileName, DraftManager pool) {
 		try {
-			Scanner s = new Scanner(new File("SaveData/" + fileName));
-			LineupManager loaded = new LineupManager(new HashMap<String, PlayerData>());
-			s.useDelimiter("\\n|\\r\\n|\\t");
-			while (s.hasNext()) {
-				String player = s.next();
-				PlayerData playerD = pool.get(player);
+			BufferedReader reader = new BufferedReader(new FileReader("SaveData/" + fileName));
+			LineupManager loaded = new LineupManager();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				String[] parts = line.split("\t");
+				if (parts.length < 3) {
+					reader.close();
+					throw new IllegalArgumentException("Bad line in " + fileName + ": " + line);
+				}
+				PlayerData playerD = parts.length > 3 ? pool.getPlayer(PlayerId.parse(parts[0]))
+						: findByName(pool, parts[0]);
+				if (playerD == null) {
+					reader.close();
+					throw new IllegalArgumentException(parts[0] + " is not in the pool");
+				}
+				if (parts[1].equals("D")) {
+					loaded.insertTrash(playerD);
+					continue;
+				}
 				loaded.addPlayer(playerD);
-				String str = s.next();
-				if (!str.equals("_")) {
-					loaded.field[Integer.parseInt(str)] = playerD;
+				if (!parts[1].equals("_")) {
+					loaded.field[Integer.parseInt(parts[1])] = playerD;
 				}
-				str = s.next();
-				if (!str.equals("_")) {
+				if (!parts[2].equals("_")) {
 					if (!playerD.isPitcher()) {
-						loaded.lineup[Integer.parseInt(str)] = (HitterData) playerD;
+						loaded.lineup[Integer.parseInt(parts[2])] = (HitterData) playerD;
 					} else {
-						loaded.lineup[Integer.parseInt(str)] = new HitterData((PitcherData) playerD);
+						loaded.lineup[Integer.parseInt(parts[2])] = new HitterData((PitcherData) playerD);
 					}
 				}
-				/*
-				 * String discarded = s.next(); if (!discarded.equals("D")) {
-				 * loaded.addPlayer(pool.get(player)); if (s.hasNextLine()) {
-				 * s.nextLine(); } } else {
-				 * loaded.insertTrash(pool.get(player)); }
-				 */
 			}
-			s.close();
+			reader.close();
 			return loaded;
 		} catch (IOException e) {
 			e.printStackTrace();
 			throw new IllegalArgumentException("Bad file name");
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Finds the card with a name for save files written before cards were
+	 * saved by PlayerId. Those were drafted from the '04 set alone, into a
+	 * pool keyed by name that kept the last card read for a name, so the
+	 * last '04 card is taken when the name isn't unique.
+	 */
+	private static PlayerData findByName(DraftManager pool, String name) {
+		List<PlayerData> found = pool.findPlayers(name);
+		if (found.size() <= 1) {
+			return found.isEmpty() ? null : found.get(0);
+		}
+		PlayerData legacy = null;
+		for (PlayerData p : found) {
+			if (p.getYear().equals(LEGACY_YEAR)) {
+				legacy = p;
+			}
+		}
+		if (legacy == null) {
+			throw new IllegalArgumentException("More than one card for " + name + " in the pool and none from "
+					+ LEGACY_YEAR);
+		}
+		return legacy;
+	}
+}
@@ -0,0 +1,293 @@
+package gameData;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import players.HitterData;
+import players.PitcherData;
+import players.PlayerData;
+
+/**
+ * The chance of every chart result for every hitter against every pitcher in
+ * a pool, as PlateAppearance works them out, kept so the same matchup is
+ * never worked out twice. Lineup and draft code asks the same pairs over and
+ * over, and a lookup here is an array read.
+ *
+ * The matrix is stored a row at a time, one row for each pitcher and pitch
+ * modifier holding a float for every hitter and result. A row is worked out
+ * the first time it's asked for, split across the common fork-join pool, and
+ * once worked out it is read without locking, so any number of threads can
+ * share one matrix. The rows kept are bounded for pools too big to hold in
+ * full. Reading a row marks it, and adding a row past the limit drops the
+ * oldest row not read since the last time it was passed over, so only adding
+ * a row takes a lock.
+ *
+ * Modifiers on the pitch, including a tired pitcher's checkInnings, only
+ * move the advantage roll, so they are folded into one pitch modifier. Swing
+ * modifiers aren't cached; use PlateAppearance directly for them.
+ *
+ * @author Matthew Bunge
+ */
+
+public class MatchupMatrix {
+
+	/**
+	 * The number of hitters one task works out before it stops splitting
+	 */
+	private static final int HITTERS_PER_TASK = 64;
+
+	// The results that can be on a chart come first in Token
+	private static final int RESULTS = Token.Homerun.ordinal() + 1;
+	private static final Token[] TOKENS = Token.values();
+
+	private final HitterData[] hitters;
+	private final int[] column; // by handle, -1 for anything not a hitter
+	private final PitcherData[] pitchers; // by handle
+	private final int maxRows;
+	private final ConcurrentHashMap<Long, Row> rows = new ConcurrentHashMap<Long, Row>();
+	private final Queue<Long> clock = new ArrayDeque<Long>(); // keys in the order swept
+
+	/**
+	 * Creates a matrix that keeps a row for every pitcher in the pool
+	 *
+	 * @param pool
+	 *            The players to work out matchups between
+	 */
+	public MatchupMatrix(Collection<PlayerData> pool) {
+		this(pool, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a matrix that keeps a limited number of rows
+	 *
+	 * @param pool
+	 *            The players to work out matchups between
+	 * @param maxRows
+	 *            The most rows kept at once, each one a pitcher at a pitch
+	 *            modifier, before one that hasn't been read lately is dropped
+	 * @throws IllegalArgumentException
+	 *             if maxRows isn't positive
+	 */
+	public MatchupMatrix(Collection<PlayerData> pool, int maxRows) {
+		if (maxRows < 1) {
+			throw new IllegalArgumentException("A matchup matrix has to keep at least one row");
+		}
+		List<HitterData> h = new ArrayList<HitterData>();
+		int top = 0;
+		for (PlayerData p : pool) {
+			top = Math.max(top, p.getHandle() + 1);
+		}
+		column = new int[top];
+		Arrays.fill(column, -1);
+		pitchers = new PitcherData[top];
+		for (PlayerData p : pool) {
+			if (p.isPitcher()) {
+				pitchers[p.getHandle()] = (PitcherData) p;
+			} else {
+				column[p.getHandle()] = h.size();
+				h.add((HitterData) p);
+			}
+		}
+		hitters = h.toArray(new HitterData[h.size()]);
+		this.maxRows = maxRows;
+	}
+
+	/**
+	 * Gets the chance of a result for a hitter against a fresh pitcher with
+	 * no modifiers
+	 *
+	 * @param hitter
+	 *            The handle of the batter
+	 * @param pitcher
+	 *            The handle of the pitcher
+	 * @param result
+	 *            The token read off the chart
+	 * @return The chance of that result, from 0 to 1
+	 * @throws IllegalArgumentException
+	 *             if either handle isn't a player of that kind in the pool
+	 */
+	public double getChance(int hitter, int pitcher, Token result) {
+		return getChance(hitter, pitcher, 0, result);
+	}
+
+	/**
+	 * Gets the chance of a result for a hitter against a pitcher
+	 *
+	 * @param hitter
+	 *            The handle of the batter
+	 * @param pitcher
+	 *            The handle of the pitcher
+	 * @param pitchMod
+	 *            Everything added to the pitch, the pitcher's checkInnings
+	 *            included
+	 * @param result
+	 *            The token read off the chart
+	 * @return The chance of that result, from 0 to 1
+	 * @throws IllegalArgumentException
+	 *             if either handle isn't a player of that kind in the pool
+	 */
+	public double getChance(int hitter, int pitcher, int pitchMod, Token result) {
+		if (result.ordinal() >= RESULTS) {
+			return 0;
+		}
+		return row(pitcher, pitchMod)[offset(hitter) + result.ordinal()];
+	}
+
+	/**
+	 * Gets the chance of every chart result for a hitter against a pitcher
+	 *
+	 * @param hitter
+	 *            The handle of the batter
+	 * @param pitcher
+	 *            The handle of the pitcher
+	 * @param pitchMod
+	 *            Everything added to the pitch, the pitcher's checkInnings
+	 *            included
+	 * @param chances
+	 *            Filled with the chance of each result by the ordinal of its
+	 *            token, needs room for every token up to Homerun
+	 * @throws IllegalArgumentException
+	 *             if either handle isn't a player of that kind in the pool
+	 */
+	public void getChances(int hitter, int pitcher, int pitchMod, double[] chances) {
+		float[] row = row(pitcher, pitchMod);
+		int offset = offset(hitter);
+		for (int i = 0; i < RESULTS; i++) {
+			chances[i] = row[offset + i];
+		}
+	}
+
+	/**
+	 * Gets the number of rows currently kept
+	 *
+	 * @return The rows worked out or being worked out
+	 */
+	public int getRowCount() {
+		return rows.size();
+	}
+
+	private int offset(int hitter) {
+		if (hitter < 0 || hitter >= column.length || column[hitter] < 0) {
+			throw new IllegalArgumentException("No hitter with handle " + hitter + " in the matchup matrix");
+		}
+		return column[hitter] * RESULTS;
+	}
+
+	/**
+	 * Gets the row of a pitcher at a pitch modifier, working it out if it
+	 * isn't kept
+	 */
+	private float[] row(int pitcher, int pitchMod) {
+		if (pitcher < 0 || pitcher >= pitchers.length || pitchers[pitcher] == null) {
+			throw new IllegalArgumentException("No pitcher with handle " + pitcher + " in the matchup matrix");
+		}
+		Long key = ((long) pitcher << 32) | (pitchMod & 0xFFFFFFFFL);
+		Row row = rows.get(key);
+		if (row == null) {
+			Row added = new Row(pitchers[pitcher], pitchMod);
+			row = rows.putIfAbsent(key, added);
+			if (row == null) {
+				row = added;
+				admit(key);
+			}
+		} else if (!row.read) {
+			row.read = true;
+		}
+		return row.values();
+	}
+
+	/**
+	 * Adds a new row to the sweep and drops rows until there are no more
+	 * than maxRows. A row read since it was last swept is passed over once.
+	 */
+	private void admit(Long key) {
+		synchronized (clock) {
+			clock.add(key);
+			// Rows added by other threads but not yet swept are left to them
+			while (rows.size() > maxRows && !clock.isEmpty()) {
+				Long oldest = clock.remove();
+				Row row = rows.get(oldest);
+				if (row.read) {
+					row.read = false;
+					clock.add(oldest);
+				} else {
+					rows.remove(oldest);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A row of the matrix, worked out by whichever thread first asks for it
+	 * while any others asking at the same time wait
+	 */
+	private final class Row {
+
+		private final PitcherData pitcher;
+		private final int pitchMod;
+		private volatile float[] values;
+		// Only written when it changes, so reads don't keep dirtying the line
+		private volatile boolean read = true;
+
+		private Row(PitcherData pitcher, int pitchMod) {
+			this.pitcher = pitcher;
+			this.pitchMod = pitchMod;
+		}
+
+		private float[] values() {
+			float[] v = values;
+			if (v == null) {
+				synchronized (this) {
+					v = values;
+					if (v == null) {
+						v = new float[hitters.length * RESULTS];
+						ForkJoinPool.commonPool().invoke(new RowTask(pitcher, pitchMod, v, 0, hitters.length));
+						values = v;
+					}
+				}
+			}
+			return v;
+		}
+	}
+
+	/**
+	 * Fills in a row with the chance of each result for a run of hitters
+	 * against the row's pitcher, by the hitters' columns
+	 */
+	private final class RowTask extends RangeTask<Void> {
+
+		private static final long serialVersionUID = 1L;
+		private final PitcherData pitcher;
+		private final int pitchMod;
+		private final float[] values;
+
+		private RowTask(PitcherData pitcher, int pitchMod, float[] values, int first, int last) {
+			super(first, last, HITTERS_PER_TASK);
+			this.pitcher = pitcher;
+			this.pitchMod = pitchMod;
+			this.values = values;
+		}
+
+		@Override
+		protected Void computeRange() {
+			for (int i = first; i < last; i++) {
+				PlateAppearance pa = new PlateAppearance(hitters[i], pitcher, 0, 0, pitchMod);
+				for (int r = 0; r < RESULTS; r++) {
+					values[i * RESULTS + r] = (float) pa.getChance(TOKENS[r]);
+				}
+			}
+			return null;
+		}
+
+		@Override
+		protected RowTask subtask(int first, int last) {
+			return new RowTask(pitcher, pitchMod, values, first, last);
+		}
+	}
+}
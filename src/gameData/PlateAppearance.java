@@ -0,0 +1,164 @@
+package gameData;
+
+import players.HitterData;
+import players.PitcherData;
+
+/**
+ * The exact chance of each result of a plate appearance, worked out the way
+ * GameManager rolls it rather than by playing it out. The pitch is a d20
+ * plus the pitcher's base mod, their tiredness past their innings and any
+ * pitch modifier, and the pitcher's chart is used when it reaches the
+ * hitter's on-base. The chart roll is a second d20 plus any swing modifier,
+ * looked up with getResult, so rolls off either end of a chart and the "N+"
+ * ranges come out just as they do in a game.
+ *
+ * Both rolls are a d20, so every chance is a whole number of the 400 ways
+ * the two can fall, and the counts are kept exactly. A roll that lands in a
+ * gap on a card gives no result, which is counted on its own.
+ *
+ * Rerolls and anything else a strategy card does between the rolls are left
+ * out; the modifiers are taken as already set when the pitch is thrown.
+ *
+ * @author Matthew Bunge
+ */
+
+public class PlateAppearance {
+
+	/**
+	 * The number of equally likely ways the pitch and the chart roll can fall
+	 */
+	public static final int OUTCOMES = 400;
+
+	private static final Token[] TOKENS = Token.values();
+
+	private final int[] counts = new int[TOKENS.length];
+	private final int pitcherChart;
+	private final int noResult;
+
+	/**
+	 * Works out a plate appearance with no modifiers
+	 *
+	 * @param hitter
+	 *            The batter
+	 * @param pitcher
+	 *            The pitcher
+	 * @param inning
+	 *            The inning being played, for the pitcher tiring past their
+	 *            innings
+	 */
+	public PlateAppearance(HitterData hitter, PitcherData pitcher, int inning) {
+		this(hitter, pitcher, inning, 0, 0);
+	}
+
+	/**
+	 * Works out a plate appearance
+	 *
+	 * @param hitter
+	 *            The batter
+	 * @param pitcher
+	 *            The pitcher
+	 * @param inning
+	 *            The inning being played, for the pitcher tiring past their
+	 *            innings
+	 * @param swingMod
+	 *            The modifier on the chart roll, as set by SW+n
+	 * @param pitchMod
+	 *            The modifier on the pitch, as set by PI+n
+	 */
+	public PlateAppearance(HitterData hitter, PitcherData pitcher, int inning, int swingMod, int pitchMod) {
+		int pitch = pitcher.getBaseMod() + pitcher.checkInnings(inning) + pitchMod;
+		int wins = 0;
+		for (int roll = 1; roll <= 20; roll++) {
+			if (pitch + roll >= hitter.getBaseMod()) {
+				wins++;
+			}
+		}
+		pitcherChart = wins * 20;
+		int gaps = 0;
+		for (int roll = 1; roll <= 20; roll++) {
+			gaps += count(pitcher.getResult(roll + swingMod), wins);
+			gaps += count(hitter.getResult(roll + swingMod), 20 - wins);
+		}
+		noResult = gaps;
+	}
+
+	/**
+	 * Adds the ways of reaching a result on one roll of a chart
+	 *
+	 * @return The ways that found no result
+	 */
+	private int count(Token result, int ways) {
+		if (result == null) {
+			return ways;
+		}
+		counts[result.ordinal()] += ways;
+		return 0;
+	}
+
+	/**
+	 * Gets the chance of a result
+	 *
+	 * @param result
+	 *            The token read off the chart
+	 * @return The chance of that result, from 0 to 1
+	 */
+	public double getChance(Token result) {
+		return counts[result.ordinal()] / (double) OUTCOMES;
+	}
+
+	/**
+	 * Gets the exact number of ways a result can come up
+	 *
+	 * @param result
+	 *            The token read off the chart
+	 * @return The count out of OUTCOMES
+	 */
+	public int getCount(Token result) {
+		return counts[result.ordinal()];
+	}
+
+	/**
+	 * Gets the chance of any result that puts the batter out
+	 *
+	 * @return The chance of an out, from 0 to 1
+	 */
+	public double getOutChance() {
+		int outs = 0;
+		for (Token t : TOKENS) {
+			if (t.isOut()) {
+				outs += counts[t.ordinal()];
+			}
+		}
+		return outs / (double) OUTCOMES;
+	}
+
+	/**
+	 * Gets the chance the pitch wins the advantage
+	 *
+	 * @return The chance the pitcher's chart is used, from 0 to 1
+	 */
+	public double getPitcherChartChance() {
+		return pitcherChart / (double) OUTCOMES;
+	}
+
+	/**
+	 * Gets the chance the chart roll lands in a gap on a card and gives no
+	 * result
+	 *
+	 * @return The chance of no result, 0 for any complete card
+	 */
+	public double getNoResultChance() {
+		return noResult / (double) OUTCOMES;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (Token t : TOKENS) {
+			if (counts[t.ordinal()] > 0) {
+				s.append(t).append(' ').append(String.format("%.4f", getChance(t))).append(", ");
+			}
+		}
+		return s.append("no result ").append(String.format("%.4f", getNoResultChance())).toString();
+	}
+}
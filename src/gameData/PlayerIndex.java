@@ -0,0 +1,550 @@
+package gameData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import players.HitterData;
+import players.PitcherData;
+import players.PlayerData;
+
+/**
+ * A read only index over a pool of players for finding them by name and
+ * filtering them on their card values. Every sort order is worked out once
+ * when the index is built, as an array of player handles, so a query never
+ * sorts. Queries are built up with query() and combine any number of
+ * filters, IE every shortstop named "Al..." costing under 300 points, still
+ * available in the draft, by descending fielding.
+ *
+ * Name searches match the start of any word of a name, ignoring case, through
+ * a sorted table of the words of every name.
+ *
+ * @author Matthew Bunge
+ */
+
+public class PlayerIndex {
+
+	/**
+	 * The orders players can be returned in. Fielding orders are asked for
+	 * with Query.sortByFielding instead.
+	 */
+	public enum Order {
+		Name, SetNum, Cost, BaseMod, Speed, Year, Team
+	}
+
+	private final PlayerData[] byHandle;
+	private final int[][] orders;
+	private final int[][] fielding;
+	private final BitSet all;
+	private final BitSet pitchers;
+	private final BitSet[] plays;
+	private final Map<String, BitSet> years;
+	private final Map<String, BitSet> teams;
+	private final String[] words;
+	private final int[] wordHandles;
+
+	/**
+	 * Builds an index over a collection of players
+	 *
+	 * @param pool
+	 *            The players being indexed
+	 */
+	public PlayerIndex(Collection<PlayerData> pool) {
+		int size = 0;
+		for (PlayerData p : pool) {
+			size = Math.max(size, p.getHandle() + 1);
+		}
+		byHandle = new PlayerData[size];
+		all = new BitSet(size);
+		pitchers = new BitSet(size);
+		plays = new BitSet[10];
+		for (int i = 0; i < plays.length; i++) {
+			plays[i] = new BitSet(size);
+		}
+		years = new HashMap<String, BitSet>();
+		teams = new HashMap<String, BitSet>();
+		List<String> wordList = new ArrayList<String>();
+		List<Integer> wordHandleList = new ArrayList<Integer>();
+		for (PlayerData p : pool) {
+			int h = p.getHandle();
+			byHandle[h] = p;
+			all.set(h);
+			if (p instanceof PitcherData) {
+				pitchers.set(h);
+			}
+			for (int i = 0; i < plays.length; i++) {
+				if (p.playsPosition(i)) {
+					plays[i].set(h);
+				}
+			}
+			group(years, p.getYear(), h);
+			group(teams, p.getTeam(), h);
+			for (String word : p.toString().toLowerCase(Locale.ROOT).split(" ")) {
+				if (!word.isEmpty()) {
+					wordList.add(word);
+					wordHandleList.add(h);
+				}
+			}
+		}
+		Integer[] byWord = new Integer[wordList.size()];
+		for (int i = 0; i < byWord.length; i++) {
+			byWord[i] = i;
+		}
+		Arrays.sort(byWord, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return wordList.get(a).compareTo(wordList.get(b));
+			}
+		});
+		words = new String[byWord.length];
+		wordHandles = new int[byWord.length];
+		for (int i = 0; i < byWord.length; i++) {
+			words[i] = wordList.get(byWord[i]);
+			wordHandles[i] = wordHandleList.get(byWord[i]);
+		}
+		orders = new int[Order.values().length][];
+		for (Order o : Order.values()) {
+			orders[o.ordinal()] = sort(all, comparator(o));
+		}
+		fielding = new int[10][];
+		for (int i = 0; i < fielding.length; i++) {
+			final int position = i;
+			fielding[i] = sort(plays[i], new Comparator<PlayerData>() {
+				@Override
+				public int compare(PlayerData a, PlayerData b) {
+					return Integer.compare(a.getFielding(position), b.getFielding(position));
+				}
+			});
+		}
+	}
+
+	private static void group(Map<String, BitSet> groups, String key, int handle) {
+		BitSet group = groups.get(key);
+		if (group == null) {
+			group = new BitSet();
+			groups.put(key, group);
+		}
+		group.set(handle);
+	}
+
+	/**
+	 * Sorts the handles of a set of players, ties broken by set number and
+	 * then PlayerId so every order is stable
+	 */
+	private int[] sort(BitSet players, Comparator<PlayerData> order) {
+		PlayerData[] sorted = new PlayerData[players.cardinality()];
+		int n = 0;
+		for (int h = players.nextSetBit(0); h >= 0; h = players.nextSetBit(h + 1)) {
+			sorted[n++] = byHandle[h];
+		}
+		Arrays.sort(sorted, new Comparator<PlayerData>() {
+			@Override
+			public int compare(PlayerData a, PlayerData b) {
+				int c = order.compare(a, b);
+				return c != 0 ? c : a.compareTo(b);
+			}
+		});
+		int[] handles = new int[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			handles[i] = sorted[i].getHandle();
+		}
+		return handles;
+	}
+
+	private static Comparator<PlayerData> comparator(Order o) {
+		switch (o) {
+		case Name:
+			return new Comparator<PlayerData>() {
+				@Override
+				public int compare(PlayerData a, PlayerData b) {
+					return a.toString().compareToIgnoreCase(b.toString());
+				}
+			};
+		case Year:
+			return new Comparator<PlayerData>() {
+				@Override
+				public int compare(PlayerData a, PlayerData b) {
+					return a.getYear().compareTo(b.getYear());
+				}
+			};
+		case Team:
+			return new Comparator<PlayerData>() {
+				@Override
+				public int compare(PlayerData a, PlayerData b) {
+					return a.getTeam().compareTo(b.getTeam());
+				}
+			};
+		default:
+			return new Comparator<PlayerData>() {
+				@Override
+				public int compare(PlayerData a, PlayerData b) {
+					return Integer.compare(value(o, a), value(o, b));
+				}
+			};
+		}
+	}
+
+	/**
+	 * Gets the value a player is sorted by for the numeric orders. Pitchers
+	 * have no speed and sort below every hitter.
+	 */
+	private static int value(Order o, PlayerData p) {
+		switch (o) {
+		case Cost:
+			return p.getCost();
+		case BaseMod:
+			return p.getBaseMod();
+		case Speed:
+			return p instanceof HitterData ? ((HitterData) p).getSpeed() : -1;
+		default:
+			return p.getSetNum();
+		}
+	}
+
+	/**
+	 * Gets the number of players in the index
+	 *
+	 * @return The number of players indexed
+	 */
+	public int size() {
+		return all.cardinality();
+	}
+
+	/**
+	 * Gets an indexed player
+	 *
+	 * @param handle
+	 *            The handle of the player
+	 * @return The player, null if they aren't in the index
+	 */
+	public PlayerData get(int handle) {
+		return handle >= 0 && handle < byHandle.length ? byHandle[handle] : null;
+	}
+
+	/**
+	 * Gets every player in a given order
+	 *
+	 * @param o
+	 *            The order of the players
+	 * @return The players, ascending in the given order
+	 */
+	public List<PlayerData> sorted(Order o) {
+		return query().sortBy(o).list();
+	}
+
+	/**
+	 * Starts a query over the index
+	 *
+	 * @return A Query matching every player, narrowed by its methods
+	 */
+	public Query query() {
+		return new Query();
+	}
+
+	/**
+	 * Finds the handles of every player with a word of their name starting
+	 * with a prefix
+	 */
+	private BitSet prefix(String prefix) {
+		BitSet found = new BitSet(byHandle.length);
+		int i = lowerBound(prefix);
+		while (i < words.length && words[i].startsWith(prefix)) {
+			found.set(wordHandles[i]);
+			i++;
+		}
+		return found;
+	}
+
+	private int lowerBound(String key) {
+		int low = 0;
+		int high = words.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (words[mid].compareTo(key) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Finds the handles of every player with a value between two bounds by
+	 * binary searching the order of that value
+	 */
+	private BitSet between(Order o, int min, int max) {
+		int[] order = orders[o.ordinal()];
+		BitSet found = new BitSet(byHandle.length);
+		int low = 0;
+		int high = order.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (value(o, byHandle[order[mid]]) < min) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		for (int i = low; i < order.length && value(o, byHandle[order[i]]) <= max; i++) {
+			found.set(order[i]);
+		}
+		return found;
+	}
+
+	/**
+	 * A search of the index. Each method narrows the players matched and
+	 * returns the Query, so filters can be chained, and list runs it.
+	 */
+	public class Query {
+
+		private final BitSet matches;
+		private int[] order;
+		private boolean descending;
+		private int limit;
+
+		private Query() {
+			matches = (BitSet) all.clone();
+			order = orders[Order.SetNum.ordinal()];
+			limit = Integer.MAX_VALUE;
+		}
+
+		/**
+		 * Only matches players with a word of their name starting with a
+		 * prefix, ignoring case. A prefix of several words must match the
+		 * start of the name.
+		 *
+		 * @param prefix
+		 *            The start of a name, an empty prefix matches everyone
+		 * @return This Query
+		 */
+		public Query name(String prefix) {
+			String key = prefix.trim().toLowerCase(Locale.ROOT);
+			if (key.isEmpty()) {
+				return this;
+			}
+			int space = key.indexOf(' ');
+			matches.and(prefix(space < 0 ? key : key.substring(0, space)));
+			if (space >= 0) {
+				for (int h = matches.nextSetBit(0); h >= 0; h = matches.nextSetBit(h + 1)) {
+					if (!byHandle[h].toString().toLowerCase(Locale.ROOT).startsWith(key)) {
+						matches.clear(h);
+					}
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * Only matches players who can play a position
+		 *
+		 * @param position
+		 *            The scorecard number of the position, 0 for DH
+		 * @return This Query
+		 */
+		public Query plays(int position) {
+			matches.and(plays[position]);
+			return this;
+		}
+
+		/**
+		 * Only matches pitchers
+		 *
+		 * @return This Query
+		 */
+		public Query pitchers() {
+			matches.and(pitchers);
+			return this;
+		}
+
+		/**
+		 * Only matches hitters
+		 *
+		 * @return This Query
+		 */
+		public Query hitters() {
+			matches.andNot(pitchers);
+			return this;
+		}
+
+		/**
+		 * Only matches players whose cost is within bounds
+		 *
+		 * @param min
+		 *            The lowest cost matched
+		 * @param max
+		 *            The highest cost matched
+		 * @return This Query
+		 */
+		public Query cost(int min, int max) {
+			matches.and(between(Order.Cost, min, max));
+			return this;
+		}
+
+		/**
+		 * Only matches players whose on-base or control is within bounds
+		 *
+		 * @param min
+		 *            The lowest value matched
+		 * @param max
+		 *            The highest value matched
+		 * @return This Query
+		 */
+		public Query baseMod(int min, int max) {
+			matches.and(between(Order.BaseMod, min, max));
+			return this;
+		}
+
+		/**
+		 * Only matches hitters whose speed is within bounds
+		 *
+		 * @param min
+		 *            The lowest speed matched
+		 * @param max
+		 *            The highest speed matched
+		 * @return This Query
+		 */
+		public Query speed(int min, int max) {
+			matches.and(between(Order.Speed, min, max));
+			return this;
+		}
+
+		/**
+		 * Only matches players from a year's set
+		 *
+		 * @param year
+		 *            The year as printed on the card, like "'04"
+		 * @return This Query
+		 */
+		public Query year(String year) {
+			return in(years.get(year));
+		}
+
+		/**
+		 * Only matches players whose card is for a team
+		 *
+		 * @param team
+		 *            The team as printed on the card
+		 * @return This Query
+		 */
+		public Query team(String team) {
+			return in(teams.get(team));
+		}
+
+		/**
+		 * Only matches players still available in a draft
+		 *
+		 * @param draft
+		 *            The DraftManager the players are drafted from
+		 * @return This Query
+		 */
+		public Query available(DraftManager draft) {
+			return in(draft.available());
+		}
+
+		private Query in(BitSet group) {
+			if (group == null) {
+				matches.clear();
+			} else {
+				matches.and(group);
+			}
+			return this;
+		}
+
+		/**
+		 * Returns the players in an order, ascending unless descending is
+		 * called
+		 *
+		 * @param o
+		 *            The order of the results
+		 * @return This Query
+		 */
+		public Query sortBy(Order o) {
+			order = orders[o.ordinal()];
+			return this;
+		}
+
+		/**
+		 * Returns the players by their fielding at a position, which only
+		 * matches players who can play it
+		 *
+		 * @param position
+		 *            The scorecard number of the position
+		 * @return This Query
+		 */
+		public Query sortByFielding(int position) {
+			plays(position);
+			order = fielding[position];
+			return this;
+		}
+
+		/**
+		 * Reverses the order of the results
+		 *
+		 * @return This Query
+		 */
+		public Query descending() {
+			descending = true;
+			return this;
+		}
+
+		/**
+		 * Limits the number of players returned
+		 *
+		 * @param limit
+		 *            The most players returned
+		 * @return This Query
+		 */
+		public Query limit(int limit) {
+			this.limit = limit;
+			return this;
+		}
+
+		/**
+		 * Gets the number of players matched, ignoring any limit
+		 *
+		 * @return The number of matches
+		 */
+		public int count() {
+			return matches.cardinality();
+		}
+
+		/**
+		 * Runs the query
+		 *
+		 * @return The players matched, in the order asked for
+		 */
+		public List<PlayerData> list() {
+			int[] handles = handles();
+			List<PlayerData> found = new ArrayList<PlayerData>(handles.length);
+			for (int h : handles) {
+				found.add(byHandle[h]);
+			}
+			return found;
+		}
+
+		/**
+		 * Runs the query without making a list of the players, for callers
+		 * that look players up as they need them with get
+		 *
+		 * @return The handles of the players matched, in the order asked for
+		 */
+		public int[] handles() {
+			int[] found = new int[Math.min(limit, count())];
+			int n = 0;
+			for (int i = 0; i < order.length && n < found.length; i++) {
+				int h = order[descending ? order.length - 1 - i : i];
+				if (matches.get(h)) {
+					found[n++] = h;
+				}
+			}
+			return n == found.length ? found : Arrays.copyOf(found, n);
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package gameData;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import players.HitterData;
+import players.Icon;
+import players.PitcherData;
+import players.PlayerData;
+
+/**
+ * Estimates the heap used by a pool of players, both as PlayerData packs them
+ * now and as they were laid out before, with an object per Range, an int per
+ * fielding value, a HashSet of special strings and a String per card for
+ * every text field.
+ *
+ * The sizes are worked out from the shape of each object rather than measured,
+ * assuming a 64-bit Java 8 VM with compressed references: 12 byte object
+ * headers, 16 byte array headers, 4 byte references and objects padded to 8
+ * bytes. Strings are a 24 byte object plus their char array. The compiled
+ * chart and the PlayerId are the same in both layouts and left out.
+ *
+ * It is an estimator, not a measurement of the running heap. The figures for
+ * a whole pool can be printed with testCase.PoolFootprintReport, which loads
+ * every season by default.
+ *
+ * @author Matthew Bunge
+ */
+
+public class PoolFootprint {
+
+	private static final int HEADER = 12;
+	private static final int ARRAY_HEADER = 16;
+	private static final int REF = 4;
+	private static final int RANGE = align(HEADER + 8);
+	private static final int STRING = align(HEADER + REF + 4);
+	private static final int HASH_SET = align(HEADER + REF);
+	private static final int HASH_MAP = align(HEADER + 4 * REF + 4 * 4);
+	private static final int HASH_TABLE = align(ARRAY_HEADER + 16 * REF);
+	private static final int HASH_NODE = align(HEADER + 4 + 3 * REF);
+	// Fields common to both layouts: setNum, edition, name, setTeam, year,
+	// cost, baseMod, chart, id and handle
+	private static final int COMMON_FIELDS = 10 * 4;
+	// The special set, seven Ranges and the fielding array
+	private static final int OLD_FIELDS = COMMON_FIELDS + 9 * REF;
+	// The icons, the packed ranges and the fielding array
+	private static final int NEW_FIELDS = COMMON_FIELDS + 2 + 2 * REF;
+	// Range.of keeps every Range up to 31, open ended or not
+	private static final int SHARED_RANGES = 32 * 33 * RANGE + 32 * align(ARRAY_HEADER + 33 * REF)
+			+ align(ARRAY_HEADER + 32 * REF);
+
+	private static final String[] parts = { "Players", "Ranges", "Fielding", "Icons", "Strings" };
+	private final long[] before = new long[parts.length];
+	private final long[] after = new long[parts.length];
+	private int players;
+
+	private PoolFootprint() {
+	}
+
+	/**
+	 * Estimates the footprint of a pool of players
+	 *
+	 * @param pool
+	 *            The players, for example DraftManager.getPool()
+	 * @return The footprint of the players in both layouts
+	 */
+	public static PoolFootprint measure(Collection<PlayerData> pool) {
+		PoolFootprint f = new PoolFootprint();
+		Set<String> shared = new HashSet<String>();
+		f.after[1] = SHARED_RANGES;
+		for (PlayerData p : pool) {
+			boolean pitcher = p instanceof PitcherData;
+			int slots;
+			String[] text;
+			if (pitcher) {
+				PitcherData pd = (PitcherData) p;
+				slots = 8;
+				text = new String[] { p.getEdition(), p.getTeam(), p.getYear(), pd.getRole(), pd.getHand() };
+				// popout, innings, role and hand, with popout packed now
+				f.before[0] += align(HEADER + OLD_FIELDS + 4 * REF);
+				f.after[0] += align(HEADER + NEW_FIELDS + 3 * REF);
+			} else {
+				slots = 9;
+				text = new String[] { p.getEdition(), p.getTeam(), p.getYear(), ((HitterData) p).getBattingSide() };
+				// single+, triple, speed and batting side, with the Ranges
+				// packed now
+				f.before[0] += align(HEADER + OLD_FIELDS + 4 * REF);
+				f.after[0] += align(HEADER + NEW_FIELDS + 2 * REF);
+			}
+			f.before[1] += slots * RANGE;
+			f.after[1] += align(ARRAY_HEADER + 2 * slots);
+			f.before[2] += align(ARRAY_HEADER + 10 * 4);
+			f.after[2] += align(ARRAY_HEADER + 10);
+			f.before[3] += HASH_SET + HASH_MAP;
+			String icons = iconText(p);
+			if (!icons.isEmpty()) {
+				f.before[3] += HASH_TABLE + HASH_NODE + string(icons);
+			}
+			long names = string(p.toString());
+			f.before[4] += names;
+			f.after[4] += names;
+			for (String s : text) {
+				f.before[4] += string(s);
+				if (shared.add(s)) {
+					f.after[4] += string(s);
+				}
+			}
+			f.players++;
+		}
+		return f;
+	}
+
+	private static String iconText(PlayerData p) {
+		String s = "";
+		for (Icon i : p.getIcons()) {
+			s += s.isEmpty() ? i.getCode() : "," + i.getCode();
+		}
+		return s;
+	}
+
+	private static long string(String s) {
+		return s == null ? 0 : STRING + align(ARRAY_HEADER + 2 * s.length());
+	}
+
+	private static int align(int bytes) {
+		return (bytes + 7) & ~7;
+	}
+
+	/**
+	 * Gets the number of players measured
+	 *
+	 * @return The size of the pool
+	 */
+	public int getPlayers() {
+		return players;
+	}
+
+	/**
+	 * Gets the estimated size of the pool in the old layout
+	 *
+	 * @return The size in bytes
+	 */
+	public long getOldBytes() {
+		return sum(before);
+	}
+
+	/**
+	 * Gets the estimated size of the pool as it is packed now
+	 *
+	 * @return The size in bytes
+	 */
+	public long getNewBytes() {
+		return sum(after);
+	}
+
+	private static long sum(long[] bytes) {
+		long total = 0;
+		for (long b : bytes) {
+			total += b;
+		}
+		return total;
+	}
+
+	/**
+	 * Returns a table of the estimated bytes of each part of a card in both
+	 * layouts followed by the totals
+	 */
+	@Override
+	public String toString() {
+		String s = "Part\tOld\tNew\n";
+		for (int i = 0; i < parts.length; i++) {
+			s += parts[i] + "\t" + before[i] + "\t" + after[i] + "\n";
+		}
+		s += "Total\t" + getOldBytes() + "\t" + getNewBytes() + "\n";
+		s += players + " players, " + String.format("%.1f", getOldBytes() / 1024.0) + " KB before, "
+				+ String.format("%.1f", getNewBytes() / 1024.0) + " KB packed\n";
+		return s;
+	}
+}
@@ -0,0 +1,166 @@
+package gameData;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Timing and counts for a pool loaded from several card files at once. Each
+ * file is parsed by its own task, so the wall time of the whole load should
+ * come out close to the time of the slowest file rather than the sum of all
+ * of them.
+ *
+ * @author Matthew Bunge
+ */
+
+public class PoolLoadReport {
+
+	private final List<Entry> entries;
+	private long wallNanos;
+	private int poolSize;
+
+	/**
+	 * Creates an empty report
+	 */
+	public PoolLoadReport() {
+		entries = new ArrayList<Entry>();
+	}
+
+	/**
+	 * Records the parse of a single file
+	 *
+	 * @param file
+	 *            The card file parsed
+	 * @param players
+	 *            The number of players parsed from the file
+	 * @param replaced
+	 *            The number of those players that replaced a player already
+	 *            in the pool with the same key
+	 * @param nanos
+	 *            The time spent parsing the file
+	 */
+	void add(File file, int players, int replaced, long nanos) {
+		entries.add(new Entry(file, players, replaced, nanos));
+	}
+
+	/**
+	 * Records the totals of the whole load
+	 */
+	void finish(int poolSize, long wallNanos) {
+		this.poolSize = poolSize;
+		this.wallNanos = wallNanos;
+	}
+
+	/**
+	 * Gets the per file results in the order the files were passed
+	 *
+	 * @return Unmodifiable list of the file entries
+	 */
+	public List<Entry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * Gets the number of players in the merged pool
+	 *
+	 * @return The size of the pool
+	 */
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	/**
+	 * Gets the time taken by the whole load, from the first file starting to
+	 * the pool being merged
+	 *
+	 * @return The wall time in milliseconds
+	 */
+	public double getWallMillis() {
+		return wallNanos / 1e6;
+	}
+
+	/**
+	 * Gets the total time spent parsing files, summed over every file
+	 *
+	 * @return The parse time in milliseconds
+	 */
+	public double getParseMillis() {
+		long total = 0;
+		for (Entry e : entries) {
+			total += e.nanos;
+		}
+		return total / 1e6;
+	}
+
+	/**
+	 * Returns a table of the per file counts and timings followed by the
+	 * totals
+	 */
+	@Override
+	public String toString() {
+		String s = "File\tPlayers\tReplaced\tms\n";
+		for (Entry e : entries) {
+			s += e.file.getName() + "\t" + e.players + "\t" + e.replaced + "\t"
+					+ String.format("%.1f", e.getMillis()) + "\n";
+		}
+		s += "Pool: " + poolSize + " players, " + String.format("%.1f", getWallMillis()) + " ms wall, "
+				+ String.format("%.1f", getParseMillis()) + " ms parsing\n";
+		return s;
+	}
+
+	/**
+	 * The result of parsing a single card file
+	 */
+	public static class Entry {
+
+		private final File file;
+		private final int players;
+		private final int replaced;
+		private final long nanos;
+
+		private Entry(File file, int players, int replaced, long nanos) {
+			this.file = file;
+			this.players = players;
+			this.replaced = replaced;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * Gets the file parsed
+		 *
+		 * @return The card file
+		 */
+		public File getFile() {
+			return file;
+		}
+
+		/**
+		 * Gets the number of players parsed from the file
+		 *
+		 * @return The player count
+		 */
+		public int getPlayers() {
+			return players;
+		}
+
+		/**
+		 * Gets the number of players from the file that replaced a player
+		 * already in the pool
+		 *
+		 * @return The replaced count
+		 */
+		public int getReplaced() {
+			return replaced;
+		}
+
+		/**
+		 * Gets the time spent parsing the file
+		 *
+		 * @return The parse time in milliseconds
+		 */
+		public double getMillis() {
+			return nanos / 1e6;
+		}
+	}
+}
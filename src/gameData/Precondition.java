@@ -0,0 +1,113 @@
+package gameData;
+
+/**
+ * The compiled form of the code describing when a strategy card may be played.
+ * A precondition is parsed and checked once when its card is loaded, after
+ * which deciding whether the card is playable is only a few comparisons against
+ * the end of a GameLog.
+ *
+ * The code is one or more result codes separated by "^", any of which allow
+ * the card, optionally followed by "+HC" or "+PC" to require that the result
+ * came off of the hitter's or pitcher's chart. "A" allows the card at any time
+ * and "AO" after any out.
+ *
+ * @author Matthew Bunge
+ */
+
+public class Precondition {
+
+	private final boolean any;
+	private final boolean anyOut;
+	private final Token[] results;
+	private final Token chart;
+
+	private Precondition(boolean any, boolean anyOut, Token[] results, Token chart) {
+		this.any = any;
+		this.anyOut = anyOut;
+		this.results = results;
+		this.chart = chart;
+	}
+
+	/**
+	 * Parses the precondition code of a card
+	 *
+	 * @param code
+	 *            The precondition code as written in the card file
+	 * @return The compiled Precondition
+	 * @throws IllegalArgumentException
+	 *             if the code contains anything that isn't a legal token
+	 */
+	public static Precondition compile(String code) {
+		// Only a trailing "+HC" or "+PC" names a chart; the "+" of "1B+" is
+		// part of the result code
+		Token chart = null;
+		String alternatesCode = code;
+		for (Token t : new Token[] { Token.HitterChart, Token.PitcherChart }) {
+			if (code.endsWith("+" + t.getCode())) {
+				chart = t;
+				alternatesCode = code.substring(0, code.length() - t.getCode().length() - 1);
+			}
+		}
+		boolean any = false;
+		boolean anyOut = false;
+		String[] alternates = alternatesCode.split("\\^");
+		Token[] results = new Token[alternates.length];
+		int count = 0;
+		for (String alternate : alternates) {
+			switch (alternate) {
+			case "A": // Any
+				any = true;
+				break;
+			case "AO": // Any out
+				anyOut = true;
+				break;
+			default:
+				Token t = Token.fromCode(alternate);
+				if (t == null) {
+					throw new IllegalArgumentException(alternate + " isn't a legal token");
+				}
+				results[count++] = t;
+			}
+		}
+		Token[] trimmed = new Token[count];
+		System.arraycopy(results, 0, trimmed, 0, count);
+		return new Precondition(any, anyOut, trimmed, chart);
+	}
+
+	/**
+	 * Checks whether the precondition is met at every point of a game, as it
+	 * is for "A" with no chart required
+	 *
+	 * @return true if the card may always be played, false otherwise
+	 */
+	public boolean isAlwaysMet() {
+		return any && chart == null;
+	}
+
+	/**
+	 * Checks whether the precondition is satisfied by the current state of a
+	 * game's log
+	 *
+	 * @param log
+	 *            The GameLog of the game the card would be played in
+	 * @return true if the card may be played, false otherwise
+	 */
+	public boolean isMet(GameLog log) {
+		if (chart != null && (log.size() < 2 || log.back(2) != chart)) {
+			return false;
+		}
+		if (any) {
+			return true;
+		}
+		Token last = log.last();
+		if (anyOut && last.isOut()) {
+			return true;
+		}
+		for (Token t : results) {
+			if (last == t) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,66 @@
+package gameData;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A fork-join task over the numbers from first up to but not including last.
+ * The range is split in half, one half forked and the other worked on in
+ * place, until a piece is no bigger than the grain, and the pieces' results
+ * are combined on the way back up. Subclasses say what a piece computes and
+ * how two results combine.
+ *
+ * @author Matthew Bunge
+ */
+
+abstract class RangeTask<R> extends RecursiveTask<R> {
+
+	private static final long serialVersionUID = 1L;
+	protected final int first;
+	protected final int last;
+	private final int grain;
+
+	/**
+	 * @param first
+	 *            The first number of the range
+	 * @param last
+	 *            One past the last number of the range
+	 * @param grain
+	 *            The most numbers one task works on without splitting
+	 */
+	protected RangeTask(int first, int last, int grain) {
+		this.first = first;
+		this.last = last;
+		this.grain = grain;
+	}
+
+	/**
+	 * Works on the whole range of this task without splitting it
+	 */
+	protected abstract R computeRange();
+
+	/**
+	 * Creates a task like this one for part of its range
+	 */
+	protected abstract RangeTask<R> subtask(int first, int last);
+
+	/**
+	 * Combines the results of the lower and upper halves of a range. Tasks
+	 * that only fill in shared state have nothing to combine and keep this
+	 * default, which returns null.
+	 */
+	protected R combine(R lower, R upper) {
+		return null;
+	}
+
+	@Override
+	protected final R compute() {
+		if (last - first <= grain) {
+			return computeRange();
+		}
+		int middle = (first + last) >>> 1;
+		RangeTask<R> lower = subtask(first, middle);
+		lower.fork();
+		R upper = subtask(middle, last).compute();
+		return combine(lower.join(), upper);
+	}
+}
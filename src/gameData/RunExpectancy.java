@@ -0,0 +1,672 @@
+package gameData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import players.HitterData;
+import players.PitcherData;
+
+/**
+ * Exact run expectancy for a half inning, worked out from the cards rather
+ * than by playing games. The half inning is treated as a Markov chain over
+ * the 24 base-out states Field tracks, with the spot in the batting order
+ * alongside, and every plate appearance moves the chain by the probability
+ * of each result: the d20 advantage roll of the pitcher's base mod against
+ * the hitter's on-base, then a d20 on whichever chart won, then the
+ * infield check if a groundout puts a double play in order. Runners move
+ * exactly as Field moves them.
+ *
+ * The chain is solved one out at a time, from two outs back to none, since
+ * an out never comes back. Within an out the only thing that always moves
+ * is the batting order, so the nine spots are folded into a single 8 by 8
+ * system around the order and solved directly. The expectancy is worked out
+ * up front, in under a tenth of a millisecond for a lineup; the runs
+ * distributions and the chance of each spot leading off the next inning are
+ * worked out the first time they're asked for.
+ *
+ * The model plays the half inning out to three outs: no strategy cards are
+ * played, the pitcher stays in, and the game doesn't end early on a walk
+ * off.
+ *
+ * @author Matthew Bunge
+ */
+
+public class RunExpectancy {
+
+	/**
+	 * The number of runs the distributions are kept exactly for. The last
+	 * entry of a distribution is the chance of this many runs or more.
+	 */
+	public static final int MAX_RUNS = 20;
+
+	private static final int SPOTS = 9;
+	private static final int BASES = 8;
+	private static final int OUTS = 3;
+
+	// Results grouped by how they move the chain
+	private static final int OUT = 0;
+	private static final int GROUNDOUT = 1;
+	private static final Token[] ADVANCING = { Token.Walk, Token.Single, Token.SinglePlus, Token.Double, Token.Triple,
+			Token.Homerun };
+	private static final int RESULTS = 2 + ADVANCING.length;
+
+	private final Move[][] moves;
+	private final Cycle[] cycles = new Cycle[OUTS]; // every move within an out
+	private final double[][] expected; // [base-out state][spot]
+	private double[][][] distribution; // [base-out state][spot][runs]
+	private double[][][] leadoff; // [base-out state][spot][next leadoff]
+
+	/**
+	 * Works out the run expectancy of a batting order against a pitcher
+	 *
+	 * @param order
+	 *            The nine batters in order
+	 * @param pitcher
+	 *            The pitcher they face
+	 * @param infield
+	 *            The defense's fielding at positions 3 to 6 added up, as used
+	 *            in the infield check for a double play
+	 * @param inning
+	 *            The inning being played, for the pitcher tiring past their
+	 *            innings
+	 * @throws IllegalArgumentException
+	 *             if the order isn't nine batters, a card has a roll with no
+	 *             result, or the batters can never make an out
+	 */
+	public RunExpectancy(HitterData[] order, PitcherData pitcher, int infield, int inning) {
+		this(order, pitcher, infield, inning, null);
+	}
+
+	/**
+	 * Works out the run expectancy of a batting order against a pitcher,
+	 * reading each batter's matchup from a MatchupMatrix
+	 *
+	 * @param order
+	 *            The nine batters in order
+	 * @param pitcher
+	 *            The pitcher they face
+	 * @param infield
+	 *            The defense's fielding at positions 3 to 6 added up, as used
+	 *            in the infield check for a double play
+	 * @param inning
+	 *            The inning being played, for the pitcher tiring past their
+	 *            innings
+	 * @param matchups
+	 *            The matrix holding the batters and the pitcher, null to work
+	 *            each matchup out
+	 * @throws IllegalArgumentException
+	 *             if the order isn't nine batters, a card has a roll with no
+	 *             result, the batters can never make an out, or a player isn't
+	 *             in the matrix
+	 */
+	public RunExpectancy(HitterData[] order, PitcherData pitcher, int infield, int inning, MatchupMatrix matchups) {
+		this(results(checkOrder(order), pitcher, inning, matchups), doublePlay(order, infield));
+	}
+
+	/**
+	 * Works out the run expectancy of a batting order from the chance of each
+	 * group of results for each spot, so the same batter's results can be
+	 * used in many orders
+	 *
+	 * @param results
+	 *            The chances from matchup, for each spot
+	 * @param doublePlay
+	 *            The chance of the infield check passing, for each spot
+	 */
+	RunExpectancy(double[][] results, double[] doublePlay) {
+		moves = moves(results, doublePlay);
+		expected = new double[Field.BASE_OUT_STATES][SPOTS];
+		for (int outs = OUTS - 1; outs >= 0; outs--) {
+			cycles[outs] = cycle(outs, false);
+			solveExpected(outs);
+		}
+	}
+
+	private static HitterData[] checkOrder(HitterData[] order) {
+		if (order.length != SPOTS) {
+			throw new IllegalArgumentException("A batting order needs " + SPOTS + " batters");
+		}
+		for (int spot = 0; spot < SPOTS; spot++) {
+			if (order[spot] == null) {
+				throw new IllegalArgumentException("Nobody is batting " + (spot + 1) + "th");
+			}
+		}
+		return order;
+	}
+
+	private static double[][] results(HitterData[] order, PitcherData pitcher, int inning, MatchupMatrix matchups) {
+		double[][] results = new double[SPOTS][];
+		for (int spot = 0; spot < SPOTS; spot++) {
+			results[spot] = matchup(order[spot], pitcher, inning, matchups);
+		}
+		return results;
+	}
+
+	private static double[] doublePlay(HitterData[] order, int infield) {
+		double[] doublePlay = new double[SPOTS];
+		for (int spot = 0; spot < SPOTS; spot++) {
+			doublePlay[spot] = doublePlay(order[spot], infield);
+		}
+		return doublePlay;
+	}
+
+	/**
+	 * Works out the run expectancy of a team's batting order against the
+	 * other team's pitcher and infield
+	 *
+	 * @param offense
+	 *            The team at bat, with its batting order set
+	 * @param defense
+	 *            The team in the field, with its pitcher and infield set
+	 * @param inning
+	 *            The inning being played
+	 * @return The run expectancy of the offense
+	 */
+	public static RunExpectancy of(LineupManager offense, LineupManager defense, int inning) {
+		return of(offense, defense, inning, null);
+	}
+
+	/**
+	 * Works out the run expectancy of a team's batting order against the
+	 * other team's pitcher and infield, reading the matchups from a
+	 * MatchupMatrix
+	 *
+	 * @param offense
+	 *            The team at bat, with its batting order set
+	 * @param defense
+	 *            The team in the field, with its pitcher and infield set
+	 * @param inning
+	 *            The inning being played
+	 * @param matchups
+	 *            The matrix holding both teams' players, null to work each
+	 *            matchup out
+	 * @return The run expectancy of the offense
+	 */
+	public static RunExpectancy of(LineupManager offense, LineupManager defense, int inning, MatchupMatrix matchups) {
+		HitterData[] order = new HitterData[SPOTS];
+		for (int spot = 1; spot <= SPOTS; spot++) {
+			order[spot - 1] = offense.getBatter(spot);
+		}
+		int infield = 0;
+		for (int pos = 3; pos <= 6; pos++) {
+			infield += defense.getFielding(pos);
+		}
+		return new RunExpectancy(order, defense.getCurrentPitcher(), infield, inning, matchups);
+	}
+
+	/**
+	 * Gets the expected runs of a half inning
+	 *
+	 * @param spot
+	 *            The spot in the order leading off, from 1 to 9
+	 * @return The expected runs from nobody on and nobody out
+	 */
+	public double getExpectedRuns(int spot) {
+		return getExpectedRuns(0, spot);
+	}
+
+	/**
+	 * Gets the expected runs for the rest of a half inning
+	 *
+	 * @param baseOutState
+	 *            The state of the inning, as given by Field.getBaseOutState
+	 * @param spot
+	 *            The spot in the order due up, from 1 to 9
+	 * @return The expected runs still to score in the half inning
+	 */
+	public double getExpectedRuns(int baseOutState, int spot) {
+		return expected[baseOutState][spot - 1];
+	}
+
+	/**
+	 * Gets the chance of each number of runs scoring in a half inning
+	 *
+	 * @param spot
+	 *            The spot in the order leading off, from 1 to 9
+	 * @return The chance of 0 to MAX_RUNS - 1 runs, followed by the chance of
+	 *         MAX_RUNS or more
+	 */
+	public double[] getRunsDistribution(int spot) {
+		return getRunsDistribution(0, spot);
+	}
+
+	/**
+	 * Gets the chance of each number of runs scoring in the rest of a half
+	 * inning
+	 *
+	 * @param baseOutState
+	 *            The state of the inning, as given by Field.getBaseOutState
+	 * @param spot
+	 *            The spot in the order due up, from 1 to 9
+	 * @return The chance of 0 to MAX_RUNS - 1 more runs, followed by the
+	 *         chance of MAX_RUNS or more
+	 */
+	public synchronized double[] getRunsDistribution(int baseOutState, int spot) {
+		if (distribution == null) {
+			distribution = new double[Field.BASE_OUT_STATES][SPOTS][MAX_RUNS + 1];
+			for (int outs = OUTS - 1; outs >= 0; outs--) {
+				solveDistribution(outs);
+			}
+		}
+		return distribution[baseOutState][spot - 1].clone();
+	}
+
+	/**
+	 * Gets the chance of each spot in the order leading off the next inning
+	 *
+	 * @param spot
+	 *            The spot in the order leading off this inning, from 1 to 9
+	 * @return The chance of each spot leading off the next, spot 1 first
+	 */
+	public synchronized double[] getNextLeadoff(int spot) {
+		if (leadoff == null) {
+			leadoff = new double[Field.BASE_OUT_STATES][SPOTS][SPOTS];
+			for (int outs = OUTS - 1; outs >= 0; outs--) {
+				solveLeadoff(outs);
+			}
+		}
+		return leadoff[0][spot - 1].clone();
+	}
+
+	/**
+	 * Groups the chance of each result of a hitter facing a pitcher by how
+	 * the result moves the chain
+	 *
+	 * @param matchups
+	 *            The matrix to read the matchup from, null to work it out
+	 */
+	static double[] matchup(HitterData hitter, PitcherData pitcher, int inning, MatchupMatrix matchups) {
+		double[] byToken = new double[Token.Homerun.ordinal() + 1];
+		if (matchups != null) {
+			matchups.getChances(hitter.getHandle(), pitcher.getHandle(), pitcher.checkInnings(inning), byToken);
+			// The matrix keeps floats, so the groups only add up to within a
+			// float
+			return group(hitter, pitcher, byToken, 1e-5);
+		}
+		PlateAppearance pa = new PlateAppearance(hitter, pitcher, inning);
+		if (pa.getNoResultChance() > 0) {
+			throw new IllegalArgumentException(hitter + " against " + pitcher + " can roll a gap in a chart");
+		}
+		for (int i = 0; i < byToken.length; i++) {
+			byToken[i] = pa.getChance(Token.values()[i]);
+		}
+		return group(hitter, pitcher, byToken, 1e-9);
+	}
+
+	/**
+	 * Gets the chance of a batter making an out from their result groups
+	 */
+	static double outChance(double[] results) {
+		return results[OUT] + results[GROUNDOUT];
+	}
+
+	/**
+	 * Gets the chance the infield check turns a double play on a batter
+	 */
+	static double doublePlay(HitterData hitter, int infield) {
+		return chanceOver(infield, hitter.getSpeed());
+	}
+
+	private static double[] group(HitterData hitter, PitcherData pitcher, double[] byToken, double tolerance) {
+		double[] chance = new double[RESULTS];
+		chance[OUT] = byToken[Token.Popout.ordinal()] + byToken[Token.Strikeout.ordinal()]
+				+ byToken[Token.Flyout.ordinal()];
+		chance[GROUNDOUT] = byToken[Token.Groundout.ordinal()];
+		for (int i = 0; i < ADVANCING.length; i++) {
+			chance[2 + i] = byToken[ADVANCING[i].ordinal()];
+		}
+		double total = 0;
+		for (double c : chance) {
+			total += c;
+		}
+		if (total < 1 - tolerance) {
+			throw new IllegalArgumentException(
+					hitter + " against " + pitcher + " can roll a result with no place in the chain");
+		}
+		return chance;
+	}
+
+	/**
+	 * Gets the chance that a d20 plus a bonus comes out over a target
+	 */
+	private static double chanceOver(int bonus, int target) {
+		int beaten = 0;
+		for (int roll = 1; roll <= 20; roll++) {
+			if (roll + bonus > target) {
+				beaten++;
+			}
+		}
+		return beaten / 20.0;
+	}
+
+	/**
+	 * A transition of the chain with its chance. Outs of 3 means the half
+	 * inning is over.
+	 */
+	private static final class Move {
+
+		private final double chance;
+		private final int outs;
+		private final int bases;
+		private final int runs;
+
+		private Move(double chance, int outs, int bases, int runs) {
+			this.chance = chance;
+			this.outs = outs;
+			this.bases = bases;
+			this.runs = runs;
+		}
+	}
+
+	private static int index(int outs, int bases, int spot) {
+		return (outs * BASES + bases) * SPOTS + spot;
+	}
+
+	/**
+	 * Lists every transition out of every state, where the next batter is
+	 * always the next spot in the order
+	 */
+	private static Move[][] moves(double[][] results, double[] doublePlay) {
+		Move[][] moves = new Move[OUTS * BASES * SPOTS][];
+		List<Move> from = new ArrayList<Move>();
+		for (int outs = 0; outs < OUTS; outs++) {
+			for (int bases = 0; bases < BASES; bases++) {
+				for (int spot = 0; spot < SPOTS; spot++) {
+					double[] r = results[spot];
+					from.clear();
+					add(from, r[OUT], outs + 1, bases, 0);
+					if (outs + 1 == OUTS || (bases & 1) == 0) {
+						add(from, r[GROUNDOUT], outs + 1, Field.basesAfterGroundout(bases),
+								Field.runsOnGroundout(bases));
+					} else {
+						// The runner on first is out at second either way, and
+						// the batter too if the infield check passes
+						double turned = r[GROUNDOUT] * doublePlay[spot];
+						int cleared = bases & ~1;
+						add(from, turned, outs + 2, Field.basesAfterGroundout(cleared),
+								Field.runsOnGroundout(cleared));
+						add(from, r[GROUNDOUT] - turned, outs + 1, Field.basesAfterGroundout(bases),
+								Field.runsOnGroundout(bases));
+					}
+					for (int i = 0; i < ADVANCING.length; i++) {
+						add(from, r[2 + i], outs, Field.nextBases(ADVANCING[i], bases),
+								Field.runsScored(ADVANCING[i], bases));
+					}
+					moves[index(outs, bases, spot)] = from.toArray(new Move[from.size()]);
+				}
+			}
+		}
+		return moves;
+	}
+
+	private static void add(List<Move> from, double chance, int outs, int bases, int runs) {
+		if (chance > 0) {
+			if (outs >= OUTS) {
+				from.add(new Move(chance, OUTS, 0, 0));
+			} else {
+				from.add(new Move(chance, outs, bases, runs));
+			}
+		}
+	}
+
+	/**
+	 * Builds the system for the states with a given number of outs from the
+	 * moves that stay within it
+	 *
+	 * @param scoreless
+	 *            Whether to leave out the moves that score runs
+	 */
+	private Cycle cycle(int outs, boolean scoreless) {
+		double[][][] blocks = new double[SPOTS][BASES][BASES];
+		for (int spot = 0; spot < SPOTS; spot++) {
+			for (int bases = 0; bases < BASES; bases++) {
+				for (Move m : moves[index(outs, bases, spot)]) {
+					if (m.outs == outs && (m.runs == 0 || !scoreless)) {
+						blocks[spot][bases][m.bases] += m.chance;
+					}
+				}
+			}
+		}
+		return new Cycle(blocks);
+	}
+
+	/**
+	 * Solves the expected runs of every state with a given number of outs,
+	 * once every state with more outs is solved
+	 */
+	private void solveExpected(int outs) {
+		double[][] constant = new double[SPOTS][BASES];
+		for (int spot = 0; spot < SPOTS; spot++) {
+			int next = (spot + 1) % SPOTS;
+			for (int bases = 0; bases < BASES; bases++) {
+				for (Move m : moves[index(outs, bases, spot)]) {
+					constant[spot][bases] += m.chance * m.runs;
+					if (m.outs != outs && m.outs < OUTS) {
+						constant[spot][bases] += m.chance * expected[m.outs * BASES + m.bases][next];
+					}
+				}
+			}
+		}
+		cycles[outs].solve(constant);
+		for (int spot = 0; spot < SPOTS; spot++) {
+			for (int bases = 0; bases < BASES; bases++) {
+				expected[outs * BASES + bases][spot] = constant[spot][bases];
+			}
+		}
+	}
+
+	/**
+	 * Solves which spot leads off the next inning from every state with a
+	 * given number of outs, once every state with more outs is solved. The
+	 * spot after whoever makes the third out is up next.
+	 */
+	private void solveLeadoff(int outs) {
+		double[][][] constant = new double[SPOTS][SPOTS][BASES]; // [up][spot][bases]
+		for (int spot = 0; spot < SPOTS; spot++) {
+			int next = (spot + 1) % SPOTS;
+			for (int bases = 0; bases < BASES; bases++) {
+				for (Move m : moves[index(outs, bases, spot)]) {
+					if (m.outs == OUTS) {
+						constant[next][spot][bases] += m.chance;
+					} else if (m.outs != outs) {
+						double[] after = leadoff[m.outs * BASES + m.bases][next];
+						for (int up = 0; up < SPOTS; up++) {
+							constant[up][spot][bases] += m.chance * after[up];
+						}
+					}
+				}
+			}
+		}
+		for (int up = 0; up < SPOTS; up++) {
+			cycles[outs].solve(constant[up]);
+			for (int spot = 0; spot < SPOTS; spot++) {
+				for (int bases = 0; bases < BASES; bases++) {
+					leadoff[outs * BASES + bases][spot][up] = constant[up][spot][bases];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Solves the runs distributions of every state with a given number of
+	 * outs, once every state with more outs is solved. Runs only ever go up,
+	 * so the chance of exactly k more runs only depends on transitions that
+	 * score nothing and on chances of fewer runs, which are already known.
+	 */
+	private void solveDistribution(int outs) {
+		Cycle cycle = cycle(outs, true);
+		double[][] constant = new double[SPOTS][BASES];
+		for (int k = 0; k < MAX_RUNS; k++) {
+			for (int spot = 0; spot < SPOTS; spot++) {
+				int next = (spot + 1) % SPOTS;
+				for (int bases = 0; bases < BASES; bases++) {
+					double c = 0;
+					for (Move m : moves[index(outs, bases, spot)]) {
+						if (m.outs == OUTS) {
+							c += k == 0 ? m.chance : 0;
+						} else if ((m.outs != outs || m.runs > 0) && m.runs <= k) {
+							c += m.chance * distribution[m.outs * BASES + m.bases][next][k - m.runs];
+						}
+					}
+					constant[spot][bases] = c;
+				}
+			}
+			cycle.solve(constant);
+			for (int spot = 0; spot < SPOTS; spot++) {
+				for (int bases = 0; bases < BASES; bases++) {
+					distribution[outs * BASES + bases][spot][k] = constant[spot][bases];
+				}
+			}
+		}
+		for (int bases = 0; bases < BASES; bases++) {
+			for (int spot = 0; spot < SPOTS; spot++) {
+				double[] d = distribution[outs * BASES + bases][spot];
+				double total = 0;
+				for (int k = 0; k < MAX_RUNS; k++) {
+					total += d[k];
+				}
+				d[MAX_RUNS] = Math.max(0, 1 - total);
+			}
+		}
+	}
+
+	/**
+	 * A system x[i] = c[i] + B[i] x[i + 1] around the nine spots of the
+	 * order, wrapping from the ninth back to the first. Substituting each
+	 * spot into the one before leaves x[0] = v + P x[0] with P the product of
+	 * every B, so one 8 by 8 system is factored however many right hand
+	 * sides are solved. Matrices are kept flat, row by row.
+	 */
+	private static final class Cycle {
+
+		private final double[][] blocks;
+		private final double[] lu = new double[BASES * BASES];
+		private final int[] pivot = new int[BASES];
+		private final double[] v = new double[BASES];
+
+		private Cycle(double[][][] blocks) {
+			this.blocks = new double[SPOTS][BASES * BASES];
+			for (int spot = 0; spot < SPOTS; spot++) {
+				for (int i = 0; i < BASES; i++) {
+					System.arraycopy(blocks[spot][i], 0, this.blocks[spot], i * BASES, BASES);
+				}
+			}
+			double[] product = this.blocks[0].clone();
+			for (int spot = 1; spot < SPOTS; spot++) {
+				product = multiply(product, this.blocks[spot]);
+			}
+			for (int i = 0; i < BASES * BASES; i++) {
+				lu[i] = (i % (BASES + 1) == 0 ? 1 : 0) - product[i];
+			}
+			factor();
+		}
+
+		/**
+		 * Solves the system, overwriting the constants with the answer
+		 */
+		private void solve(double[][] x) {
+			System.arraycopy(x[SPOTS - 1], 0, v, 0, BASES);
+			for (int spot = SPOTS - 2; spot >= 0; spot--) {
+				addTimes(x[spot], blocks[spot], v, v);
+			}
+			backSubstitute(v);
+			addTimes(x[SPOTS - 1], blocks[SPOTS - 1], v, x[SPOTS - 1]);
+			for (int spot = SPOTS - 2; spot > 0; spot--) {
+				addTimes(x[spot], blocks[spot], x[spot + 1], x[spot]);
+			}
+			System.arraycopy(v, 0, x[0], 0, BASES);
+		}
+
+		/**
+		 * Sets out to c + m y. Out may be the same array as c or y.
+		 */
+		private static void addTimes(double[] c, double[] m, double[] y, double[] out) {
+			double r0 = c[0], r1 = c[1], r2 = c[2], r3 = c[3], r4 = c[4], r5 = c[5], r6 = c[6], r7 = c[7];
+			for (int j = 0; j < BASES; j++) {
+				double yj = y[j];
+				if (yj != 0) {
+					r0 += m[j] * yj;
+					r1 += m[BASES + j] * yj;
+					r2 += m[2 * BASES + j] * yj;
+					r3 += m[3 * BASES + j] * yj;
+					r4 += m[4 * BASES + j] * yj;
+					r5 += m[5 * BASES + j] * yj;
+					r6 += m[6 * BASES + j] * yj;
+					r7 += m[7 * BASES + j] * yj;
+				}
+			}
+			out[0] = r0;
+			out[1] = r1;
+			out[2] = r2;
+			out[3] = r3;
+			out[4] = r4;
+			out[5] = r5;
+			out[6] = r6;
+			out[7] = r7;
+		}
+
+		/**
+		 * LU decomposition in place with partial pivoting
+		 */
+		private void factor() {
+			for (int col = 0; col < BASES; col++) {
+				int best = col;
+				for (int row = col + 1; row < BASES; row++) {
+					if (Math.abs(lu[row * BASES + col]) > Math.abs(lu[best * BASES + col])) {
+						best = row;
+					}
+				}
+				if (Math.abs(lu[best * BASES + col]) < 1e-12) {
+					throw new IllegalArgumentException("The batting order can never make the last out");
+				}
+				for (int j = 0; j < BASES; j++) {
+					double swap = lu[col * BASES + j];
+					lu[col * BASES + j] = lu[best * BASES + j];
+					lu[best * BASES + j] = swap;
+				}
+				pivot[col] = best;
+				for (int row = col + 1; row < BASES; row++) {
+					double f = lu[row * BASES + col] / lu[col * BASES + col];
+					lu[row * BASES + col] = f;
+					for (int j = col + 1; j < BASES; j++) {
+						lu[row * BASES + j] -= f * lu[col * BASES + j];
+					}
+				}
+			}
+		}
+
+		private void backSubstitute(double[] x) {
+			for (int col = 0; col < BASES; col++) {
+				double swap = x[col];
+				x[col] = x[pivot[col]];
+				x[pivot[col]] = swap;
+			}
+			for (int i = 0; i < BASES; i++) {
+				for (int j = 0; j < i; j++) {
+					x[i] -= lu[i * BASES + j] * x[j];
+				}
+			}
+			for (int i = BASES - 1; i >= 0; i--) {
+				for (int j = i + 1; j < BASES; j++) {
+					x[i] -= lu[i * BASES + j] * x[j];
+				}
+				x[i] /= lu[i * BASES + i];
+			}
+		}
+
+		private static double[] multiply(double[] a, double[] b) {
+			double[] m = new double[BASES * BASES];
+			for (int i = 0; i < BASES; i++) {
+				for (int k = 0; k < BASES; k++) {
+					double aik = a[i * BASES + k];
+					if (aik != 0) {
+						for (int j = 0; j < BASES; j++) {
+							m[i * BASES + j] += aik * b[k * BASES + j];
+						}
+					}
+				}
+			}
+			return m;
+		}
+	}
+}
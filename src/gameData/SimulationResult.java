@@ -0,0 +1,248 @@
+package gameData;
+
+import java.util.Arrays;
+
+/**
+ * Aggregate totals over a batch of simulated games. Results for separate
+ * batches can be combined with merge, which lets each worker of a parallel
+ * simulation keep its own SimulationResult and fold them together at the end.
+ *
+ * @author Matthew Bunge
+ */
+
+public class SimulationResult {
+
+	private int games;
+	private int homeWins;
+	private int awayWins;
+	private long homeRuns;
+	private long awayRuns;
+	private long homeHits;
+	private long awayHits;
+	private long[] homeInningRuns;
+	private long[] awayInningRuns;
+	private int[] homeInningsPlayed;
+	private int[] awayInningsPlayed;
+
+	/**
+	 * Creates a SimulationResult with no games recorded.
+	 */
+	public SimulationResult() {
+		homeInningRuns = new long[GameStat.REGULATION_INNINGS];
+		awayInningRuns = new long[GameStat.REGULATION_INNINGS];
+		homeInningsPlayed = new int[GameStat.REGULATION_INNINGS];
+		awayInningsPlayed = new int[GameStat.REGULATION_INNINGS];
+	}
+
+	/**
+	 * Adds the final state of a single game to the totals.
+	 *
+	 * @param gs
+	 *            The GameStat of a finished game.
+	 */
+	public void record(GameStat gs) {
+		games++;
+		if (gs.getHomeRuns() > gs.getAwayRuns()) {
+			homeWins++;
+		} else if (gs.getAwayRuns() > gs.getHomeRuns()) {
+			awayWins++;
+		}
+		homeRuns += gs.getHomeRuns();
+		awayRuns += gs.getAwayRuns();
+		homeHits += gs.getHomeHits();
+		awayHits += gs.getAwayHits();
+		homeInningsPlayed = grow(homeInningsPlayed, gs.getHomeSpread().size());
+		awayInningsPlayed = grow(awayInningsPlayed, gs.getAwaySpread().size());
+		homeInningRuns = addSpread(homeInningRuns, gs, true);
+		awayInningRuns = addSpread(awayInningRuns, gs, false);
+	}
+
+	/**
+	 * Combines the totals of another SimulationResult into this one.
+	 *
+	 * @param other
+	 *            The SimulationResult being folded in.
+	 * @return This SimulationResult, now including the other's totals.
+	 */
+	public SimulationResult merge(SimulationResult other) {
+		games += other.games;
+		homeWins += other.homeWins;
+		awayWins += other.awayWins;
+		homeRuns += other.homeRuns;
+		awayRuns += other.awayRuns;
+		homeHits += other.homeHits;
+		awayHits += other.awayHits;
+		homeInningRuns = mergeSpread(homeInningRuns, other.homeInningRuns);
+		awayInningRuns = mergeSpread(awayInningRuns, other.awayInningRuns);
+		homeInningsPlayed = mergeCounts(homeInningsPlayed, other.homeInningsPlayed);
+		awayInningsPlayed = mergeCounts(awayInningsPlayed, other.awayInningsPlayed);
+		return this;
+	}
+
+	/**
+	 * Gets the number of games recorded.
+	 *
+	 * @return the number of games recorded.
+	 */
+	public int getGames() {
+		return games;
+	}
+
+	/**
+	 * Gets the number of games won by the home team.
+	 *
+	 * @return the number of home wins.
+	 */
+	public int getHomeWins() {
+		return homeWins;
+	}
+
+	/**
+	 * Gets the number of games won by the away team.
+	 *
+	 * @return the number of away wins.
+	 */
+	public int getAwayWins() {
+		return awayWins;
+	}
+
+	/**
+	 * Gets the fraction of games won by the home team.
+	 *
+	 * @return the home team's win rate, 0 if no games were recorded.
+	 */
+	public double getHomeWinRate() {
+		return games == 0 ? 0 : (double) homeWins / games;
+	}
+
+	/**
+	 * Gets the average number of runs scored by the home team per game.
+	 *
+	 * @return the home team's runs per game.
+	 */
+	public double getHomeRunsPerGame() {
+		return games == 0 ? 0 : (double) homeRuns / games;
+	}
+
+	/**
+	 * Gets the average number of runs scored by the away team per game.
+	 *
+	 * @return the away team's runs per game.
+	 */
+	public double getAwayRunsPerGame() {
+		return games == 0 ? 0 : (double) awayRuns / games;
+	}
+
+	/**
+	 * Gets the average number of hits by the home team per game.
+	 *
+	 * @return the home team's hits per game.
+	 */
+	public double getHomeHitsPerGame() {
+		return games == 0 ? 0 : (double) homeHits / games;
+	}
+
+	/**
+	 * Gets the average number of hits by the away team per game.
+	 *
+	 * @return the away team's hits per game.
+	 */
+	public double getAwayHitsPerGame() {
+		return games == 0 ? 0 : (double) awayHits / games;
+	}
+
+	/**
+	 * Gets the average runs scored by the home team in a given inning, over
+	 * the games in which the home team batted in that inning.
+	 *
+	 * @param inning
+	 *            The inning being queried, starting from 1.
+	 * @return the home team's average runs in that inning.
+	 */
+	public double getHomeInningAverage(int inning) {
+		return average(homeInningRuns, homeInningsPlayed, inning);
+	}
+
+	/**
+	 * Gets the average runs scored by the away team in a given inning, over
+	 * the games in which the away team batted in that inning.
+	 *
+	 * @param inning
+	 *            The inning being queried, starting from 1.
+	 * @return the away team's average runs in that inning.
+	 */
+	public double getAwayInningAverage(int inning) {
+		return average(awayInningRuns, awayInningsPlayed, inning);
+	}
+
+	/**
+	 * Gets the number of innings in the longest game recorded.
+	 *
+	 * @return the length in innings of the longest game.
+	 */
+	public int getInnings() {
+		return Math.max(awayInningsPlayed.length, homeInningsPlayed.length);
+	}
+
+	@Override
+	public String toString() {
+		String s = "Games: " + games + "\n";
+		s += "Home win rate: " + getHomeWinRate() + "\n";
+		s += "Runs per game: " + getAwayRunsPerGame() + " away, " + getHomeRunsPerGame() + " home\n";
+		s += "Hits per game: " + getAwayHitsPerGame() + " away, " + getHomeHitsPerGame() + " home\n";
+		s += "Inning\tAway\tHome\n";
+		for (int i = 1; i <= getInnings(); i++) {
+			s += i + "\t" + String.format("%.3f", getAwayInningAverage(i)) + "\t"
+					+ String.format("%.3f", getHomeInningAverage(i)) + "\n";
+		}
+		return s;
+	}
+
+	private static double average(long[] runs, int[] played, int inning) {
+		if (inning < 1 || inning > played.length || played[inning - 1] == 0) {
+			return 0;
+		}
+		return (double) runs[inning - 1] / played[inning - 1];
+	}
+
+	private static int[] grow(int[] played, int innings) {
+		if (innings > played.length) {
+			played = Arrays.copyOf(played, innings);
+		}
+		for (int i = 0; i < innings; i++) {
+			played[i]++;
+		}
+		return played;
+	}
+
+	private static long[] addSpread(long[] runs, GameStat gs, boolean home) {
+		int innings = home ? gs.getHomeSpread().size() : gs.getAwaySpread().size();
+		if (innings > runs.length) {
+			runs = Arrays.copyOf(runs, innings);
+		}
+		for (int i = 0; i < innings; i++) {
+			runs[i] += home ? gs.getHomeRuns(i + 1) : gs.getAwayRuns(i + 1);
+		}
+		return runs;
+	}
+
+	private static long[] mergeSpread(long[] mine, long[] theirs) {
+		if (theirs.length > mine.length) {
+			mine = Arrays.copyOf(mine, theirs.length);
+		}
+		for (int i = 0; i < theirs.length; i++) {
+			mine[i] += theirs[i];
+		}
+		return mine;
+	}
+
+	private static int[] mergeCounts(int[] mine, int[] theirs) {
+		if (theirs.length > mine.length) {
+			mine = Arrays.copyOf(mine, theirs.length);
+		}
+		for (int i = 0; i < theirs.length; i++) {
+			mine[i] += theirs[i];
+		}
+		return mine;
+	}
+}
@@ -0,0 +1,114 @@
+package gameData;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Plays complete games between two lineups without any interface attached and
+ * reports the aggregate results. Games are split across every available core
+ * with a fork-join pool; each game plays on its own copies of the lineups and
+ * its own dice, so the games never share mutable state.
+ *
+ * @author Matthew Bunge
+ */
+
+public class Simulator {
+
+	/**
+	 * Number of games a single task plays before it stops splitting
+	 */
+	private static final int GAMES_PER_TASK = 32;
+
+	/**
+	 * Simulates a number of complete games between two lineups
+	 *
+	 * @param home
+	 *            The lineup of the home team, with its field, batting order and
+	 *            pitcher already set
+	 * @param away
+	 *            The lineup of the away team, with its field, batting order and
+	 *            pitcher already set
+	 * @param games
+	 *            The number of games to play
+	 * @param seed
+	 *            The seed every game's dice are derived from. The same seed
+	 *            always produces the same results whatever the number of
+	 *            threads, and game i gets the same dice under any lineups, so
+	 *            two lineups run with one seed can be compared game by game.
+	 * @return The aggregate results of all games played
+	 */
+	public static SimulationResult simulate(LineupManager home, LineupManager away, int games, long seed) {
+		if (games < 0) {
+			throw new IllegalArgumentException("Number of games can't be negative");
+		}
+		return ForkJoinPool.commonPool().invoke(new SimulationTask(home, away, seed, 0, games));
+	}
+
+	/**
+	 * Plays a single complete game
+	 *
+	 * @param home
+	 *            The lineup of the home team
+	 * @param away
+	 *            The lineup of the away team
+	 * @param dice
+	 *            The source of the game's dice rolls
+	 * @return The GameStat of the finished game
+	 */
+	public static GameStat playGame(LineupManager home, LineupManager away, SplittableRandom dice) {
+		GameManager game = new GameManager(new LineupManager(home), new LineupManager(away), null, dice);
+		// Nobody is there to play a card, so play straight through
+		game.setStopForCards(false);
+		game.finishGame();
+		return game.getGameStat();
+	}
+
+	/**
+	 * Derives the seed of a single game from the seed of the whole run, so a
+	 * game's dice don't depend on which thread happens to play it
+	 */
+	private static long gameSeed(long seed, int game) {
+		long z = seed + (game + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Plays a run of games, each with the dice its number is given by the
+	 * run's seed, and adds up their results
+	 */
+	private static class SimulationTask extends RangeTask<SimulationResult> {
+
+		private static final long serialVersionUID = 1L;
+		private final LineupManager home;
+		private final LineupManager away;
+		private final long seed;
+
+		private SimulationTask(LineupManager home, LineupManager away, long seed, int first, int last) {
+			super(first, last, GAMES_PER_TASK);
+			this.home = home;
+			this.away = away;
+			this.seed = seed;
+		}
+
+		@Override
+		protected SimulationResult computeRange() {
+			SimulationResult result = new SimulationResult();
+			for (int i = first; i < last; i++) {
+				result.record(playGame(home, away, new SplittableRandom(gameSeed(seed, i))));
+			}
+			return result;
+		}
+
+		@Override
+		protected SimulationTask subtask(int first, int last) {
+			return new SimulationTask(home, away, seed, first, last);
+		}
+
+		@Override
+		protected SimulationResult combine(SimulationResult lower, SimulationResult upper) {
+			return lower.merge(upper);
+		}
+	}
+}
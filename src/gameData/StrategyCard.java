@@ -4,12 +4,14 @@ import java.util.ArrayList;
 import java.io.*;
 import java.util.*;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.ThreadLocalRandom;
+
+import players.CardFormatException;
+import players.CardReader;
 
 public class StrategyCard {
 
-	private static List<String> tokens;
-	private static List<StrategyCard> allCards;
+	private static volatile List<StrategyCard> allCards;
 
 	private String name;
 	private int num;
@@ -18,31 +20,75 @@ public class StrategyCard {
 	private String preCondition;
 	private String postEffect;
 	private String description;
+	private Precondition precondition;
+	private List<Effect> effects;
 
 	public StrategyCard() throws FileNotFoundException {
 		this("DataFiles/04 Special Custom");
 	}
 
+	/**
+	 * Draws a random card from the loaded deck using the current thread's
+	 * random number generator
+	 * 
+	 * @return A random StrategyCard, null if no deck has been loaded
+	 */
 	public static StrategyCard getRandomCard() {
-		Random r = new Random();
-		int rand = r.nextInt(allCards.size());
-		return allCards.get(rand);
+		List<StrategyCard> cards = allCards;
+		if (cards == null || cards.isEmpty()) {
+			return null;
+		}
+		return cards.get(ThreadLocalRandom.current().nextInt(cards.size()));
 	}
-	
-	public static List<String> getTokens() {
-		return tokens;
+
+	/**
+	 * Draws a random card from the loaded deck
+	 * 
+	 * @param dice
+	 *            The source of randomness for the draw, so that draws can be
+	 *            repeated from a seed
+	 * @return A random StrategyCard, null if no deck has been loaded
+	 */
+	public static StrategyCard getRandomCard(SplittableRandom dice) {
+		List<StrategyCard> cards = allCards;
+		if (cards == null || cards.isEmpty()) {
+			return null;
+		}
+		return cards.get(dice.nextInt(cards.size()));
 	}
 
+	/**
+	 * Loads the deck of strategy cards from a file. The deck is built up
+	 * privately and only published once it is complete, so games already in
+	 * progress keep drawing from a consistent deck.
+	 * 
+	 * @param f
+	 *            The name of the file containing the strategy cards
+	 * @throws FileNotFoundException
+	 *             if the file does not exist
+	 * @throws CardFormatException
+	 *             if a card is malformed or has a bad code, giving the file and
+	 *             line of the card
+	 */
 	public StrategyCard(String f) throws FileNotFoundException {
-		Scanner file = new Scanner(new File(f));
-		tokens = new ArrayList<String>();
-		allCards = new ArrayList<StrategyCard>();
-		file.useDelimiter(Pattern.compile("\\t|\\r\\n"));
-		while (file.hasNext()) {
-			allCards.add(StrategyCard.maker(file.nextInt(), file.next(), file.next(), file.next(), file.next(),
-					file.next(), file.next()));
+		CardReader input = new CardReader(new File(f));
+		List<StrategyCard> cards = new ArrayList<StrategyCard>();
+		while (input.nextRecord()) {
+			int num = input.intField("card number");
+			String name = input.field("name");
+			String odu = input.field("offense, defense or utility");
+			String year = input.field("year");
+			String pre = input.field("precondition");
+			String post = input.field("effect");
+			String desc = input.field("description");
+			try {
+				cards.add(StrategyCard.maker(num, name, odu, year, pre, post, desc));
+			} catch (IllegalArgumentException e) {
+				throw input.error(e.getMessage());
+			}
+			input.nextLine();
 		}
-		file.close();
+		allCards = Collections.unmodifiableList(cards);
 	}
 	
 	public String getUID() {
@@ -65,6 +111,13 @@ public class StrategyCard {
 		return postEffect;
 	}
 
+	/**
+	 * Creates a card, compiling its precondition and effect codes so that a
+	 * card with a bad code is rejected as soon as it is loaded
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if either code is malformed
+	 */
 	private StrategyCard(int num, String name, String odu, String year, String pre, String post, String desc) {
 		this.name = name;
 		this.num = num;
@@ -73,84 +126,83 @@ public class StrategyCard {
 		preCondition = pre;
 		postEffect = post;
 		this.description = desc;
+		try {
+			precondition = Precondition.compile(pre);
+			effects = Effect.compile(post);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Strategy card " + num + " (" + name + "): " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Gets the compiled instructions carried out when the card is played
+	 * 
+	 * @return An unmodifiable list of the card's Effects
+	 */
+	public List<Effect> getEffects() {
+		return effects;
 	}
 
-	public static void emit(String s) {
-		tokens.add(s);
+	/**
+	 * Gets the number of cards the player of this card has to discard to play
+	 * it
+	 * 
+	 * @return The number of cards discarded by the player
+	 */
+	public int getDiscards() {
+		int discards = 0;
+		for (Effect e : effects) {
+			if (e.getOp() == Effect.Op.Discard && e.isSelf()) {
+				discards += e.getAmount();
+			}
+		}
+		return discards;
 	}
 
 	public static StrategyCard maker(int num, String name, String odu, String year, String pre, String post, String desc) {
 		return new StrategyCard(num, name, odu, year, pre, post, desc);
 	}
 
-	public static boolean parsePrecondition(String s) {
-		String[] pre = s.split("\\+");
-		if (pre.length > 1) {
-			if (tokens.size() > 1) {
-				if (pre[1].equals("HC")) {
-					if (!tokens.get(tokens.size() - 2).equals("HC")) {
-						return false;
-					}
-				} else if (pre[1].equals("PC")) {
-					if (!tokens.get(tokens.size() - 2).equals("PC")) {
-						return false;
-					} 
-				}
-			} else {
-				return false;
-			}
-		}
-		String[] alternates = pre[0].split("\\^");
-		if (alternates.length > 1) {
-			for (String alternate : alternates) {
-				if (StrategyCard.parsePrecondition(alternate)) {
-					return true;
-				}
-			}
-			return false;
+	/**
+	 * Checks whether the card's precondition is satisfied by the current state
+	 * of a game's log
+	 * 
+	 * @param log
+	 *            The GameLog of the game the card would be played in
+	 * @return true if the card may be played, false otherwise
+	 */
+	public boolean isPlayable(GameLog log) {
+		return precondition.isMet(log);
+	}
+
+	/**
+	 * Checks whether the card may be played by the team at bat or the team in
+	 * the field, going by its usage: offense, defense or utility
+	 * 
+	 * @param offense
+	 *            true for the team at bat, false for the team in the field
+	 * @return true if that side may play the card, false otherwise
+	 */
+	public boolean isUsableBy(boolean offense) {
+		if (offDefUtil.equals("O")) {
+			return offense;
 		}
-		switch (pre[0]) {
-		case "SO": // Strikeout result
-			return tokens.get(tokens.size() - 1).equals("SO");
-		case "RRS": // Before a reroll of a swing
-			return tokens.get(tokens.size() - 1).equals("RRS");
-		case "RRP": // Before a reroll of a pitch
-			return tokens.get(tokens.size() - 1).equals("RRP");
-		case "FO": // Flyout result
-			return tokens.get(tokens.size() - 1).equals("FO");
-		case "BP": // Before the Pitch
-			return tokens.get(tokens.size() - 1).equals("BP");
-		case "IBB": // After intentional walk
-			return tokens.get(tokens.size() - 1).equals("IBB");
-		case "BB": // After a normal walk
-			return tokens.get(tokens.size() - 1).equals("BB");
-		case "BDP": // Before double play attempt
-			return tokens.get(tokens.size() - 1).equals("BDP");
-		case "ADP":	// After double play attempt
-			return tokens.get(tokens.size() - 1).equals("ADP");
-		case "1B": // After a single
-			return tokens.get(tokens.size() - 1).equals("1B");
-		case "1B+": // After 1B+
-			return tokens.get(tokens.size() - 1).equals("1BP");
-		case "2B": // After a double
-			return tokens.get(tokens.size() - 1).equals("2B");
-		case "3B": // After 3B
-			return tokens.get(tokens.size() - 1).equals("3B");
-		case "HR": // After HR
-			return tokens.get(tokens.size() - 1).equals("HR");
-		case "A": // Any
-			return true;
-		case "AO": // Any out
-			String token = tokens.get(tokens.size() - 1);
-			return token.equals("PU") || token.equals("FO") || token.equals("SO") || token.equals("GO");
+		if (offDefUtil.equals("D")) {
+			return !offense;
 		}
-		throw new IllegalArgumentException(s + "isn't a legal token");
+		return true;
 	}
 
-	public static void printLog() {
-		System.out.println(tokens);
+	/**
+	 * Checks whether the card may be played at every point of a game, so
+	 * holding it never calls for a decision at any one point
+	 * 
+	 * @return true if the card is always playable, false otherwise
+	 */
+	public boolean isAlwaysPlayable() {
+		return precondition.isAlwaysMet();
 	}
-	
+
 	public String getDescription() {
 		return description;
 	}
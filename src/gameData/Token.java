@@ -0,0 +1,85 @@
+package gameData;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An enumeration of every token that can be emitted to a GameLog, both the
+ * results read off of a card and the events that happen around them. Each
+ * token holds the short code used for it on strategy cards and in the game
+ * log, which is only needed when reading cards or showing the log to a person.
+ *
+ * A GameLog writes its history to disk by ordinal, so new tokens belong at the
+ * end of the list to keep old histories readable.
+ *
+ * @author Matthew Bunge
+ */
+
+public enum Token {
+
+	Popout("PU"), Strikeout("SO"), Groundout("GO"), Flyout("FO"), Walk("BB"), IntentionalWalk("IBB"), Single(
+			"1B"), SinglePlus("1B+"), Double("2B"), Triple("3B"), Homerun("HR"), BeforePitch("BP"), HitterChart(
+					"HC"), PitcherChart("PC"), RerollSwing("RRS"), RerollPitch("RRP"), BeforeDoublePlay(
+							"BDP"), AfterDoublePlay("ADP"), RerollDoublePlay("RRDP"), DoublePlayChecked(
+									"DPC"), InningOver("IO"), CardPlayed("'");
+
+	private static final Map<String, Token> byCode = new HashMap<String, Token>();
+
+	static {
+		for (Token t : Token.values()) {
+			byCode.put(t.code, t);
+		}
+	}
+
+	private final String code;
+
+	/**
+	 * Constructor of a token taking its code
+	 *
+	 * @param code
+	 *            The code of the token as written on cards and in the log
+	 */
+	private Token(String code) {
+		this.code = code;
+	}
+
+	/**
+	 * Gets the code of the token
+	 *
+	 * @return A string representing the code of the token
+	 */
+	public String getCode() {
+		return code;
+	}
+
+	/**
+	 * Checks whether the token is a result that puts the batter out
+	 *
+	 * @return true for a popout, strikeout, groundout or flyout
+	 */
+	public boolean isOut() {
+		return this == Popout || this == Strikeout || this == Groundout || this == Flyout;
+	}
+
+	/**
+	 * Translates a code to the token it represents
+	 *
+	 * @param s
+	 *            The code of a token
+	 * @return The token related to the passed code, null if the code does not
+	 *         correspond to a token
+	 */
+	public static Token fromCode(String s) {
+		return byCode.get(s);
+	}
+
+	/**
+	 * Returns the code of the token, for display in the log and the interface
+	 *
+	 * @return The code of the token
+	 */
+	@Override
+	public String toString() {
+		return code;
+	}
+}
@@ -0,0 +1,136 @@
+package graphicsInterface;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Keeps track of how long work waits for the event dispatch thread, to show
+ * the interface staying responsive. Delays are recorded with record, and a
+ * monitor made by probe records its own: it posts an empty task to the event
+ * dispatch thread on a fixed period and records how late each one runs, so
+ * anything hogging the thread shows up as a long delay.
+ *
+ * Only the most recent delays are kept for the percentiles; the count, mean
+ * and maximum cover every delay recorded.
+ *
+ * @author Matthew Bunge
+ */
+
+public class EdtMonitor {
+
+	private static final int RECENT = 1024;
+
+	private final String name;
+	private final long[] recent = new long[RECENT];
+	private long count;
+	private long total;
+	private long max;
+
+	/**
+	 * Creates a monitor with no delays recorded
+	 *
+	 * @param name
+	 *            What the delays are of, used in toString
+	 */
+	public EdtMonitor(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Creates a monitor that measures how late the event dispatch thread
+	 * runs a task posted to it, every period milliseconds for the rest of
+	 * the program
+	 *
+	 * @param periodMillis
+	 *            How often to post a task
+	 * @return The monitor the delays are recorded in
+	 */
+	public static EdtMonitor probe(long periodMillis) {
+		EdtMonitor monitor = new EdtMonitor("Event thread latency");
+		ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "EDT probe");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		timer.scheduleAtFixedRate(new Runnable() {
+			public void run() {
+				final long posted = System.nanoTime();
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						monitor.record(System.nanoTime() - posted);
+					}
+				});
+			}
+		}, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+		return monitor;
+	}
+
+	/**
+	 * Records a single delay
+	 *
+	 * @param nanos
+	 *            The delay in nanoseconds
+	 */
+	public synchronized void record(long nanos) {
+		recent[(int) (count % RECENT)] = nanos;
+		count++;
+		total += nanos;
+		max = Math.max(max, nanos);
+	}
+
+	/**
+	 * Gets the number of delays recorded
+	 *
+	 * @return The sample count
+	 */
+	public synchronized long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the longest delay recorded
+	 *
+	 * @return The maximum in milliseconds
+	 */
+	public synchronized double getMaxMillis() {
+		return max / 1e6;
+	}
+
+	/**
+	 * Gets a percentile of the most recent delays
+	 *
+	 * @param p
+	 *            The percentile, 0 to 100
+	 * @return The delay in milliseconds, 0 if none have been recorded
+	 */
+	public synchronized double getPercentileMillis(double p) {
+		int n = (int) Math.min(count, RECENT);
+		if (n == 0) {
+			return 0;
+		}
+		long[] sorted = Arrays.copyOf(recent, n);
+		Arrays.sort(sorted);
+		int i = (int) Math.ceil(p / 100 * n) - 1;
+		return sorted[Math.max(0, Math.min(n - 1, i))] / 1e6;
+	}
+
+	/**
+	 * Returns a line with the count, mean, median, 99th percentile and
+	 * maximum delay
+	 */
+	@Override
+	public synchronized String toString() {
+		double mean = count == 0 ? 0 : total / 1e6 / count;
+		return name + ": " + count + " samples, mean " + String.format("%.2f", mean) + " ms, p50 "
+				+ String.format("%.2f", getPercentileMillis(50)) + " ms, p99 "
+				+ String.format("%.2f", getPercentileMillis(99)) + " ms, max " + String.format("%.2f", getMaxMillis())
+				+ " ms";
+	}
+}
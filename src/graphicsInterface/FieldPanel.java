@@ -0,0 +1,280 @@
+package graphicsInterface;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import javax.swing.JPanel;
+
+import gameData.GameSnapshot;
+import players.HitterData;
+import players.PlayerData;
+import players.Position;
+
+/**
+ * The picture of the field on the main window, with the scoreboard, the
+ * defense and the runners drawn over it.
+ *
+ * The panel is painted in layers so that a step of the game costs little
+ * more than the text that changed. The background is scaled to the panel
+ * once into a compatible image and only scaled again when the panel is
+ * resized. The names and fielding of the nine fielders are drawn over a copy
+ * of it, which is only redrawn when the defense changes, so a paint is a
+ * single copy of an opaque image rather than a scale or a blend. The
+ * scoreboard and runners are drawn as text on top, and refresh repaints just
+ * the regions of the text that changed since the last step.
+ *
+ * @author Matthew Bunge
+ */
+
+public class FieldPanel extends JPanel {
+
+	private static final long serialVersionUID = 1L;
+
+	// Where each line of text goes, as fractions of the panel's width and
+	// height. The scoreboard is ten innings of away and home runs, then outs,
+	// runs and hits; each runner is a name and a speed line.
+	private static final int INNINGS = 10;
+	private static final int OUTS = 2 * INNINGS;
+	private static final int TOTALS = OUTS + 1;
+	private static final int RUNNERS = TOTALS + 4;
+	private static final int SLOTS = RUNNERS + 6;
+	private static final double[] slotX = new double[SLOTS];
+	private static final double[] slotY = new double[SLOTS];
+	private static final double[][] fielders = { { .45, .75 }, { .45, .9 }, { .675, .7 }, { .575, .6 }, { .25, .7 },
+			{ .35, .6 }, { .15, .5 }, { .45, .375 }, { .75, .5 } };
+	private static final double[][] runners = { { .8, .75 }, { .45, .5 }, { .15, .75 } };
+
+	static {
+		for (int i = 0; i < INNINGS; i++) {
+			place(i, .26875 + i * .05375, .18);
+			place(INNINGS + i, .26875 + i * .05375, .2225);
+		}
+		place(OUTS, .6875, .0825);
+		place(TOTALS, .825, .18);
+		place(TOTALS + 1, .89375, .18);
+		place(TOTALS + 2, .825, .2225);
+		place(TOTALS + 3, .89375, .2225);
+		for (int base = 0; base < 3; base++) {
+			place(RUNNERS + 2 * base, runners[base][0], runners[base][1]);
+			place(RUNNERS + 2 * base + 1, runners[base][0], runners[base][1] + .025);
+		}
+	}
+
+	private static void place(int slot, double x, double y) {
+		slotX[slot] = x;
+		slotY[slot] = y;
+	}
+
+	private final Font font;
+	private Image background;
+	private GameSnapshot game; // The game as last shown, null before one starts
+
+	private BufferedImage scaled; // The background at the panel's size
+	private BufferedImage defense; // The background with the fielders on it
+	private int[] defenseKey = new int[0]; // Handles of the fielders drawn
+	private String[] text = new String[SLOTS]; // Scoreboard and runner text
+
+	/**
+	 * Creates an empty field
+	 *
+	 * @param font
+	 *            The font the text over the field is drawn in
+	 */
+	public FieldPanel(Font font) {
+		this.font = font;
+		setOpaque(true);
+	}
+
+	/**
+	 * Sets the picture drawn behind everything else, which is scaled to fit
+	 * the panel
+	 *
+	 * @param background
+	 *            The picture of the field, null for none
+	 */
+	public void setBackgroundImage(Image background) {
+		this.background = background;
+		scaled = null;
+		repaint();
+	}
+
+	/**
+	 * Updates the field to a new snapshot of the game. Only the text that
+	 * changed since the last snapshot is repainted, and the fielders only
+	 * when the defense changed.
+	 *
+	 * @param now
+	 *            The game as it stands
+	 */
+	public void refresh(GameSnapshot now) {
+		boolean first = game == null;
+		game = now;
+		int[] key = defenseKey();
+		if (!Arrays.equals(key, defenseKey)) {
+			defenseKey = key;
+			defense = null;
+			repaint();
+		}
+		String[] shown = currentText();
+		if (first) {
+			text = shown;
+			repaint();
+			return;
+		}
+		FontMetrics fm = getFontMetrics(font);
+		for (int i = 0; i < SLOTS; i++) {
+			if (!same(shown[i], text[i])) {
+				Rectangle dirty = bounds(fm, text[i], i);
+				Rectangle fresh = bounds(fm, shown[i], i);
+				if (dirty == null) {
+					dirty = fresh;
+				} else if (fresh != null) {
+					dirty.add(fresh);
+				}
+				repaint(dirty);
+			}
+		}
+		text = shown;
+	}
+
+	private static boolean same(String a, String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	/**
+	 * Gets the area a line of text covers at its place on the panel
+	 */
+	private Rectangle bounds(FontMetrics fm, String s, int slot) {
+		if (s == null) {
+			return null;
+		}
+		int x = (int) (getWidth() * slotX[slot]);
+		int y = (int) (getHeight() * slotY[slot]);
+		return new Rectangle(x, y - fm.getAscent(), fm.stringWidth(s) + 1, fm.getAscent() + fm.getDescent());
+	}
+
+	private int[] defenseKey() {
+		int[] key = new int[fielders.length];
+		for (int pos = 1; pos <= fielders.length; pos++) {
+			key[pos - 1] = game.getPlayerAtPosition(pos).getHandle();
+		}
+		return key;
+	}
+
+	/**
+	 * Works out the scoreboard and runner text for the game as it stands
+	 */
+	private String[] currentText() {
+		String[] s = new String[SLOTS];
+		for (int i = 0; i < INNINGS; i++) {
+			if (i >= game.getAwaySpread().size()) {
+				break;
+			}
+			s[i] = Integer.toString(game.getAwaySpread().get(i));
+			if (i >= game.getHomeSpread().size()) {
+				break;
+			}
+			s[INNINGS + i] = Integer.toString(game.getHomeSpread().get(i));
+		}
+		s[OUTS] = Integer.toString(game.getOuts());
+		s[TOTALS] = Integer.toString(game.getAwayRuns());
+		s[TOTALS + 1] = Integer.toString(game.getAwayHits());
+		s[TOTALS + 2] = Integer.toString(game.getHomeRuns());
+		s[TOTALS + 3] = Integer.toString(game.getHomeHits());
+		for (int base = 1; base <= 3; base++) {
+			HitterData p = (HitterData) game.getRunnerOn(base);
+			if (p != null) {
+				s[RUNNERS + 2 * (base - 1)] = lastName(p);
+				s[RUNNERS + 2 * (base - 1) + 1] = "Speed: " + p.getSpeed();
+			}
+		}
+		return s;
+	}
+
+	private static String lastName(PlayerData p) {
+		return p.toString().split(" ")[1];
+	}
+
+	@Override
+	public void paintComponent(Graphics g) {
+		int width = getWidth();
+		int height = getHeight();
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+		if (background != null && (scaled == null || scaled.getWidth() != width || scaled.getHeight() != height)) {
+			scaled = scaleBackground(width, height);
+			defense = null;
+		}
+		if (game == null) {
+			if (scaled == null) {
+				super.paintComponent(g);
+			} else {
+				g.drawImage(scaled, 0, 0, null);
+			}
+			return;
+		}
+		if (defense == null || defense.getWidth() != width || defense.getHeight() != height) {
+			defense = drawDefense(width, height);
+		}
+		g.drawImage(defense, 0, 0, null);
+		g.setColor(Color.BLACK);
+		g.setFont(font);
+		Rectangle clip = g.getClipBounds();
+		FontMetrics fm = g.getFontMetrics();
+		for (int i = 0; i < SLOTS; i++) {
+			if (text[i] != null && (clip == null || clip.intersects(bounds(fm, text[i], i)))) {
+				g.drawString(text[i], (int) (width * slotX[i]), (int) (height * slotY[i]));
+			}
+		}
+	}
+
+	private BufferedImage newImage(int width, int height) {
+		GraphicsConfiguration gc = getGraphicsConfiguration();
+		if (gc != null) {
+			return gc.createCompatibleImage(width, height, Transparency.OPAQUE);
+		}
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+	}
+
+	private BufferedImage scaleBackground(int width, int height) {
+		BufferedImage image = newImage(width, height);
+		Graphics2D g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(background, 0, 0, width, height, null);
+		g.dispose();
+		return image;
+	}
+
+	private BufferedImage drawDefense(int width, int height) {
+		BufferedImage image = newImage(width, height);
+		Graphics2D g = image.createGraphics();
+		if (scaled != null) {
+			g.drawImage(scaled, 0, 0, null);
+		} else {
+			g.setColor(getBackground());
+			g.fillRect(0, 0, width, height);
+		}
+		g.setColor(Color.BLACK);
+		g.setFont(font);
+		for (int pos = 1; pos <= fielders.length; pos++) {
+			PlayerData p = game.getPlayerAtPosition(pos);
+			int x = (int) (width * fielders[pos - 1][0]);
+			g.drawString(lastName(p), x, (int) (height * fielders[pos - 1][1]));
+			g.drawString(Position.abbrFromInt(pos) + ": " + p.getFielding(pos), x,
+					(int) (height * (fielders[pos - 1][1] + .025)));
+		}
+		g.dispose();
+		return image;
+	}
+}
@@ -2,35 +2,69 @@ package graphicsInterface;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.List;
 
 import javax.swing.JTextArea;
 
 import org.jdesktop.swingx.JXList;
 
 import gameData.GameManager;
-import gameData.StrategyCard;
+import gameData.GameSnapshot;
 
-public class GameContinueListener implements ActionListener {
+public class GameContinueListener implements ActionListener, GameEngine.Listener {
 	
 	JTextArea text1;
 	JXList stratHome, stratAway;
-	GameManager game;
+	GameEngine engine;
+	FieldPanel field;
 	
 	@Override
 	public void actionPerformed(ActionEvent arg0) {
-		game.advanceProgram();
+		engine.step();
+	}
+
+	/**
+	 * Plays the rest of the game without stopping at each step. Stops early
+	 * if either team holds a card that could be played.
+	 */
+	public void finishGame() {
+		if (engine == null) {
+			return;
+		}
+		engine.finish();
+	}
+
+	/**
+	 * Logs every step the engine has taken since the last call, then shows
+	 * the hands and the field as of the last one
+	 */
+	@Override
+	public void snapshotsArrived(List<GameSnapshot> arrived) {
+		for (GameSnapshot game : arrived) {
+			report(game);
+		}
+		GameSnapshot now = arrived.get(arrived.size() - 1);
+		InterfaceUtility.populateList(stratHome, now.getHomeCards());
+		InterfaceUtility.populateList(stratAway, now.getAwayCards());
+		text1.setCaretPosition(text1.getDocument().getLength());
+		if (field != null) {
+			field.refresh(now);
+		}
+	}
+
+	private void report(GameSnapshot game) {
 		GameManager.ProgramState ps = game.getProgramState();
 		if (ps == GameManager.ProgramState.AfterSwing) {
 			text1.append("At the plate is " + game.getHitter() + "\n");
 			text1.append("The Pitcher is " + game.getPitcher() + "\n");
 			text1.append("Advantage is with the " + game.getPrevAdv() + "\n");
-			text1.append("The result is " + StrategyCard.getTokens().get(StrategyCard.getTokens().size() - 1) + "\n");
+			text1.append("The result is " + game.getLast() + "\n");
 		} else if (ps == GameManager.ProgramState.BeforePitch) {
-			text1.append("The score is " + game.getGameStat().getAwayRuns() + " to " + game.getGameStat().getHomeRuns() + "\n");
+			text1.append("The score is " + game.getAwayRuns() + " to " + game.getHomeRuns() + "\n");
 		} else if (ps == GameManager.ProgramState.BeforeReroll) {
 			text1.append("A reconsideration incoming\n");
 		} else if (ps == GameManager.ProgramState.AfterReroll) {
-			text1.append("The new result is " + StrategyCard.getTokens().get(StrategyCard.getTokens().size() - 1) + "\n");
+			text1.append("The new result is " + game.getLast() + "\n");
 		} else if (ps == GameManager.ProgramState.BeforeDoublePlay) {
 			text1.append("Runner is out at 2nd, they're going for two\n");
 		} else if (ps == GameManager.ProgramState.AfterDoublePlay) {
@@ -41,26 +75,29 @@ public class GameContinueListener implements ActionListener {
 				s = "safe";
 			}
 			text1.append("It looks like the runner at first is " + s + "!\n");
+		} else if (ps == GameManager.ProgramState.GameOver) {
+			text1.append("The game is over. Final score: " + game.getAwayRuns() + " to "
+					+ game.getHomeRuns() + "\n");
 		}
-		if (game.inningSwitched()) {
+		if (ps != GameManager.ProgramState.GameOver && game.inningSwitched()) {
 			text1.append("The inning is over.\n");
 		}
-		InterfaceUtility.populateList(stratHome, game.getHome());
-		InterfaceUtility.populateList(stratAway, game.getAway());
-		text1.setCaretPosition(text1.getDocument().getLength());
 	}
 	
 	public boolean registerItem(Object c) {
 		if (c instanceof JTextArea) {
 			JTextArea jta = (JTextArea) c;
 			if (text1 == null) { text1 = jta; return true; }
-		} else if (c instanceof GameManager) {
-			GameManager gm = (GameManager) c;
-			if (game == null) { game = gm; return true; }
+		} else if (c instanceof GameEngine) {
+			GameEngine ge = (GameEngine) c;
+			if (engine == null) { engine = ge; return true; }
 		} else if (c instanceof JXList) {
 			JXList j = (JXList) c;
 			if (stratHome == null) 		{ stratHome = j; return true; }
 			else if (stratAway == null) 	{ stratAway = j; return true; }
+		} else if (c instanceof FieldPanel) {
+			FieldPanel fp = (FieldPanel) c;
+			if (field == null) { field = fp; return true; }
 		}
 		return false;
 	}
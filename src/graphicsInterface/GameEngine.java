@@ -0,0 +1,209 @@
+package graphicsInterface;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+
+import gameData.GameManager;
+import gameData.GameSnapshot;
+
+/**
+ * Plays a game on its own thread so the interface never waits on the engine.
+ * Once a GameManager is given to a GameEngine only the engine's thread may
+ * touch it; everything else asks the engine to do the work and reads the
+ * GameSnapshots it publishes.
+ *
+ * A snapshot is taken after every step, and at the end of every half inning
+ * when the rest of the game is played at once, and put on a queue. The event
+ * dispatch thread is only woken once for however many snapshots pile up
+ * before it gets to them, and the listener gets all of them in one call, so
+ * it can log every step but redraw only for the last.
+ *
+ * @author Matthew Bunge
+ */
+
+public class GameEngine {
+
+	/**
+	 * Receives the snapshots published by an engine, on the event dispatch
+	 * thread
+	 */
+	public interface Listener {
+
+		/**
+		 * Called with the snapshots published since the last call
+		 *
+		 * @param arrived
+		 *            The snapshots, oldest first, never empty
+		 */
+		void snapshotsArrived(List<GameSnapshot> arrived);
+	}
+
+	private final GameManager game;
+	private final Listener listener;
+	private final EdtMonitor delivery;
+	private final ExecutorService thread;
+	private final ConcurrentLinkedQueue<Published> queue = new ConcurrentLinkedQueue<Published>();
+	private final AtomicBoolean drainPosted = new AtomicBoolean();
+	private volatile GameSnapshot latest;
+
+	/**
+	 * Takes over a game and publishes its starting snapshot
+	 *
+	 * @param game
+	 *            The game to play, which nothing else may touch from now on
+	 * @param listener
+	 *            Where the snapshots are sent
+	 * @param delivery
+	 *            Records how long each snapshot waits to reach the listener,
+	 *            may be null
+	 */
+	public GameEngine(GameManager game, Listener listener, EdtMonitor delivery) {
+		this.game = game;
+		this.listener = listener;
+		this.delivery = delivery;
+		this.thread = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "Game engine");
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		submit(null);
+	}
+
+	/**
+	 * Moves the game forward to the next point a card could be played
+	 */
+	public void step() {
+		submit(new Runnable() {
+			public void run() {
+				game.advanceProgram();
+			}
+		});
+	}
+
+	/**
+	 * Plays the rest of the game without stopping at each step, publishing a
+	 * snapshot at the end of each half inning. Stops early if either team
+	 * holds a card that could be played.
+	 */
+	public void finish() {
+		submit(new Runnable() {
+			public void run() {
+				while (game.finishHalfInning() != GameManager.ProgramState.GameOver && !game.awaitingCard()) {
+					publish(new GameSnapshot(game));
+				}
+			}
+		});
+	}
+
+	/**
+	 * Runs something that changes the game's teams, such as readying a
+	 * strategy card, on the engine's thread between steps. No snapshot is
+	 * published for it; the change shows up after the next step.
+	 *
+	 * @param action
+	 *            The change to make
+	 */
+	public void run(Runnable action) {
+		thread.execute(guard(action));
+	}
+
+	/**
+	 * Gets the most recently published snapshot
+	 *
+	 * @return The latest snapshot, which may not have reached the listener yet
+	 */
+	public GameSnapshot getLatest() {
+		return latest;
+	}
+
+	/**
+	 * Stops the engine's thread once the work already asked for is done
+	 */
+	public void shutdown() {
+		thread.shutdown();
+	}
+
+	private void submit(Runnable step) {
+		thread.execute(guard(new Runnable() {
+			public void run() {
+				if (step != null) {
+					step.run();
+				}
+				publish(new GameSnapshot(game));
+			}
+		}));
+	}
+
+	/**
+	 * Prints anything thrown by work on the engine's thread, which the
+	 * executor would otherwise swallow
+	 */
+	private static Runnable guard(Runnable r) {
+		return new Runnable() {
+			public void run() {
+				try {
+					r.run();
+				} catch (RuntimeException | Error e) {
+					e.printStackTrace();
+					throw e;
+				}
+			}
+		};
+	}
+
+	private void publish(GameSnapshot snapshot) {
+		latest = snapshot;
+		queue.add(new Published(snapshot, System.nanoTime()));
+		if (drainPosted.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					drain();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Hands every queued snapshot to the listener, on the event dispatch
+	 * thread
+	 */
+	private void drain() {
+		// Cleared first so a snapshot published while draining posts another
+		// drain rather than being left behind
+		drainPosted.set(false);
+		List<GameSnapshot> arrived = new ArrayList<GameSnapshot>();
+		for (Published p = queue.poll(); p != null; p = queue.poll()) {
+			arrived.add(p.snapshot);
+			if (delivery != null) {
+				delivery.record(System.nanoTime() - p.nanos);
+			}
+		}
+		if (!arrived.isEmpty()) {
+			listener.snapshotsArrived(arrived);
+		}
+	}
+
+	/**
+	 * A snapshot waiting for the event dispatch thread, with when it was
+	 * published
+	 */
+	private static final class Published {
+
+		private final GameSnapshot snapshot;
+		private final long nanos;
+
+		private Published(GameSnapshot snapshot, long nanos) {
+			this.snapshot = snapshot;
+			this.nanos = nanos;
+		}
+	}
+}
@@ -3,8 +3,6 @@ package graphicsInterface;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 import javax.swing.JButton;
 import javax.swing.JTable;
@@ -21,7 +19,6 @@ public class GameStartListener implements ActionListener {
 	JXList strat1, strat2;
 	LineupTable team1, team2;
 	LineupManager lineup1, lineup2;
-	Map<String, PlayerData> pool;
 	
 	@Override
 	public void actionPerformed(ActionEvent arg0) {
@@ -36,23 +33,23 @@ public class GameStartListener implements ActionListener {
 		lineup2.populateSCards();
 		for (int i = 0; i < Math.max(team1.getRowCount(),  team2.getRowCount()); i++) {
 			if (i < team1.getRowCount()) {
-				PlayerData p = pool.get((String)team1.getValueAt(i,  1));
+				PlayerData p = (PlayerData) team1.getValueAt(i,  1);
 				lineup1.addPlayer(p);
 				if (team1.getValueAt(i, 0) != null) {
-					lineup1.hitInOrder(p.toString(), (int) team1.getValueAt(i,  0));
+					lineup1.hitInOrder(p.getHandle(), (int) team1.getValueAt(i,  0));
 				}
 				if (team1.getValueAt(i, 2) != null) {
-					lineup1.playTheField(p.toString(), Position.intFromAbbr((String) team1.getValueAt(i, 2)));
+					lineup1.playTheField(p.getHandle(), Position.intFromAbbr((String) team1.getValueAt(i, 2)));
 				}
 			}
 			if (i < team2.getRowCount()) {
-				PlayerData p = pool.get((String)team2.getValueAt(i,  1));
+				PlayerData p = (PlayerData) team2.getValueAt(i,  1);
 				lineup2.addPlayer(p);
 				if (team2.getValueAt(i, 0) != null) {
-					lineup2.hitInOrder(p.toString(), (int) team2.getValueAt(i,  0));
+					lineup2.hitInOrder(p.getHandle(), (int) team2.getValueAt(i,  0));
 				}
 				if (team2.getValueAt(i, 2) != null) {
-					lineup2.playTheField(p.toString(), Position.intFromAbbr((String) team2.getValueAt(i, 2)));
+					lineup2.playTheField(p.getHandle(), Position.intFromAbbr((String) team2.getValueAt(i, 2)));
 				}
 			}
 		}
@@ -82,9 +79,6 @@ public class GameStartListener implements ActionListener {
 			LineupManager lm = (LineupManager) c;
 			if (lineup1 == null) 		{ lineup1 = lm; return true; }
 			else if (lineup2 == null) 	{ lineup2 = lm; return true; }
-		} else if (c instanceof Map) {
-			Map<String, PlayerData> spd = (HashMap<String, PlayerData>) c;
-			if (pool == null) { pool = spd; return true; }
 		}
 		return false;
 	}
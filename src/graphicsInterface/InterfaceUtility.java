@@ -1,5 +1,7 @@
 package graphicsInterface;
 
+import java.util.List;
+
 import javax.swing.DefaultListModel;
 
 import org.jdesktop.swingx.JXList;
@@ -10,8 +12,12 @@ import gameData.StrategyCard;
 public class InterfaceUtility {
 	
 	public static void populateList(JXList strat, LineupManager lm) {
+		populateList(strat, lm.getSCards());
+	}
+
+	public static void populateList(JXList strat, List<StrategyCard> cards) {
 		DefaultListModel<StrategyCard> tm = new DefaultListModel<>();
-		for (StrategyCard s : lm.getSCards()) {
+		for (StrategyCard s : cards) {
 			tm.addElement(s);
 		}
 		strat.setModel(tm);
@@ -3,36 +3,45 @@
 package graphicsInterface;
 
 import java.awt.BorderLayout;
-import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.Toolkit;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 import javax.imageio.ImageIO;
 import javax.swing.DefaultListModel;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextArea;
+import javax.swing.JTextField;
 import javax.swing.SortOrder;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.event.TableModelEvent;
@@ -44,10 +53,10 @@ import org.jdesktop.swingx.JXList;
 
 import gameData.DraftManager;
 import gameData.GameManager;
-import gameData.GameStat;
+import gameData.GameSnapshot;
 import gameData.LineupManager;
+import gameData.PlayerIndex;
 import gameData.StrategyCard;
-import players.HitterData;
 import players.PlayerComparator;
 import players.PlayerData;
 import players.Position;
@@ -56,41 +65,95 @@ public class MainRunner {
 
 	private static LineupManager teamOne;
 	private static LineupManager teamTwo;
-	private static Image background;
 	private static Dimension screenSize;
 	private static GameStartListener start;
 	private static GameContinueListener gameContinue;
-	private static GameManager game;
+	private static GameEngine engine;
+	private static EdtMonitor edtLatency;
+	private static EdtMonitor snapshotDelivery = new EdtMonitor("Snapshot delivery");
 	private static Font f;
 	private static Font boldF;
 	private static JButton next;
+	private static FieldPanel fieldPanel;
+	private static JFrame mainWindow;
+	private static JFrame draftWindow;
+	private static JFrame poolWindow;
+	// Filled in by the loaders on the event dispatch thread, null until then
+	private static DraftManager mainPool;
+	private static StrategyCard scMan;
+	private static long startNanos;
 
-	public static void main(String[] args) throws IOException, FileNotFoundException {
-		StrategyCard scMan = new StrategyCard();
+	public static void main(String[] args) {
+		startNanos = System.nanoTime();
+		edtLatency = EdtMonitor.probe(100);
 		teamOne = new LineupManager();
 		teamTwo = new LineupManager();
-		background = ImageIO.read(new File("DataFiles/BaseballField.jpg"));
-		DraftManager mainPool = DraftManager.initializePool(new File("DataFiles/2004 pitchers.txt"),
-				new File("DataFiles/2004 hitters.txt"));
 		start = new GameStartListener() {
 			public void actionPerformed(ActionEvent e) {
 				super.actionPerformed(e);
-				game = new GameManager(teamOne, teamTwo, scMan);
-				gameContinue.registerItem(game);
+				engine = new GameEngine(new GameManager(teamOne, teamTwo, scMan), gameContinue, snapshotDelivery);
+				gameContinue.registerItem(engine);
 			}
 		};
 		gameContinue = new GameContinueListener();
 		start.registerItem(teamOne); start.registerItem(teamTwo);
-		Map<String, PlayerData> pool = mainPool.getPool();
-		start.registerItem(pool);
 		screenSize = Toolkit.getDefaultToolkit().getScreenSize();
 		f = new Font(Font.SANS_SERIF, Font.PLAIN, (screenSize.width + screenSize.height) / 200); // Arbitrary
 		boldF = new Font(Font.SANS_SERIF, Font.BOLD, (screenSize.width + screenSize.height) / 200); // Arbitrary
-		JFrame mainWindow = createMainFrame(pool, screenSize, scMan);
+		// Queued before the loaders start so their results always find the
+		// frames already built
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				showFrames();
+			}
+		});
+		new Loader<DraftManager>("Player pool") {
+			protected DraftManager load() throws IOException {
+				DraftManager pool = DraftManager.loadPool(new File("DataFiles/2004.snapshot"),
+						new File("DataFiles/2004 pitchers.txt"),
+						new File("DataFiles/2004 hitters.txt"));
+				pool.getIndex();
+				return pool;
+			}
+
+			protected void loaded(DraftManager pool) {
+				mainPool = pool;
+				fillDraftFrame(draftWindow, pool);
+				fillListFrame(poolWindow, pool);
+			}
+		}.execute();
+		new Loader<StrategyCard>("Strategy cards") {
+			protected StrategyCard load() throws IOException {
+				return new StrategyCard();
+			}
+
+			protected void loaded(StrategyCard cards) {
+				scMan = cards;
+				next.setEnabled(true);
+			}
+		}.execute();
+		new Loader<Image>("Background image") {
+			protected Image load() throws IOException {
+				return ImageIO.read(new File("DataFiles/BaseballField.jpg"));
+			}
+
+			protected void loaded(Image image) {
+				fieldPanel.setBackgroundImage(image);
+			}
+		}.execute();
+	}
+
+	/**
+	 * Builds and shows the main frame, along with the draft and pool frames
+	 * waiting for the players to load. Nothing here may wait on a file, so
+	 * the main frame is up as soon as Swing can show it.
+	 */
+	private static void showFrames() {
+		mainWindow = createMainFrame(screenSize);
 		mainWindow.setExtendedState(JFrame.MAXIMIZED_BOTH);
-		JFrame draftWindow = createDraftFrame(mainPool);
-		JFrame poolWindow = createListFrame(pool);
-		JFrame lineupWindow = createLineupFrame(pool);
+		draftWindow = createLoadingFrame("Draft", 2000, 1000);
+		poolWindow = createLoadingFrame("Draft Pool", 1000, 1000); // Arbitrary
+		JFrame lineupWindow = createLineupFrame();
 		JMenuBar menuBar = new JMenuBar();
 		JMenu mainMenu = new JMenu("Main");
 		JMenuItem newGame = new JMenuItem("New Game");
@@ -111,6 +174,21 @@ public class MainRunner {
 				poolWindow.setVisible(true);
 			}
 		});
+		JMenuItem simToEnd = new JMenuItem("Sim to End");
+		simToEnd.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				if (!next.getText().equals("Start") && next.isEnabled()) {
+					gameContinue.finishGame();
+				}
+			}
+		});
+		JMenuItem responsiveness = new JMenuItem("Responsiveness");
+		responsiveness.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				JOptionPane.showMessageDialog(mainWindow, edtLatency + "\n" + snapshotDelivery, "Responsiveness",
+						JOptionPane.INFORMATION_MESSAGE);
+			}
+		});
 		JMenuItem exit = new JMenuItem("Exit");
 		exit.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
@@ -120,84 +198,114 @@ public class MainRunner {
 		newGame.setFont(f);
 		load.setFont(f);
 		poolButton.setFont(f);
+		simToEnd.setFont(f);
+		responsiveness.setFont(f);
 		exit.setFont(f);
 		mainMenu.add(newGame);
 		mainMenu.add(load);
 		mainMenu.add(poolButton);
+		mainMenu.add(simToEnd);
+		mainMenu.add(responsiveness);
 		mainMenu.add(exit);
 		mainMenu.setFont(f);
 		menuBar.add(mainMenu);
 		mainWindow.setJMenuBar(menuBar);
+		mainWindow.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowOpened(WindowEvent e) {
+				log("First frame shown, " + ManagementFactory.getRuntimeMXBean().getUptime()
+						+ " ms after the JVM started");
+			}
+		});
 		mainWindow.setVisible(true);
 	}
 
+	/**
+	 * Writes a line to the startup log, stamped with the time since main
+	 * was entered
+	 */
+	private static void log(String message) {
+		System.out.println(String.format("[startup %7.1f ms] ", (System.nanoTime() - startNanos) / 1e6) + message);
+	}
+
+	/**
+	 * Loads something the interface needs on a background thread, then hands
+	 * it over on the event dispatch thread. Each loader runs in parallel with
+	 * the others and logs how long it took.
+	 *
+	 * @param <T>
+	 *            The type of what is loaded
+	 */
+	private static abstract class Loader<T> extends SwingWorker<T, Void> {
+
+		private final String what;
+		private long nanos;
+
+		Loader(String what) {
+			this.what = what;
+		}
+
+		/**
+		 * Loads the data, off the event dispatch thread
+		 */
+		protected abstract T load() throws Exception;
+
+		/**
+		 * Puts the data into the interface, on the event dispatch thread
+		 */
+		protected abstract void loaded(T data);
+
+		@Override
+		protected final T doInBackground() throws Exception {
+			long loadStart = System.nanoTime();
+			try {
+				return load();
+			} finally {
+				nanos = System.nanoTime() - loadStart;
+			}
+		}
+
+		@Override
+		protected final void done() {
+			T data;
+			try {
+				data = get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				log(what + " failed to load: " + e.getCause());
+				JOptionPane.showMessageDialog(mainWindow, what + " failed to load:\n" + e.getCause().getMessage(),
+						"MLB Showdown", JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+			log(what + " loaded in " + String.format("%.1f", nanos / 1e6) + " ms");
+			loaded(data);
+		}
+	}
+
 	/**
 	 * Creates the overall top level container used in the rest of the interface
 	 * Additionally sets up a blank game screen
 	 * 
 	 * @return The JFrame containing the overall base of the interface
 	 */
-	private static JFrame createMainFrame(Map<String, PlayerData> pool, Dimension screenSize, StrategyCard scMan) {	
+	private static JFrame createMainFrame(Dimension screenSize) {
 		JFrame mainWindow = new JFrame("MLB Showdown");
 		mainWindow.setUndecorated(true);
 		JPanel panelHome = new JPanel(new BorderLayout());
 		JPanel panelAway = new JPanel(new BorderLayout());
 		JPanel panelHomeStrat = makeStrategyPanel(teamOne);
 		JPanel panelAwayStrat = makeStrategyPanel(teamTwo);
-		JPanel panelHomeLineup = makeLineupPanel(pool, true);
-		JPanel panelAwayLineup = makeLineupPanel(pool, true);
+		JPanel panelHomeLineup = makeLineupPanel(true);
+		JPanel panelAwayLineup = makeLineupPanel(true);
 		JPanel centerPanel = new JPanel(new BorderLayout());
 		next = new JButton("Start");
 		next.setFont(f);
+		next.setEnabled(scMan != null);
 		start.registerItem(next, "next");
-		JPanel mainPanel = new JPanel() {
-			@Override
-			public void paintComponent(Graphics g) {
-				super.paintComponent(g);
-				int width = this.getWidth();
-				int height = this.getHeight();
-				g.drawImage(background, 0, 0, width, height, this);
-				if (!next.getText().equals("Start")) {
-					g.setColor(Color.BLACK);
-					g.setFont(boldF);
-					GameStat gs = game.getGameStat();
-					for (int i = 0; i < 10; i++) {
-						if (i >= gs.getAwaySpread().size()) {
-							break;
-						}
-						g.drawString(Integer.toString(gs.getAwaySpread().get(i)), (int) (width * (.26875 + i * .05375)), 
-								(int) (height * .18));
-						if (i >= gs.getHomeSpread().size()) {
-							break;
-						}
-						g.drawString(Integer.toString(gs.getHomeSpread().get(i)), (int) (width * (.26875 + i * .05375)), 
-								(int) (height * .2225));
-					}
-					g.drawString(Integer.toString(gs.getOuts()), (int) (width * .6875),
-							(int) (height * .0825));
-					g.drawString(Integer.toString(gs.getAwayRuns()), (int) (width * .825),
-							(int) (height * .18));
-					g.drawString(Integer.toString(gs.getAwayHits()), (int) (width * .89375),
-							(int) (height * .18));
-					g.drawString(Integer.toString(gs.getHomeRuns()), (int) (width * .825),
-							(int) (height * .2225));
-					g.drawString(Integer.toString(gs.getHomeHits()), (int) (width * .89375),
-							(int) (height * .2225));
-					drawPositions(g, .45, .75, 1, width, height);
-					drawPositions(g, .45, .9, 2, width, height);
-					drawPositions(g, .675, .7, 3, width, height);
-					drawPositions(g, .575, .6, 4, width, height);
-					drawPositions(g, .25, .7, 5, width, height);
-					drawPositions(g, .35, .6, 6, width, height);
-					drawPositions(g, .15, .5, 7, width, height);
-					drawPositions(g, .45, .375, 8, width, height);
-					drawPositions(g, .75, .5, 9, width, height);
-					drawRunners(g, .8, .75, 1, width, height);
-					drawRunners(g, .45, .5, 2, width, height);
-					drawRunners(g, .15, .75, 3, width, height);
-				}
-			}
-		};
+		fieldPanel = new FieldPanel(boldF);
+		gameContinue.registerItem(fieldPanel);
 		next.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent e) {
@@ -206,7 +314,6 @@ public class MainRunner {
 				} else {
 					gameContinue.actionPerformed(e);
 				}
-				mainPanel.repaint();
 			}	
 		});
 		JTextArea belowMain = new JTextArea();
@@ -215,14 +322,14 @@ public class MainRunner {
 		mainWindow.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		panelHomeLineup.setPreferredSize(new Dimension(0, (int) (screenSize.height *.7)));
 		panelAwayLineup.setPreferredSize(new Dimension(0, (int) (screenSize.height * .7)));
-		mainPanel.setPreferredSize(new Dimension(0, (int) (screenSize.height * .65)));
+		fieldPanel.setPreferredSize(new Dimension(0, (int) (screenSize.height * .65)));
 		belowMainPane.setPreferredSize(new Dimension(0, (int) (screenSize.height * .25)));
 		belowMain.setFont(f);
 		panelHome.add(panelHomeLineup, BorderLayout.NORTH);
 		panelHome.add(panelHomeStrat, BorderLayout.SOUTH);
 		panelAway.add(panelAwayLineup, BorderLayout.NORTH);
 		panelAway.add(panelAwayStrat, BorderLayout.SOUTH);
-		centerPanel.add(mainPanel, BorderLayout.NORTH);
+		centerPanel.add(fieldPanel, BorderLayout.NORTH);
 		centerPanel.add(belowMainPane, BorderLayout.SOUTH);
 		centerPanel.add(next, BorderLayout.CENTER);
 		mainWindow.add(panelAway, BorderLayout.WEST);
@@ -245,7 +352,9 @@ public class MainRunner {
 				StrategyCard sc = (StrategyCard) cards.getSelectedValue();
 				if (!cards.isSelectionEmpty()) {
 					cardInfo.setText(((StrategyCard) (cards.getSelectedValue())).getDescription());
-					if (!StrategyCard.parsePrecondition(sc.getPre()) && use.getText() != "Discard") {
+					GameSnapshot now = engine == null ? null : engine.getLatest();
+					if ((now == null || !now.isPlayable(sc))
+								&& use.getText() != "Discard") {
 						use.setEnabled(false);
 					} else {
 						use.setEnabled(true);
@@ -268,15 +377,8 @@ public class MainRunner {
 				DefaultListModel<StrategyCard> model = (DefaultListModel<StrategyCard>) cards.getModel();
 				if (!discarding) {
 					StrategyCard s = (StrategyCard) cards.getSelectedValue();
-					String postCon = s.getPost();
-					if (postCon.contains("DI+")) {
-						String[] discard = postCon.split(" ");
-						int discards = -1;
-						for (String d : discard) {
-							if (d.startsWith("DI")) {
-								discards = Character.getNumericValue((d.charAt(d.length() - 1)));
-							}
-						}
+					int discards = s.getDiscards();
+					if (discards > 0) {
 						if (model.getSize() - 1 >= discards) {
 							remaining = discards;
 							discarding = true;
@@ -290,14 +392,22 @@ public class MainRunner {
 					int index = cards.getSelectedIndex();
 					cards.clearSelection();
 					StrategyCard sc = model.remove(index);
-					team.readyUse(sc);
+					engine.run(new Runnable() {
+						public void run() {
+							team.readyUse(sc);
+						}
+					});
 					cards.setModel(model);
 				} else {
 					if (!cards.isSelectionEmpty()) {
 						int index = cards.getSelectedIndex();
 						cards.clearSelection();
 						StrategyCard sc = model.remove(index);
-						team.readyDiscard(sc);
+						engine.run(new Runnable() {
+							public void run() {
+								team.readyDiscard(sc);
+							}
+						});
 						cards.setModel(model);
 						remaining--;
 						if (remaining == 0) {
@@ -320,31 +430,48 @@ public class MainRunner {
 	}
 
 	/**
-	 * Creates the JFrame used to draft 2 separate teams
+	 * Creates an empty JFrame saying the players are still loading, to be
+	 * filled in once they arrive
 	 * 
+	 * @param title
+	 *            The title of the frame
+	 * @param width
+	 *            The width of the frame once filled in
+	 * @param height
+	 *            The height of the frame once filled in
+	 * @return A JFrame with only a loading message in it
+	 */
+	private static JFrame createLoadingFrame(String title, int width, int height) {
+		JFrame frame = new JFrame(title);
+		JLabel loading = new JLabel("Loading players...", SwingConstants.CENTER);
+		loading.setFont(f);
+		frame.add(loading);
+		frame.setSize(width, height);
+		return frame;
+	}
+
+	/**
+	 * Fills in the JFrame used to draft 2 separate teams
+	 * 
+	 * @param draftWindow
+	 *            The frame made by createLoadingFrame
 	 * @param pool
 	 *            The DraftManager for the particular pool of players being used
-	 * @param f
-	 *            The standard font being used across the project
-	 * @return A JFrame composed of all the parts needed to draft players
 	 */
-	private static JFrame createDraftFrame(DraftManager pool) {
-		JFrame draftWindow = new JFrame("Draft");
+	private static void fillDraftFrame(JFrame draftWindow, DraftManager pool) {
 		JTextArea cardInfo = generateCardInfo();
-		JXList poolList = generatePoolList(pool.getPool());
-		poolList.setComparator(new PlayerComparator());
-		poolList.setAutoCreateRowSorter(true);
-		poolList.setSortOrder(SortOrder.ASCENDING);
-		JPanel draftPanel = createDraftPanel(pool.getPool(), cardInfo, poolList);
+		JXList poolList = generatePoolList(pool);
+		JPanel draftPanel = createDraftPanel(pool, true, cardInfo, poolList);
 		JPanel homeTeam = createDraftTeamPanel(pool, teamOne, cardInfo, poolList);
 		JPanel awayTeam = createDraftTeamPanel(pool, teamTwo, cardInfo, poolList);
 		homeTeam.setFont(f);
 		awayTeam.setFont(f);
+		draftWindow.getContentPane().removeAll();
 		draftWindow.add(draftPanel, BorderLayout.CENTER);
 		draftWindow.add(homeTeam, BorderLayout.WEST);
 		draftWindow.add(awayTeam, BorderLayout.EAST);
-		draftWindow.setSize(2000, 1000);
-		return draftWindow;
+		draftWindow.revalidate();
+		draftWindow.repaint();
 	}
 
 	/**
@@ -363,26 +490,25 @@ public class MainRunner {
 	}
 
 	/**
-	 * Creates a JXList of all players in a given Map of players
+	 * Creates an empty JXList for players backed by a PlayerListModel, filled
+	 * in by the search panel made in createDraftPanel
 	 * 
-	 * @param pool	A map of Strings of names to PlayerData of players who have said names
+	 * @param pool	The DraftManager whose index the players are shown from
 	 * @param f	The standard font being used across the project
-	 * @return	A JXList of all players in pool
+	 * @return	An empty JXList for players
 	 */
-	private static JXList generatePoolList(Map<String, PlayerData> pool) {
+	private static JXList generatePoolList(DraftManager pool) {
 		JXList poolList = new JXList();
 		poolList.setSize(500, 500);
-		DefaultListModel<PlayerData> lm = new DefaultListModel<PlayerData>();
-		for (String s : pool.keySet()) {
-			lm.addElement(pool.get(s));
-		}
-		poolList.setModel(lm);
+		poolList.setModel(new PlayerListModel(pool.getIndex()));
 		poolList.setFont(f);
 		return poolList;
 	}
 
-	private static JPanel createDraftPanel(Map<String, PlayerData> pool, JTextArea cardInfo, JXList poolList) {
+	private static JPanel createDraftPanel(DraftManager pool, boolean availableOnly, JTextArea cardInfo,
+			JXList poolList) {
 		JPanel draftPanel = new JPanel(new BorderLayout());
+		draftPanel.add(makeSearchPanel(pool, availableOnly, poolList), BorderLayout.NORTH);
 		poolList.addListSelectionListener(new ListSelectionListener() {
 			public void valueChanged(ListSelectionEvent arg0) {
 				try {
@@ -401,10 +527,9 @@ public class MainRunner {
 
 	private static JPanel createDraftTeamPanel(DraftManager pool, LineupManager myTeam, JTextArea cardInfo,
 			JXList poolList) {
-		Map<String, PlayerData> cloned = pool.getPool();
 		JPanel draftPanel = new JPanel(new BorderLayout());
 		JPanel buttonPanel = new JPanel(new BorderLayout());
-		JXList myTeamStuff = new JXList();
+		JXList myTeamStuff = new JXList(new DefaultListModel<PlayerData>());
 		JFileChooser fileName = new JFileChooser();
 		fileName.setCurrentDirectory(new File(System.getProperty("user.dir")+"/SaveData"));
 		myTeamStuff.setComparator(new PlayerComparator());
@@ -413,7 +538,7 @@ public class MainRunner {
 		myTeamStuff.addListSelectionListener(new ListSelectionListener() {
 			public void valueChanged(ListSelectionEvent arg0) {
 				try {
-					cardInfo.setText(myTeam.getTeam().get(myTeamStuff.getSelectedValue()).getCard());
+					cardInfo.setText(((PlayerData) myTeamStuff.getSelectedValue()).getCard());
 				} catch (Exception e) {
 
 				}
@@ -423,7 +548,7 @@ public class MainRunner {
 		poolScroller.setViewportView(myTeamStuff);
 		JButton draftButton = makeDraftButton(pool, poolList, myTeamStuff, myTeam);
 		JButton otherButton = new JButton("Export Team");
-		otherButton.addActionListener(makeDraftLineupExport(myTeamStuff, cloned, fileName));
+		otherButton.addActionListener(makeDraftLineupExport(myTeamStuff, fileName));
 		otherButton.setFont(f);
 		myTeamStuff.setFont(f);
 		fileName.setFont(f);
@@ -434,23 +559,106 @@ public class MainRunner {
 		return draftPanel;
 	}
 
-	private static JFrame createListFrame(Map<String, PlayerData> pool) {
-		JFrame poolWindow = new JFrame("Draft Pool");
+	/**
+	 * Creates the search bar above a list of players. The list is filled
+	 * from the pool's PlayerIndex straight away and again on every keystroke
+	 * or change of filter.
+	 * 
+	 * @param pool
+	 *            The DraftManager holding the players
+	 * @param availableOnly
+	 *            Whether drafted players are left out of the list
+	 * @param poolList
+	 *            The list the results are shown in
+	 * @return A JPanel with the search fields
+	 */
+	private static JPanel makeSearchPanel(DraftManager pool, boolean availableOnly, JXList poolList) {
+		JPanel searchPanel = new JPanel();
+		JTextField name = new JTextField(15);
+		JComboBox<String> position = new JComboBox<String>();
+		position.addItem("Any");
+		for (Position p : Position.values()) {
+			position.addItem(p.getAbbr());
+		}
+		JTextField maxCost = new JTextField(5);
+		JComboBox<String> sort = new JComboBox<String>();
+		for (PlayerIndex.Order o : PlayerIndex.Order.values()) {
+			sort.addItem(o.name());
+		}
+		sort.addItem("Fielding");
+		Runnable search = new Runnable() {
+			public void run() {
+				PlayerIndex.Query query = pool.getIndex().query().name(name.getText());
+				if (availableOnly) {
+					query.available(pool);
+				}
+				int pos = position.getSelectedIndex() == 0 ? -1
+						: Position.intFromAbbr((String) position.getSelectedItem());
+				if (pos >= 0) {
+					query.plays(pos);
+				}
+				String cost = maxCost.getText().trim();
+				if (isInteger(cost)) {
+					query.cost(0, Integer.parseInt(cost));
+				}
+				if (sort.getSelectedItem().equals("Fielding")) {
+					if (pos >= 0) {
+						query.sortByFielding(pos).descending();
+					}
+				} else {
+					query.sortBy(PlayerIndex.Order.valueOf((String) sort.getSelectedItem()));
+				}
+				((PlayerListModel) poolList.getModel()).setResults(query);
+			}
+		};
+		DocumentListener typed = new DocumentListener() {
+			public void insertUpdate(DocumentEvent e) {
+				search.run();
+			}
+
+			public void removeUpdate(DocumentEvent e) {
+				search.run();
+			}
+
+			public void changedUpdate(DocumentEvent e) {
+				search.run();
+			}
+		};
+		ActionListener picked = new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				search.run();
+			}
+		};
+		name.getDocument().addDocumentListener(typed);
+		maxCost.getDocument().addDocumentListener(typed);
+		position.addActionListener(picked);
+		sort.addActionListener(picked);
+		JLabel nameLabel = new JLabel("Name");
+		JLabel positionLabel = new JLabel("Position");
+		JLabel costLabel = new JLabel("Max Cost");
+		JLabel sortLabel = new JLabel("Sort");
+		for (JComponent c : new JComponent[] { nameLabel, name, positionLabel, position, costLabel, maxCost,
+				sortLabel, sort }) {
+			c.setFont(f);
+			searchPanel.add(c);
+		}
+		search.run();
+		return searchPanel;
+	}
+
+	private static void fillListFrame(JFrame poolWindow, DraftManager pool) {
 		JTextArea cardInfo = generateCardInfo();
 		JXList poolList = generatePoolList(pool);
-		poolList.setComparator(new PlayerComparator());
-		poolList.setAutoCreateRowSorter(true);
-		poolList.setSortOrder(SortOrder.ASCENDING);
-		JPanel draftPanel = createDraftPanel(pool, cardInfo, poolList);
+		JPanel draftPanel = createDraftPanel(pool, false, cardInfo, poolList);
+		poolWindow.getContentPane().removeAll();
 		poolWindow.add(draftPanel);
-		draftPanel.setVisible(true);
-		poolWindow.setSize(1000, 1000); // Arbitrary
-		return poolWindow;
+		poolWindow.revalidate();
+		poolWindow.repaint();
 	}
 
-	private static JFrame createLineupFrame(Map<String, PlayerData> pool) {
+	private static JFrame createLineupFrame() {
 		JFrame mainWindow = new JFrame("Lineup Editor");
-		JPanel panel = makeLineupPanel(pool, false);
+		JPanel panel = makeLineupPanel(false);
 		mainWindow.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 		//mainWindow.setSize((int) (screenSize.getWidth() * .3), (int) (screenSize.getHeight() * .5));
 		mainWindow.add(panel);
@@ -458,33 +666,37 @@ public class MainRunner {
 		return mainWindow;
 	}
 	
-	private static JPanel makeLineupPanel(Map<String, PlayerData> pool, boolean main) {
+	private static JPanel makeLineupPanel(boolean main) {
 		JPanel panel = new JPanel(new BorderLayout());
 		JTable table = makeLineupTable();
 		JTextArea cardInfo = generateCardInfo();
 		table.getSelectionModel().addListSelectionListener(new ListSelectionListener() {
 			public void valueChanged(ListSelectionEvent event) {
 				if (table.getSelectedColumn() == 1) {
-					cardInfo.setText(
-							pool.get(table.getValueAt(table.getSelectedRow(), table.getSelectedColumn())).getCard());
+					cardInfo.setText(((PlayerData) table.getValueAt(table.getSelectedRow(), table.getSelectedColumn()))
+							.getCard());
 				}
 			}
 		});
 		table.setRowHeight(f.getSize());
 		JButton export = new JButton("Export");
 		JButton importer = new JButton("Import");
-		export.addActionListener(makeTableLineupExport(table, pool));
+		export.addActionListener(makeTableLineupExport(table));
 		importer.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent arg0) {
+				if (mainPool == null) {
+					cardInfo.setText("Players are still loading");
+					return;
+				}
 				LineupManager lm = null;
 				JFileChooser fileName = new JFileChooser();
 				fileName.setFont(f);
 				fileName.setCurrentDirectory(new File(System.getProperty("user.dir")+"/SaveData"));
 				int returnValue = fileName.showOpenDialog(null);
 				if (returnValue == JFileChooser.APPROVE_OPTION) {
-					lm = LineupManager.teamImport(fileName.getSelectedFile().getName(), pool);
+					lm = LineupManager.teamImport(fileName.getSelectedFile().getName(), mainPool);
 				}
-				TableModel t = makeLineupTableModel(pool, lm);
+				TableModel t = makeLineupTableModel(lm);
 				table.setModel(t);
 				table.getModel().addTableModelListener(makeLineupEditorListener(table));
 			}
@@ -536,19 +748,19 @@ public class MainRunner {
 		};
 	}
 
-	private static ActionListener makeTableLineupExport(JTable table, Map<String, PlayerData> pool) {
+	private static ActionListener makeTableLineupExport(JTable table) {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
 				LineupManager lm = new LineupManager();
 				for (int i = 0; i < table.getRowCount(); i++) {
-					PlayerData p = (PlayerData) pool.get(table.getValueAt(i, 1));
+					PlayerData p = (PlayerData) table.getValueAt(i, 1);
 					lm.addPlayer(p);
 					if (i < 9) {
-						lm.hitInOrder(p.toString(), i + 1);
+						lm.hitInOrder(p.getHandle(), i + 1);
 					}
 					int f = Position.intFromAbbr((String) table.getValueAt(i, 2));
 					if (f != 10) {
-						lm.playTheField(p.toString(), f);
+						lm.playTheField(p.getHandle(), f);
 					}
 				}
 				JFileChooser fileName = new JFileChooser();
@@ -562,16 +774,15 @@ public class MainRunner {
 		};
 	}
 
-	private static ActionListener makeDraftLineupExport(JXList myTeamStuff, Map<String, PlayerData> cloned,
-			JFileChooser fileName) {
+	private static ActionListener makeDraftLineupExport(JXList myTeamStuff, JFileChooser fileName) {
 		return new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				Map<String, PlayerData> teamPool = new HashMap<String, PlayerData>();
+				List<PlayerData> teamPool = new ArrayList<PlayerData>();
 				int len = myTeamStuff.getModel().getSize();
 				for (int i = 0; i < len; i++) {
-					String s = (String) myTeamStuff.getModel().getElementAt(i);
-					if (s != null) {
-						teamPool.put(s, cloned.get(s));
+					PlayerData p = (PlayerData) myTeamStuff.getModel().getElementAt(i);
+					if (p != null) {
+						teamPool.add(p);
 					}
 				}
 				LineupManager lm = new LineupManager(teamPool);
@@ -591,11 +802,12 @@ public class MainRunner {
 		return table;
 	}
 
-	private static DefaultTableModel makeLineupTableModel(Map<String, PlayerData> pool, LineupManager lm) {
+	private static DefaultTableModel makeLineupTableModel(LineupManager lm) {
 		String[] columns = { "Lineup Position", "Name", "Field Position" };
 		List<Object[]> playersL = new ArrayList<Object[]>();
-		for (String s : lm.getTeam().keySet()) {
-			Object[] player = { lm.playerInLineup(s), s, Position.abbrFromInt(lm.playerInField(s)) };
+		for (PlayerData p : lm.getTeam()) {
+			Object[] player = { lm.playerInLineup(p.getHandle()), p,
+					Position.abbrFromInt(lm.playerInField(p.getHandle())) };
 			playersL.add(player);
 		}
 		playersL.sort(new Comparator<Object[]>() {
@@ -624,13 +836,13 @@ public class MainRunner {
 		JButton draftButton = new JButton("Draft Player");
 		draftButton.addActionListener(new ActionListener() {
 			public void actionPerformed(ActionEvent e) {
-				pool.draftPlayer(myTeam, poolList.getSelectedValue().toString());
-				DefaultListModel<PlayerData> model = (DefaultListModel<PlayerData>) poolList.getModel();
-				model.remove(model.indexOf(poolList.getSelectedValue()));
-				poolList.setModel(model);
-				poolList.setAutoCreateRowSorter(true);
-				poolList.setSortOrder(SortOrder.ASCENDING);
-				myTeamStuff.setListData(myTeam.getTeam().keySet().toArray(new String[25]));
+				PlayerData drafted = (PlayerData) poolList.getSelectedValue();
+				if (drafted == null) {
+					return;
+				}
+				pool.draftPlayer(myTeam, drafted);
+				((PlayerListModel) poolList.getModel()).remove(drafted);
+				((DefaultListModel<PlayerData>) myTeamStuff.getModel()).addElement(drafted);
 			}
 		});
 		draftButton.setFont(f);
@@ -675,24 +887,4 @@ public class MainRunner {
 			table.setValueAt("", row, column);
 		}
 	}
-	
-	private static void drawPositions(Graphics g, double x, double y, int pos, int width, int height) {
-		PlayerData p = game.getDefense().getPlayerAtPosition(pos);
-		String name = p.toString().split(" ")[1];
-		g.drawString(name, (int) (width * x),
-				(int) (height * y));
-		g.drawString(Position.abbrFromInt(pos) + ": " + p.getFielding(pos), (int) (width * x),
-				(int) (height * (y + .025)));
-	}
-	
-	private static void drawRunners(Graphics g, double x, double y, int base, int width, int height) {
-		HitterData p = (HitterData) game.getRunnerOn(base);
-		if (p != null) {
-			String name = p.toString().split(" ")[1];
-			g.drawString(name, (int) (width * x), 
-					(int) (height * y));
-			g.drawString("Speed: " + p.getSpeed(), (int) (width * x),
-					(int) (height * (y + .025)));
-		}
-	}
 }
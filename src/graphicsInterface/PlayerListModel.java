@@ -0,0 +1,166 @@
+package graphicsInterface;
+
+import java.util.Arrays;
+
+import javax.swing.AbstractListModel;
+
+import gameData.PlayerIndex;
+import players.PlayerData;
+
+/**
+ * A ListModel over the results of a PlayerIndex query. The model only holds
+ * the handles of the players shown and looks each one up in the index when
+ * the list asks for it, so a list of thousands of cards costs an int apiece.
+ *
+ * Removing a player, as when they're drafted, is done in O(log n) with a
+ * Fenwick tree counting the rows still shown before each result, and fires an
+ * event for just the removed row. Setting new results fires change events
+ * only for the rows that exist in both, and add or remove events for the rest.
+ *
+ * @author Matthew Bunge
+ */
+
+public class PlayerListModel extends AbstractListModel<PlayerData> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final PlayerIndex index;
+	private int[] handles;
+	private int[] positions; // Result position of each handle, -1 if absent
+	private int[] tree; // Fenwick tree over the results, 1 if still shown
+	private int size;
+
+	/**
+	 * Creates an empty model over an index
+	 *
+	 * @param index
+	 *            The index the players are looked up in
+	 */
+	public PlayerListModel(PlayerIndex index) {
+		this.index = index;
+		this.handles = new int[0];
+		this.positions = new int[0];
+		this.tree = new int[1];
+	}
+
+	/**
+	 * Replaces the players shown with the results of a query
+	 *
+	 * @param query
+	 *            The query giving the players, in the order they're shown
+	 */
+	public void setResults(PlayerIndex.Query query) {
+		setHandles(query.handles());
+	}
+
+	/**
+	 * Replaces the players shown
+	 *
+	 * @param handles
+	 *            The handles of the players, in the order they're shown
+	 */
+	public void setHandles(int[] handles) {
+		int oldSize = size;
+		int max = -1;
+		for (int h : handles) {
+			max = Math.max(max, h);
+		}
+		this.handles = handles.clone();
+		positions = new int[max + 1];
+		Arrays.fill(positions, -1);
+		tree = new int[handles.length + 1];
+		for (int i = 0; i < handles.length; i++) {
+			positions[handles[i]] = i;
+			tree[i + 1]++;
+			int parent = i + 1 + ((i + 1) & -(i + 1));
+			if (parent < tree.length) {
+				tree[parent] += tree[i + 1];
+			}
+		}
+		size = handles.length;
+		int common = Math.min(oldSize, size);
+		if (common > 0) {
+			fireContentsChanged(this, 0, common - 1);
+		}
+		if (oldSize > size) {
+			fireIntervalRemoved(this, size, oldSize - 1);
+		} else if (size > oldSize) {
+			fireIntervalAdded(this, oldSize, size - 1);
+		}
+	}
+
+	/**
+	 * Stops showing a player
+	 *
+	 * @param p
+	 *            The player being removed
+	 * @return true if the player was shown
+	 */
+	public boolean remove(PlayerData p) {
+		int h = p.getHandle();
+		if (h >= positions.length || positions[h] < 0) {
+			return false;
+		}
+		int position = positions[h];
+		positions[h] = -1;
+		int row = shownBefore(position);
+		for (int i = position + 1; i < tree.length; i += i & -i) {
+			tree[i]--;
+		}
+		size--;
+		fireIntervalRemoved(this, row, row);
+		return true;
+	}
+
+	/**
+	 * Gets the row a player is shown at
+	 *
+	 * @param p
+	 *            The player being looked for
+	 * @return The row of the player, -1 if they aren't shown
+	 */
+	public int indexOf(PlayerData p) {
+		int h = p.getHandle();
+		if (h >= positions.length || positions[h] < 0) {
+			return -1;
+		}
+		return shownBefore(positions[h]);
+	}
+
+	/**
+	 * Counts the players still shown before a result position
+	 */
+	private int shownBefore(int position) {
+		int count = 0;
+		for (int i = position; i > 0; i -= i & -i) {
+			count += tree[i];
+		}
+		return count;
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Finds the player in a row by walking down the Fenwick tree to the
+	 * result position with that many players shown before it
+	 */
+	@Override
+	public PlayerData getElementAt(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+		}
+		int position = 0;
+		int remaining = row;
+		for (int step = Integer.highestOneBit(handles.length); step > 0; step >>= 1) {
+			int next = position + step;
+			if (next < tree.length && tree[next] <= remaining) {
+				position = next;
+				remaining -= tree[next];
+			}
+		}
+		return index.get(handles[position]);
+	}
+}
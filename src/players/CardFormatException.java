@@ -0,0 +1,64 @@
+package players;
+
+/**
+ * Thrown when a card file doesn't follow the expected layout. The message
+ * starts with the file, line and column the problem was found at so it can be
+ * found in the file directly.
+ *
+ * @author Matthew Bunge
+ */
+
+public class CardFormatException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String source;
+	private final int line;
+	private final int column;
+
+	/**
+	 * Creates an exception for a problem at a given place in a card file
+	 *
+	 * @param source
+	 *            The name of the file being read
+	 * @param line
+	 *            The line of the problem, starting from 1
+	 * @param column
+	 *            The column of the problem, starting from 1
+	 * @param message
+	 *            What was wrong
+	 */
+	public CardFormatException(String source, int line, int column, String message) {
+		super(source + ":" + line + ":" + column + ": " + message);
+		this.source = source;
+		this.line = line;
+		this.column = column;
+	}
+
+	/**
+	 * Gets the name of the file the problem was found in
+	 *
+	 * @return The name of the file
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * Gets the line the problem was found on
+	 *
+	 * @return The line number, starting from 1
+	 */
+	public int getLine() {
+		return line;
+	}
+
+	/**
+	 * Gets the column the problem was found at
+	 *
+	 * @return The column number, starting from 1
+	 */
+	public int getColumn() {
+		return column;
+	}
+}
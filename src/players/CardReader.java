@@ -0,0 +1,290 @@
+package players;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+/**
+ * Reads the tab separated fields of a card file straight out of its bytes.
+ * Card files hold one record per card spread over several lines, with fields
+ * separated by tabs and padded with trailing spaces. A single tab at the very
+ * start of a line doesn't begin an empty field, which is how the older files
+ * are laid out.
+ *
+ * Fields are read in order with field, intField or rangeField, and nextLine
+ * skips whatever is left of the current line. Numbers and Ranges are parsed
+ * straight from the bytes. Anything malformed is reported as a
+ * CardFormatException giving the file, line and column it was found at.
+ *
+ * The files were written on Windows, so text is decoded as windows-1252.
+ *
+ * @author Matthew Bunge
+ */
+
+public class CardReader {
+
+	private static final Charset CHARSET = Charset.forName("windows-1252");
+
+	private final String source;
+	private final byte[] data;
+	private int pos;
+	private int line;
+	private int lineStart;
+	private int fieldStart;
+
+	/**
+	 * Creates a reader over the contents of a card file
+	 *
+	 * @param f
+	 *            The card file
+	 * @throws FileNotFoundException
+	 *             if the file does not exist
+	 */
+	public CardReader(File f) throws FileNotFoundException {
+		this(f.getPath(), readAll(f));
+	}
+
+	/**
+	 * Creates a reader over card data held in memory
+	 *
+	 * @param source
+	 *            Name of where the data came from, used in error messages
+	 * @param data
+	 *            The bytes of the card file
+	 */
+	public CardReader(String source, byte[] data) {
+		this.source = source;
+		this.data = data;
+		line = 1;
+		startLine();
+	}
+
+	private static byte[] readAll(File f) throws FileNotFoundException {
+		if (!f.isFile()) {
+			throw new FileNotFoundException(f.getPath());
+		}
+		try {
+			return Files.readAllBytes(f.toPath());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to read " + f, e);
+		}
+	}
+
+	/**
+	 * Skips any blank lines and reports whether another record follows
+	 *
+	 * @return true if there is another record, false at the end of the file
+	 */
+	public boolean nextRecord() {
+		while (pos < data.length && blankLine()) {
+			nextLine();
+		}
+		return pos < data.length;
+	}
+
+	/**
+	 * Skips the rest of the current line
+	 */
+	public void nextLine() {
+		while (pos < data.length && data[pos] != '\n') {
+			pos++;
+		}
+		if (pos < data.length) {
+			pos++;
+			line++;
+			startLine();
+		}
+	}
+
+	/**
+	 * Reports whether there is another field on the current line
+	 *
+	 * @return true if the current line has a field left to read
+	 */
+	public boolean hasField() {
+		return pos < data.length && data[pos] != '\n';
+	}
+
+	/**
+	 * Reads the next field on the current line
+	 *
+	 * @param what
+	 *            Description of the field, used if it is missing
+	 * @return The field with surrounding spaces removed
+	 * @throws CardFormatException
+	 *             if the line has no fields left
+	 */
+	public String field(String what) {
+		int end = nextField(what);
+		return new String(data, fieldStart, end - fieldStart, CHARSET);
+	}
+
+	/**
+	 * Skips the next field if it is blank, for records that may or may not
+	 * start with an empty field
+	 */
+	public void skipBlankField() {
+		int i = pos;
+		while (i < data.length && space(data[i])) {
+			i++;
+		}
+		if (i < data.length && data[i] == '\t') {
+			pos = i + 1;
+		}
+	}
+
+	/**
+	 * Skips the next field on the current line, if there is one
+	 */
+	public void skipField() {
+		if (hasField()) {
+			nextField("field");
+		}
+	}
+
+	/**
+	 * Reads the next field on the current line as a whole number
+	 *
+	 * @param what
+	 *            Description of the field, used in error messages
+	 * @return The value of the field
+	 * @throws CardFormatException
+	 *             if the field is missing or not a number
+	 */
+	public int intField(String what) {
+		int end = nextField(what);
+		return parseInt(fieldStart, end, what);
+	}
+
+	/**
+	 * Reads the next field on the current line as a Range, in any of the
+	 * forms "-", "N", "N-", "N-M" or "N+"
+	 *
+	 * @param what
+	 *            Description of the field, used in error messages
+	 * @return The Range described by the field
+	 * @throws CardFormatException
+	 *             if the field is missing or not a Range
+	 */
+	public Range rangeField(String what) {
+		int end = nextField(what);
+		int start = fieldStart;
+		if (end - start == 1 && data[start] == '-') {
+			return Range.of(0, 0);
+		}
+		if (end > start && data[end - 1] == '+') {
+			return Range.of(parseInt(start, end - 1, what), Integer.MAX_VALUE);
+		}
+		int dash = start;
+		while (dash < end && data[dash] != '-') {
+			dash++;
+		}
+		int low = parseInt(start, dash, what);
+		int high = low;
+		if (dash < end - 1) {
+			high = parseInt(dash + 1, end, what);
+			if (high == 0) {
+				high = low;
+			}
+		}
+		return Range.of(low, high);
+	}
+
+	/**
+	 * Creates an exception for a problem with the field last read
+	 *
+	 * @param message
+	 *            What was wrong with the field
+	 * @return The exception, ready to be thrown
+	 */
+	public CardFormatException error(String message) {
+		return new CardFormatException(source, line, fieldStart - lineStart + 1, message);
+	}
+
+	/**
+	 * Gets the line the reader is on
+	 *
+	 * @return The current line, starting from 1
+	 */
+	public int getLine() {
+		return line;
+	}
+
+	/**
+	 * Moves past a single leading tab at the start of a line
+	 */
+	private void startLine() {
+		lineStart = pos;
+		fieldStart = pos;
+		if (pos < data.length && data[pos] == '\t') {
+			pos++;
+		}
+	}
+
+	private boolean blankLine() {
+		for (int i = pos; i < data.length && data[i] != '\n'; i++) {
+			if (!space(data[i]) && data[i] != '\t') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Moves past the next field, leaving its trimmed contents between
+	 * fieldStart and the returned end
+	 */
+	private int nextField(String what) {
+		if (!hasField()) {
+			fieldStart = pos;
+			throw error(pos < data.length ? "Missing " + what : "Unexpected end of file, expected " + what);
+		}
+		int start = pos;
+		while (pos < data.length && data[pos] != '\t' && data[pos] != '\n') {
+			pos++;
+		}
+		int end = pos;
+		if (pos < data.length && data[pos] == '\t') {
+			pos++;
+		}
+		while (start < end && space(data[start])) {
+			start++;
+		}
+		while (end > start && space(data[end - 1])) {
+			end--;
+		}
+		fieldStart = start;
+		return end;
+	}
+
+	private int parseInt(int start, int end, String what) {
+		int i = start;
+		boolean negative = i < end && data[i] == '-';
+		if (negative) {
+			i++;
+		}
+		if (i == end) {
+			throw error("Expected a number for " + what + " but found \"" + text(start, end) + "\"");
+		}
+		int value = 0;
+		for (; i < end; i++) {
+			int digit = data[i] - '0';
+			if (digit < 0 || digit > 9 || value > (Integer.MAX_VALUE - digit) / 10) {
+				throw error("Expected a number for " + what + " but found \"" + text(start, end) + "\"");
+			}
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	private String text(int start, int end) {
+		return new String(data, start, end - start, CHARSET);
+	}
+
+	private static boolean space(byte b) {
+		return b == ' ' || b == '\r';
+	}
+}
@@ -1,7 +1,8 @@
 package players;
 
 import java.util.*;
-import gameData.StrategyCard;
+
+import gameData.Token;
 
 /**
  * Implementation of the Hitter type in MLB Showdown
@@ -11,65 +12,66 @@ import gameData.StrategyCard;
 
 public class HitterData extends PlayerData {
 
-	private Range singlePlus;
-	private Range triple;
+	private static final int SINGLE_PLUS = 7;
+	private static final int TRIPLE = 8;
+	private static final int SLOTS = 9;
+
 	private int speed;
 	private String battingSide;
 
+	/**
+	 * Constructor for a Hitter whose fields are filled in by a PoolSnapshot
+	 */
+	HitterData() {
+	}
+
 	/**
 	 * Main Constructor for a Hitter
 	 * 
 	 * @param input
-	 *            Scanner containing a single line that needs to be parsed to
-	 *            produce the various hitter data points input is assumed to
-	 *            have the tab character and newline character as a delimiter
+	 *            CardReader positioned at the start of a hitter record. The
+	 *            record is read up to the start of the next one.
+	 * @throws CardFormatException
+	 *             if the record is malformed
 	 */
-	public HitterData(Scanner input) {
-		String num = input.next().trim();
-		if (num.isEmpty()) {
-			setNum = Integer.parseInt(input.next().trim());
-		} else {
-			setNum = Integer.parseInt(num);
-		}
-		edition = input.next().trim();
-		name = input.next().trim();
+	public HitterData(CardReader input) {
+		input.skipBlankField();
+		setNum = input.intField("set number");
+		edition = input.field("edition").intern();
+		name = input.field("name");
 		input.nextLine();
-		setTeam = input.next().trim();
-		cost = Integer.parseInt(input.next().trim());
-		year = input.next().trim();
-		baseMod = Integer.parseInt(input.next().trim());
-		speed = parseSpeed(input.next().trim());
-		Arrays.fill(positions, -1);
-		modifyPositions(input.next().trim());
+		setTeam = input.field("team").intern();
+		cost = input.intField("cost");
+		year = input.field("year").intern();
+		baseMod = input.intField("on-base");
+		speed = parseSpeed(input);
+		Arrays.fill(positions, (byte) -1);
+		modifyPositions(input, input.field("position"));
 		input.nextLine();
-		String contested = input.next().trim();
+		String contested = input.field("batting side");
 		if (contested.length() > 1) {
-			modifyPositions(contested);
-			battingSide = input.next().trim();
+			modifyPositions(input, contested);
+			battingSide = input.field("batting side").intern();
 		} else {
-			battingSide = contested;
+			battingSide = contested.intern();
 		}
-		special = new HashSet<String>();
-		if (input.hasNext()) {
-			String[] specials = input.next().trim().split(" ");
-			for (int i = 0; i < specials.length; i++) {
-				special.add(specials[i]);
-			}
+		if (input.hasField()) {
+			readIcons(input);
 		}
 		input.nextLine();
 		input.nextLine();
-		strikeout = Range.parseRange(input.next().trim());
-		groundout = Range.parseRange(input.next().trim());
-		flyout = Range.parseRange(input.next().trim());
-		walk = Range.parseRange(input.next().trim());
-		single = Range.parseRange(input.next().trim());
-		singlePlus = Range.parseRange(input.next().trim());
-		twobase = Range.parseRange(input.next().trim());
-		triple = Range.parseRange(input.next().trim());
-		homer = Range.parseRange(input.next().trim());
-		if (input.hasNextLine()) {
-			input.nextLine();
-		}
+		ranges = new byte[2 * SLOTS];
+		readRange(input, STRIKEOUT, "SO");
+		readRange(input, GROUNDOUT, "GB");
+		readRange(input, FLYOUT, "FB");
+		readRange(input, WALK, "W");
+		readRange(input, SINGLE, "S");
+		readRange(input, SINGLE_PLUS, "S+");
+		readRange(input, DOUBLE, "DB");
+		readRange(input, TRIPLE, "TR");
+		readRange(input, HOMER, "HR");
+		input.nextLine();
+		compileChart();
 	}
 
 	/**
@@ -83,6 +85,8 @@ public class HitterData extends PlayerData {
 	public HitterData(PitcherData p) {
 		name = p.toString();
 		setNum = p.getSetNum();
+		edition = p.getEdition();
+		year = p.getYear();
 		baseMod = Integer.MIN_VALUE;
 		battingSide = p.getHand();
 	}
@@ -95,13 +99,30 @@ public class HitterData extends PlayerData {
 		return (baseMod == Integer.MIN_VALUE);
 	}
 
+	/**
+	 * Fills in the fields only found on a Hitter's card when it is read from a
+	 * PoolSnapshot, then compiles the chart
+	 */
+	void restore(int speed, String battingSide) {
+		this.speed = speed;
+		this.battingSide = battingSide;
+		compileChart();
+	}
+
+	/**
+	 * Returns the number of Range slots on a Hitter's card
+	 */
+	static int slots() {
+		return SLOTS;
+	}
+
 	/**
 	 * Returns the numeric range of a single+ result
 	 * 
 	 * @return the Range resulting in a single+
 	 */
 	public Range getSinglePlus() {
-		return singlePlus;
+		return range(SINGLE_PLUS);
 	}
 
 	/**
@@ -110,7 +131,7 @@ public class HitterData extends PlayerData {
 	 * @return the Range resulting in a triple
 	 */
 	public Range getTriple() {
-		return triple;
+		return range(TRIPLE);
 	}
 
 	/**
@@ -133,32 +154,38 @@ public class HitterData extends PlayerData {
 	}
 
 	/**
-	 * Verifies what result comes from a diceroll and emit the proper outcome to
-	 * the token handler
-	 * 
-	 * @param dice
-	 *            The value of the diceroll being compared against the card
+	 * Compiles the chart including the single+ and triple results only found
+	 * on a Hitter's card
 	 */
-	public void checkCard(int dice) {
-		super.checkCard(dice);
-		if (singlePlus.inRange(dice)) {
-			StrategyCard.emit("1B+");
-		} else if (triple.inRange(dice)) {
-			StrategyCard.emit("3B");
-		}
+	@Override
+	protected void compileChart() {
+		compileChart(new Range[] { getStrikeout(), getGroundout(), getFlyout(), getWalk(), getSingle(), getDouble(),
+				getHomer(), getSinglePlus(), getTriple() },
+				new Token[] { Token.Strikeout, Token.Groundout, Token.Flyout, Token.Walk, Token.Single, Token.Double,
+						Token.Homerun, Token.SinglePlus, Token.Triple });
 	}
 
 	/**
 	 * Parses out positions and fielding values from a passed in string
 	 * 
+	 * @param input The CardReader the string was read from, for errors
 	 * @param s The string representing a player position
 	 */
-	private void modifyPositions(String s) {
-		if (s.equals("DH")) {
+	private void modifyPositions(CardReader input, String s) {
+		// Older sets print "---" for a hitter with no fielding position
+		if (s.equals("DH") || s.equals("---")) {
 			return;
 		}
+		// and sometimes leave off a fielding value of +0
 		String[] split = s.split("\\+");
-		int setVal = Integer.parseInt(split[1]);
+		byte setVal = 0;
+		try {
+			if (split.length > 1) {
+				setVal = Byte.parseByte(split[1]);
+			}
+		} catch (NumberFormatException e) {
+			throw input.error("Expected a position and fielding like \"SS+3\" but found \"" + s + "\"");
+		}
 		switch (split[0]) {
 		case "C":
 			positions[2] = setVal;
@@ -202,11 +229,13 @@ public class HitterData extends PlayerData {
 	 * this method exisiting is that older cards may represent speed as a letter
 	 * rather than a number
 	 * 
-	 * @param speed
-	 *            A string representing the speed, either an int or A,B, or C
+	 * @param input
+	 *            The CardReader positioned at the speed, either an int or A,B,
+	 *            or C
 	 * @return The numeric value of speed
 	 */
-	private int parseSpeed(String speed) {
+	private int parseSpeed(CardReader input) {
+		String speed = input.field("speed");
 		switch (speed) {
 		case "A":
 			return 20;
@@ -215,7 +244,11 @@ public class HitterData extends PlayerData {
 		case "C":
 			return 10;
 		default:
-			return Integer.parseInt(speed);
+			try {
+				return Integer.parseInt(speed);
+			} catch (NumberFormatException e) {
+				throw input.error("Expected a speed but found \"" + speed + "\"");
+			}
 		}
 
 	}
@@ -243,15 +276,15 @@ public class HitterData extends PlayerData {
 			card = card.substring(0, card.lastIndexOf("\t"));
 		}
 		card += "\n";
-		card += "K:\t" + this.strikeout + "\n";
-		card += "GB:\t" + this.groundout + "\n";
-		card += "FB:\t" + this.flyout + "\n";
-		card += "BB:\t" + this.walk + "\n";
-		card += "1B:\t" + this.single + "\n";
-		card += "1B+:\t" + this.singlePlus + "\n";
-		card += "2B:\t" + this.twobase + "\n";
-		card += "3B:\t" + this.triple + "\n";
-		card += "HR:\t" + this.homer + "\n";
+		card += "K:\t" + getStrikeout() + "\n";
+		card += "GB:\t" + getGroundout() + "\n";
+		card += "FB:\t" + getFlyout() + "\n";
+		card += "BB:\t" + getWalk() + "\n";
+		card += "1B:\t" + getSingle() + "\n";
+		card += "1B+:\t" + getSinglePlus() + "\n";
+		card += "2B:\t" + getDouble() + "\n";
+		card += "3B:\t" + getTriple() + "\n";
+		card += "HR:\t" + getHomer() + "\n";
 		return card;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package players;
+
+/**
+ * The award icons printed on MLB Showdown cards. A card's icons are kept as a
+ * bit set over the ordinals of this enum, so new icons must be added at the
+ * end and there can be at most 16 of them.
+ *
+ * @author Matthew Bunge
+ */
+
+public enum Icon {
+	GoldGlove("G"), SilverSlugger("S"), HomerunLeader("HR"), StolenBaseLeader("SB"), MVP("V"), Rookie("R"),
+	RookieOfTheYear("RY"), ReliefPitcher("RP"), StrikeoutLeader("K"), CyYoung("CY"), TwentyWins("20");
+
+	private final String code;
+
+	private Icon(String code) {
+		this.code = code;
+	}
+
+	/**
+	 * Gets the code the icon is written as in the card files
+	 *
+	 * @return The icon's code, like "CY"
+	 */
+	public String getCode() {
+		return code;
+	}
+
+	/**
+	 * Finds the icon written as a given code
+	 *
+	 * @param code
+	 *            The code from a card file
+	 * @return The icon with that code, null if there is none
+	 */
+	public static Icon fromCode(String code) {
+		for (Icon i : values()) {
+			if (i.code.equals(code)) {
+				return i;
+			}
+		}
+		return null;
+	}
+}
@@ -1,70 +1,107 @@
 package players;
 
 import java.util.*;
-import gameData.StrategyCard;
+
+import gameData.Token;
 
 public class PitcherData extends PlayerData {
 
-	private Range popout;
+	private static final int POPOUT = 7;
+	private static final int SLOTS = 8;
+
 	private int innings;
 	private String role;
 	private String hand;
 
+	/**
+	 * Constructor for a Pitcher whose fields are filled in by a PoolSnapshot
+	 */
+	PitcherData() {
+	}
+
 	/**
 	 * Main Constructor for a Pitcher
 	 * 
 	 * @param input
-	 *            Scanner containing a single line that needs to be parsed to
-	 *            produce the various pitcher data points input is assumed to
-	 *            have the tab character and newline character as a delimiter
+	 *            CardReader positioned at the start of a pitcher record. The
+	 *            record is read up to the start of the next one.
+	 * @throws CardFormatException
+	 *             if the record is malformed
 	 */
-	public PitcherData(Scanner input) {
-		Arrays.fill(positions, -1);
+	public PitcherData(CardReader input) {
+		Arrays.fill(positions, (byte) -1);
 		positions[1] = 0;
-		String num = input.next().trim();
-		if (num.isEmpty()) {
-			setNum = Integer.parseInt(input.next().trim());
-		} else {
-			setNum = Integer.parseInt(num);
-		}
-		edition = input.next().trim();
-		name = input.next().trim();
+		input.skipBlankField();
+		setNum = input.intField("set number");
+		edition = input.field("edition").intern();
+		name = input.field("name");
 		input.nextLine();
-		setTeam = input.next().trim();
-		cost = Integer.parseInt(input.next().trim());
-		year = input.next().trim();
-		baseMod = Integer.parseInt(input.next().trim());
-		innings = Integer.parseInt(input.next().trim());
-		role = input.next().trim();
+		setTeam = input.field("team").intern();
+		cost = input.intField("cost");
+		year = input.field("year").intern();
+		baseMod = input.intField("control");
+		innings = input.intField("innings");
+		role = input.field("role").intern();
 		input.nextLine();
-		hand = input.next().trim();
-		special = new HashSet<String>();
-		if (input.hasNext()) {
-			String[] specials = input.next().trim().split(" ");
-			for (int i = 0; i < specials.length; i++) {
-				special.add(specials[i]);
-			}
+		hand = input.field("hand").intern();
+		if (input.hasField()) {
+			readIcons(input);
 		}
 		input.nextLine();
-		if (input.next().trim().equals("SO")) {
-			popout = Range.parseRange("-");
-			input.nextLine();
-		} else {
-			input.nextLine();
-			popout = Range.parseRange(input.next().trim());
-		}
-		strikeout = Range.parseRange(input.next().trim());
-		groundout = Range.parseRange(input.next().trim());
-		flyout = Range.parseRange(input.next().trim());
-		walk = Range.parseRange(input.next().trim());
-		single = Range.parseRange(input.next().trim());
-		input.next();
-		twobase = Range.parseRange(input.next().trim());
-		input.next();
-		homer = Range.parseRange(input.next().trim());
-		if (input.hasNextLine()) {
-			input.nextLine();
+		// Cards without a popout result leave the column out entirely
+		boolean hasPopout = !input.field("result header").equals("SO");
+		input.nextLine();
+		ranges = new byte[2 * SLOTS];
+		if (hasPopout) {
+			readRange(input, POPOUT, "PU");
 		}
+		readRange(input, STRIKEOUT, "SO");
+		readRange(input, GROUNDOUT, "GB");
+		readRange(input, FLYOUT, "FB");
+		readRange(input, WALK, "W");
+		readRange(input, SINGLE, "S");
+		input.skipField();
+		readRange(input, DOUBLE, "DB");
+		input.skipField();
+		readRange(input, HOMER, "HR");
+		input.nextLine();
+		compileChart();
+	}
+
+	/**
+	 * Fills in the fields only found on a Pitcher's card when it is read from
+	 * a PoolSnapshot, then compiles the chart
+	 */
+	void restore(int innings, String role, String hand) {
+		this.innings = innings;
+		this.role = role;
+		this.hand = hand;
+		compileChart();
+	}
+
+	/**
+	 * Returns the number of Range slots on a Pitcher's card
+	 */
+	static int slots() {
+		return SLOTS;
+	}
+
+	/**
+	 * Returns the numeric range of a popout result
+	 * 
+	 * @return the Range resulting in a popout
+	 */
+	public Range getPopout() {
+		return range(POPOUT);
+	}
+
+	/**
+	 * Returns the number of innings a pitcher can throw before tiring
+	 * 
+	 * @return the pitcher's innings
+	 */
+	public int getInnings() {
+		return innings;
 	}
 
 	/**
@@ -86,17 +123,15 @@ public class PitcherData extends PlayerData {
 	}
 
 	/**
-	 * Verifies what result comes from a diceroll and emit the proper outcome to
-	 * the token handler
-	 * 
-	 * @param dice
-	 *            The value of the diceroll being compared against the card
+	 * Compiles the chart including the popout result only found on a
+	 * Pitcher's card
 	 */
-	public void checkCard(int dice) {
-		super.checkCard(dice);
-		if (popout.inRange(dice)) {
-			StrategyCard.emit("PU");
-		}
+	@Override
+	protected void compileChart() {
+		compileChart(new Range[] { getStrikeout(), getGroundout(), getFlyout(), getWalk(), getSingle(), getDouble(),
+				getHomer(), getPopout() },
+				new Token[] { Token.Strikeout, Token.Groundout, Token.Flyout, Token.Walk, Token.Single, Token.Double,
+						Token.Homerun, Token.Popout });
 	}
 
 	// Will probably need to find a new way to track innings pitched so far
@@ -130,14 +165,14 @@ public class PitcherData extends PlayerData {
 		card += "Throws:\t" + this.hand + "\n";
 		card += "Innings:\t" + this.innings + "\n";
 		card += "Positions:\tPitcher\n\n";
-		card += "PU:\t" + this.popout + "\n";
-		card += "K:\t" + this.strikeout + "\n";
-		card += "GB:\t" + this.groundout + "\n";
-		card += "FB:\t" + this.flyout + "\n";
-		card += "BB:\t" + this.walk + "\n";
-		card += "1B:\t" + this.single + "\n";
-		card += "2B:\t" + this.twobase + "\n";
-		card += "HR:\t" + this.homer + "\n";
+		card += "PU:\t" + getPopout() + "\n";
+		card += "K:\t" + getStrikeout() + "\n";
+		card += "GB:\t" + getGroundout() + "\n";
+		card += "FB:\t" + getFlyout() + "\n";
+		card += "BB:\t" + getWalk() + "\n";
+		card += "1B:\t" + getSingle() + "\n";
+		card += "2B:\t" + getDouble() + "\n";
+		card += "HR:\t" + getHomer() + "\n";
 		return card;
 
 	}
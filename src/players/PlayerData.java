@@ -1,8 +1,9 @@
 package players;
 
-import java.util.Set;
+import java.util.EnumSet;
 
-import gameData.StrategyCard;
+import gameData.GameLog;
+import gameData.Token;
 
 /**
  * PlayerData is the representation of player data common to both pitchers and
@@ -12,6 +13,12 @@ import gameData.StrategyCard;
  * actual classes that should be used for the creation of Hitters and Pitchers
  * respectively.
  * 
+ * Cards are stored packed, since a pool of every season holds thousands of
+ * them. Each result Range is kept as a pair of bytes in the ranges array,
+ * indexed by the slot constants, with 0xFF as the high byte of an open ended
+ * "N+" Range. The getters hand back shared Range instances from Range.of.
+ * Fielding values are bytes and the card's icons are a bit set over Icon.
+ * 
  * @author Matthew Bunge
  */
 
@@ -23,17 +30,23 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	protected String setTeam;
 	protected String year;
 	protected int cost;
-	protected Set<String> special;
-	protected Range strikeout;
-	protected Range groundout;
-	protected Range flyout;
-	protected Range walk;
-	protected Range single;
-	protected Range twobase;
-	protected Range homer;
-	protected int[] positions = new int[10]; // Follow scorecard format, 1=P,
+	protected short icons; // Bit per Icon ordinal
+	protected byte[] ranges; // Low and high byte for each slot
+	protected byte[] positions = new byte[10]; // Follow scorecard format, 1=P,
 												// 2=C, 3=1B, etc, 0=DH
 	protected int baseMod; // On-Base/Control
+	protected Token[] chart; // Result of each roll, see compileChart
+	private PlayerId id;
+	private int handle = -1;
+
+	protected static final int STRIKEOUT = 0;
+	protected static final int GROUNDOUT = 1;
+	protected static final int FLYOUT = 2;
+	protected static final int WALK = 3;
+	protected static final int SINGLE = 4;
+	protected static final int DOUBLE = 5;
+	protected static final int HOMER = 6;
+	protected static final int OPEN_ENDED = 0xFF;
 
 	/**
 	 * Returns the value of the base at-bat/pitching value of a given player
@@ -44,6 +57,15 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 		return baseMod;
 	}
 
+	/**
+	 * Returns the point cost of the player in a draft
+	 * 
+	 * @return The cost printed on the card
+	 */
+	public int getCost() {
+		return cost;
+	}
+
 	/**
 	 * Returns the number of the card in its respective release set
 	 * 
@@ -53,13 +75,56 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 		return setNum;
 	}
 
+	/**
+	 * Returns the year of the card's set
+	 * 
+	 * @return The year as printed on the card, like "'04"
+	 */
+	public String getYear() {
+		return year;
+	}
+
+	/**
+	 * Returns the edition of the card's set
+	 * 
+	 * @return The edition of the card, like "UL"
+	 */
+	public String getEdition() {
+		return edition;
+	}
+
+	/**
+	 * Returns the identity of the card, which unlike the player's name is
+	 * unique across every season
+	 * 
+	 * @return The PlayerId of the card
+	 */
+	public PlayerId getId() {
+		if (id == null) {
+			id = new PlayerId(year, edition, setNum);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the interned handle of the card, see PlayerId
+	 * 
+	 * @return The handle of the card, usable as an array index
+	 */
+	public int getHandle() {
+		if (handle < 0) {
+			handle = getId().intern();
+		}
+		return handle;
+	}
+
 	/**
 	 * Returns the numeric range of a strikeout result
 	 * 
 	 * @return the Range resulting in a strikeout
 	 */
 	public Range getStrikeout() {
-		return strikeout;
+		return range(STRIKEOUT);
 	}
 
 	/**
@@ -68,7 +133,7 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 * @return the Range resulting in a groundout
 	 */
 	public Range getGroundout() {
-		return groundout;
+		return range(GROUNDOUT);
 	}
 
 	/**
@@ -77,7 +142,7 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 * @return the Range resulting in a flyout
 	 */
 	public Range getFlyout() {
-		return flyout;
+		return range(FLYOUT);
 	}
 
 	/**
@@ -86,7 +151,7 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 * @return the Range resulting in a walk
 	 */
 	public Range getWalk() {
-		return walk;
+		return range(WALK);
 	}
 
 	/**
@@ -95,7 +160,7 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 * @return the Range resulting in a single
 	 */
 	public Range getSingle() {
-		return single;
+		return range(SINGLE);
 	}
 
 	/**
@@ -104,7 +169,7 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 * @return the Range resulting in a double
 	 */
 	public Range getDouble() {
-		return twobase;
+		return range(DOUBLE);
 	}
 
 	/**
@@ -113,7 +178,123 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 * @return the Range resulting in a homerun
 	 */
 	public Range getHomer() {
-		return homer;
+		return range(HOMER);
+	}
+
+	/**
+	 * Returns the card's icons
+	 * 
+	 * @return A new set of the icons printed on the card
+	 */
+	public EnumSet<Icon> getIcons() {
+		EnumSet<Icon> set = EnumSet.noneOf(Icon.class);
+		for (Icon i : Icon.values()) {
+			if (hasIcon(i)) {
+				set.add(i);
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Checks whether the card has a given icon
+	 * 
+	 * @param i
+	 *            The icon being checked
+	 * @return true if the icon is printed on the card
+	 */
+	public boolean hasIcon(Icon i) {
+		return (icons & (1 << i.ordinal())) != 0;
+	}
+
+	/**
+	 * Returns the team printed on the card
+	 * 
+	 * @return The team the player's card was made for
+	 */
+	public String getTeam() {
+		return setTeam;
+	}
+
+	/**
+	 * Returns the Range stored in a slot of the packed ranges
+	 * 
+	 * @param slot
+	 *            The slot of the result, like STRIKEOUT
+	 * @return The shared Range instance for the slot, null if the card has no
+	 *         results
+	 */
+	protected final Range range(int slot) {
+		if (ranges == null) {
+			return null;
+		}
+		int high = ranges[2 * slot + 1] & 0xFF;
+		return Range.of(ranges[2 * slot] & 0xFF, high == OPEN_ENDED ? Integer.MAX_VALUE : high);
+	}
+
+	/**
+	 * Packs a Range into a slot of the ranges. Doesn't recompile the chart.
+	 * 
+	 * @param slot
+	 *            The slot of the result, like STRIKEOUT
+	 * @param r
+	 *            The Range being stored
+	 * @throws IllegalArgumentException
+	 *             if the Range has an end that doesn't fit in a byte
+	 */
+	protected final void setRange(int slot, Range r) {
+		int high = r.getHigh() == Integer.MAX_VALUE ? OPEN_ENDED : r.getHigh();
+		if (r.getLow() < 0 || r.getLow() >= OPEN_ENDED || high < 0 || high > OPEN_ENDED) {
+			throw new IllegalArgumentException("Range out of bounds for a card: " + r);
+		}
+		ranges[2 * slot] = (byte) r.getLow();
+		ranges[2 * slot + 1] = (byte) high;
+	}
+
+	/**
+	 * Reads a Range field from a card file into a slot of the ranges
+	 * 
+	 * @param input
+	 *            The CardReader positioned at the Range
+	 * @param slot
+	 *            The slot of the result, like STRIKEOUT
+	 * @param what
+	 *            Description of the field, used in error messages
+	 * @throws CardFormatException
+	 *             if the field isn't a Range that fits on a card
+	 */
+	protected final void readRange(CardReader input, int slot, String what) {
+		try {
+			setRange(slot, input.rangeField(what));
+		} catch (IllegalArgumentException e) {
+			if (e instanceof CardFormatException) {
+				throw e;
+			}
+			throw input.error(e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads the icons field of a card file, a list of icon codes separated by
+	 * commas or spaces
+	 * 
+	 * @param input
+	 *            The CardReader positioned at the icons
+	 * @throws CardFormatException
+	 *             if there is an unknown icon
+	 */
+	protected final void readIcons(CardReader input) {
+		String field = input.field("specials");
+		for (String code : field.split("[, ]+")) {
+			if (code.isEmpty()) {
+				continue;
+			}
+			Icon i = Icon.fromCode(code);
+			if (i == null) {
+				throw input.error("Unknown icon \"" + code + "\"");
+			}
+			icons |= 1 << i.ordinal();
+		}
 	}
 
 	/**
@@ -133,7 +314,8 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 *            The player's new strikeout range
 	 */
 	protected void setStrikeout(Range r) {
-		strikeout = r;
+		setRange(STRIKEOUT, r);
+		compileChart();
 	}
 
 	/**
@@ -143,7 +325,8 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 *            The player's new groundout range
 	 */
 	protected void setGroundout(Range r) {
-		groundout = r;
+		setRange(GROUNDOUT, r);
+		compileChart();
 	}
 
 	/**
@@ -153,7 +336,8 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 *            The player's new flyout range
 	 */
 	protected void setFlyout(Range r) {
-		flyout = r;
+		setRange(FLYOUT, r);
+		compileChart();
 	}
 
 	/**
@@ -163,7 +347,8 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 *            The player's new walk range
 	 */
 	protected void setWalk(Range r) {
-		walk = r;
+		setRange(WALK, r);
+		compileChart();
 	}
 
 	/**
@@ -173,7 +358,8 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 *            The player's new single range
 	 */
 	protected void setSingle(Range r) {
-		single = r;
+		setRange(SINGLE, r);
+		compileChart();
 	}
 
 	/**
@@ -183,7 +369,8 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 *            The player's new double range
 	 */
 	protected void setDouble(Range r) {
-		twobase = r;
+		setRange(DOUBLE, r);
+		compileChart();
 	}
 
 	/**
@@ -193,7 +380,8 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 *            The player's new homer range
 	 */
 	protected void setHomer(Range r) {
-		homer = r;
+		setRange(HOMER, r);
+		compileChart();
 	}
 
 	/**
@@ -205,7 +393,7 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 *            The position whose fielding value is being adjusted
 	 */
 	protected void setPosition(int val, int index) {
-		positions[index] = val;
+		positions[index] = (byte) val;
 	}
 
 	/**
@@ -237,9 +425,9 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 *         otherwise
 	 */
 	public boolean playsPosition(int i) {
-		// All positions are valid as DH's other than Pitchers
-		if (i == 0 && positions[1] == 0) {
-			return true;
+		// Anyone but a pitcher can be the DH
+		if (i == 0) {
+			return !isPitcher();
 		}
 		return positions[i] >= 0;
 	}
@@ -284,25 +472,74 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	 * 
 	 * @param dice
 	 *            The value of the diceroll being compared against the card
+	 * @param log
+	 *            The GameLog of the game the result is emitted to
 	 */
-	protected void checkCard(int dice) {
-		if (strikeout.inRange(dice)) {
-			StrategyCard.emit("SO");
-		} else if (groundout.inRange(dice)) {
-			StrategyCard.emit("GO");
-		} else if (flyout.inRange(dice)) {
-			StrategyCard.emit("FO");
-		} else if (walk.inRange(dice)) {
-			StrategyCard.emit("BB");
-		} else if (single.inRange(dice)) {
-			StrategyCard.emit("1B");
-		} else if (twobase.inRange(dice)) {
-			StrategyCard.emit("2B");
-		} else if (homer.inRange(dice)) {
-			StrategyCard.emit("HR");
+	public void checkCard(int dice, GameLog log) {
+		Token result = getResult(dice);
+		if (result != null) {
+			log.emit(result);
 		}
 	}
 
+	/**
+	 * Looks up the result of a diceroll on the compiled chart. Rolls below 1
+	 * count as a 1, and rolls past the top of the chart count as the highest
+	 * result on the card, which also covers the open ended "N+" ranges.
+	 * 
+	 * @param dice
+	 *            The value of the diceroll being compared against the card
+	 * @return The token of the result, null if no range covers the roll
+	 */
+	public Token getResult(int dice) {
+		if (dice < 1) {
+			dice = 1;
+		} else if (dice >= chart.length) {
+			dice = chart.length - 1;
+		}
+		return chart[dice];
+	}
+
+	/**
+	 * Compiles the card's Ranges into a chart indexed by the value of the
+	 * diceroll, so looking up a result doesn't have to check every Range.
+	 * Must be called again whenever one of the Ranges changes.
+	 */
+	protected void compileChart() {
+		compileChart(new Range[] { getStrikeout(), getGroundout(), getFlyout(), getWalk(), getSingle(), getDouble(),
+				getHomer() },
+				new Token[] { Token.Strikeout, Token.Groundout, Token.Flyout, Token.Walk, Token.Single, Token.Double,
+						Token.Homerun });
+	}
+
+	/**
+	 * Compiles a chart from Ranges and the results they produce. Where Ranges
+	 * overlap, the one earliest in the array wins.
+	 * 
+	 * @param ranges
+	 *            The Ranges on the card in the order they're checked
+	 * @param results
+	 *            The token emitted for each of the Ranges
+	 */
+	protected final void compileChart(Range[] ranges, Token[] results) {
+		int top = 1;
+		for (Range r : ranges) {
+			if (r != null && r.getLow() > 0) {
+				top = Math.max(top, r.getHigh() == Integer.MAX_VALUE ? r.getLow() : r.getHigh());
+			}
+		}
+		Token[] compiled = new Token[top + 1];
+		for (int roll = 1; roll <= top; roll++) {
+			for (int i = 0; i < ranges.length; i++) {
+				if (ranges[i] != null && ranges[i].inRange(roll)) {
+					compiled[roll] = results[i];
+					break;
+				}
+			}
+		}
+		chart = compiled;
+	}
+
 	/**
 	 * Returns a string representation to be printed on the final GUI. Should be
 	 * overwritten by a child class.
@@ -320,17 +557,22 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 	public abstract boolean isPitcher();
 
 	/**
-	 * Comapres two PlayerDats based on their Set Numbers
+	 * Comapres two PlayerDats based on their Set Numbers, cards from different
+	 * sets with the same number are ordered by their PlayerId
 	 */
 	public int compareTo(PlayerData p) {
-		return this.setNum - p.setNum;
+		int c = this.setNum - p.setNum;
+		if (c == 0) {
+			c = getId().compareTo(p.getId());
+		}
+		return c;
 	}
 
 	@Override
 	// Format used in Effective Java
 	/**
 	 * Overrides the generic Equals method Two PlayerDatas are equal if they
-	 * have the same set number and the same name
+	 * are the same card, having the same PlayerId
 	 */
 	public boolean equals(Object o) {
 		if (o == this)
@@ -341,6 +583,14 @@ public abstract class PlayerData implements Comparable<PlayerData> {
 
 		PlayerData p = (PlayerData) o;
 
-		return p.getSetNum() == setNum && p.toString().equals(name);
+		return p.getHandle() == getHandle();
+	}
+
+	/**
+	 * Hashes the card by its handle, consistent with equals
+	 */
+	@Override
+	public int hashCode() {
+		return getHandle();
 	}
 }
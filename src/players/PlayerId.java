@@ -0,0 +1,194 @@
+package players;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The identity of a single card: the year of the set, its edition and the
+ * card's number in that set. Names aren't enough to tell cards apart, the
+ * same player has a card in most seasons, so anything that needs to find a
+ * card again should hold on to its PlayerId.
+ *
+ * Every PlayerId can be interned to a handle, a small int unique to the card
+ * for the life of the program. Handles are given out densely from 0 so they
+ * can be used to index arrays of players directly. They depend on the order
+ * cards are loaded in, so they should never be saved; save the PlayerId
+ * instead.
+ *
+ * @author Matthew Bunge
+ */
+
+public final class PlayerId implements Comparable<PlayerId> {
+
+	private static final Map<PlayerId, Integer> handles = new HashMap<PlayerId, Integer>();
+	private static final List<PlayerId> byHandle = new ArrayList<PlayerId>();
+
+	private final String year;
+	private final String edition;
+	private final int setNum;
+
+	/**
+	 * Creates the id of a card
+	 *
+	 * @param year
+	 *            The year of the set, as printed on the card ("'04")
+	 * @param edition
+	 *            The edition of the set ("UL", "1st")
+	 * @param setNum
+	 *            The number of the card in its set
+	 */
+	public PlayerId(String year, String edition, int setNum) {
+		this.year = year == null ? "" : year;
+		this.edition = edition == null ? "" : edition;
+		this.setNum = setNum;
+	}
+
+	/**
+	 * Reads an id back from the form given by toString
+	 *
+	 * @param s
+	 *            The id in the form "'04 UL 123"
+	 * @return The PlayerId described by s
+	 * @throws IllegalArgumentException
+	 *             if s isn't in that form
+	 */
+	public static PlayerId parse(String s) {
+		String[] parts = s.trim().split(" ");
+		if (parts.length != 3) {
+			throw new IllegalArgumentException("Not a player id: \"" + s + "\"");
+		}
+		try {
+			return new PlayerId(parts[0], parts[1], Integer.parseInt(parts[2]));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Not a player id: \"" + s + "\"", e);
+		}
+	}
+
+	/**
+	 * Gets the handle of this id, giving it the next free handle if it
+	 * doesn't have one yet
+	 *
+	 * @return The handle of the card
+	 */
+	public int intern() {
+		synchronized (handles) {
+			Integer handle = handles.get(this);
+			if (handle == null) {
+				handle = byHandle.size();
+				handles.put(this, handle);
+				byHandle.add(this);
+			}
+			return handle;
+		}
+	}
+
+	/**
+	 * Gets the handle of an id without giving out a new one
+	 *
+	 * @param id
+	 *            The id being looked up
+	 * @return The handle of the card, -1 if no card with this id has been
+	 *         interned
+	 */
+	public static int handleOf(PlayerId id) {
+		synchronized (handles) {
+			Integer handle = handles.get(id);
+			return handle == null ? -1 : handle;
+		}
+	}
+
+	/**
+	 * Gets the id a handle was given to
+	 *
+	 * @param handle
+	 *            The handle of a card
+	 * @return The id of the card
+	 * @throws IndexOutOfBoundsException
+	 *             if the handle hasn't been given out
+	 */
+	public static PlayerId fromHandle(int handle) {
+		synchronized (handles) {
+			return byHandle.get(handle);
+		}
+	}
+
+	/**
+	 * Gets the number of handles given out so far, one more than the highest
+	 * handle
+	 *
+	 * @return The number of interned ids
+	 */
+	public static int handleCount() {
+		synchronized (handles) {
+			return byHandle.size();
+		}
+	}
+
+	/**
+	 * Gets the year of the card's set
+	 *
+	 * @return The year as printed on the card
+	 */
+	public String getYear() {
+		return year;
+	}
+
+	/**
+	 * Gets the edition of the card's set
+	 *
+	 * @return The edition
+	 */
+	public String getEdition() {
+		return edition;
+	}
+
+	/**
+	 * Gets the number of the card in its set
+	 *
+	 * @return The set number
+	 */
+	public int getSetNum() {
+		return setNum;
+	}
+
+	/**
+	 * Orders ids by year, then edition, then set number
+	 */
+	@Override
+	public int compareTo(PlayerId o) {
+		int c = year.compareTo(o.year);
+		if (c == 0) {
+			c = edition.compareTo(o.edition);
+		}
+		if (c == 0) {
+			c = Integer.compare(setNum, o.setNum);
+		}
+		return c;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (!(o instanceof PlayerId)) {
+			return false;
+		}
+		PlayerId p = (PlayerId) o;
+		return p.setNum == setNum && p.year.equals(year) && p.edition.equals(edition);
+	}
+
+	@Override
+	public int hashCode() {
+		return (year.hashCode() * 31 + edition.hashCode()) * 31 + setNum;
+	}
+
+	/**
+	 * Returns the id in the form "'04 UL 123", which parse reads back
+	 */
+	@Override
+	public String toString() {
+		return year + " " + edition + " " + setNum;
+	}
+}
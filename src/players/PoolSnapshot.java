@@ -0,0 +1,253 @@
+package players;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes a binary snapshot of a parsed player pool, so the pool can
+ * be loaded at startup without running the text parser over every card.
+ *
+ * A snapshot starts with a header holding a magic number, the format version
+ * and the size and modification time of each text file it was made from, which
+ * is how a stale snapshot is recognised. A table of every distinct string
+ * follows, then one fixed width record per player that refers to its strings
+ * by their index in the table. Ranges, fielding and icons are stored exactly
+ * as a PlayerData packs them in memory. Snapshots are read through a memory mapped
+ * FileChannel.
+ *
+ * @author Matthew Bunge
+ */
+
+public final class PoolSnapshot {
+
+	/**
+	 * Version of the snapshot format, snapshots of any other version are
+	 * treated as stale
+	 */
+	public static final int VERSION = 2;
+
+	private static final int MAGIC = 0x4D4C4253; // "MLBS"
+	private static final int RANGES = 9;
+	private static final int RECORD_SIZE = 1 + 3 * 4 + 8 * 4 + 10 + 2 * RANGES;
+	private static final byte HITTER = 0;
+	private static final byte PITCHER = 1;
+	private static final int NONE = -1;
+
+	private PoolSnapshot() {
+	}
+
+	/**
+	 * Writes a snapshot of a collection of players. The snapshot is written to
+	 * a temporary file first and moved into place once complete, so a reader
+	 * never sees half a snapshot.
+	 *
+	 * @param players
+	 *            The players parsed from the source files
+	 * @param snapshot
+	 *            The file the snapshot is written to
+	 * @param sources
+	 *            The text files the players were parsed from
+	 * @throws IOException
+	 *             if the snapshot can't be written
+	 */
+	public static void write(Collection<PlayerData> players, File snapshot, File... sources) throws IOException {
+		List<String> strings = new ArrayList<String>();
+		Map<String, Integer> indices = new HashMap<String, Integer>();
+		File temp = new File(snapshot.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(sources.length);
+			for (File source : sources) {
+				writeString(out, source.getPath());
+				out.writeLong(source.length());
+				out.writeLong(source.lastModified());
+			}
+			ByteBuffer records = ByteBuffer.allocate(players.size() * RECORD_SIZE);
+			for (PlayerData p : players) {
+				writeRecord(records, p, strings, indices);
+			}
+			out.writeInt(strings.size());
+			for (String s : strings) {
+				writeString(out, s);
+			}
+			out.writeInt(players.size());
+			out.writeInt(RECORD_SIZE);
+			out.write(records.array());
+		}
+		try {
+			Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Reads the players from a snapshot, provided it is still current
+	 *
+	 * @param snapshot
+	 *            The snapshot file
+	 * @param sources
+	 *            The text files the pool should be made from
+	 * @return The players in the snapshot, or null if there is no snapshot or
+	 *         it is stale, IE of another version or made from different
+	 *         source files
+	 * @throws IOException
+	 *             if the snapshot can't be read or is corrupt
+	 */
+	public static List<PlayerData> read(File snapshot, File... sources) throws IOException {
+		if (!snapshot.isFile()) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+			MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (in.getInt() != MAGIC) {
+				throw new IOException(snapshot + " is not a pool snapshot");
+			}
+			if (in.getInt() != VERSION || !current(in, sources)) {
+				return null;
+			}
+			String[] strings = new String[in.getInt()];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = readString(in);
+			}
+			int count = in.getInt();
+			if (in.getInt() != RECORD_SIZE || in.remaining() != count * RECORD_SIZE) {
+				throw new IOException(snapshot + " has malformed player records");
+			}
+			List<PlayerData> players = new ArrayList<PlayerData>(count);
+			for (int i = 0; i < count; i++) {
+				players.add(readRecord(in, strings));
+			}
+			return players;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new IOException(snapshot + " is truncated or corrupt", e);
+		}
+	}
+
+	/**
+	 * Checks the sources recorded in a snapshot's header against the files as
+	 * they are now
+	 */
+	private static boolean current(ByteBuffer in, File[] sources) {
+		if (in.getInt() != sources.length) {
+			return false;
+		}
+		for (File source : sources) {
+			if (!readString(in).equals(source.getPath()) || in.getLong() != source.length()
+					|| in.getLong() != source.lastModified()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void writeRecord(ByteBuffer out, PlayerData p, List<String> strings,
+			Map<String, Integer> indices) {
+		out.put(p instanceof PitcherData ? PITCHER : HITTER);
+		out.putInt(p.setNum);
+		out.putInt(p.cost);
+		out.putInt(p.baseMod);
+		out.putInt(intern(p.name, strings, indices));
+		out.putInt(intern(p.edition, strings, indices));
+		out.putInt(intern(p.setTeam, strings, indices));
+		out.putInt(intern(p.year, strings, indices));
+		out.putInt(p.icons);
+		if (p instanceof PitcherData) {
+			PitcherData pitcher = (PitcherData) p;
+			out.putInt(pitcher.getInnings());
+			out.putInt(intern(pitcher.getRole(), strings, indices));
+			out.putInt(intern(pitcher.getHand(), strings, indices));
+		} else {
+			HitterData hitter = (HitterData) p;
+			out.putInt(hitter.getSpeed());
+			out.putInt(intern(hitter.getBattingSide(), strings, indices));
+			out.putInt(NONE);
+		}
+		out.put(p.positions);
+		out.put(Arrays.copyOf(p.ranges, 2 * RANGES));
+	}
+
+	private static PlayerData readRecord(ByteBuffer in, String[] strings) throws IOException {
+		byte type = in.get();
+		PlayerData p;
+		if (type == HITTER) {
+			p = new HitterData();
+		} else if (type == PITCHER) {
+			p = new PitcherData();
+		} else {
+			throw new IOException("Unknown player type " + type);
+		}
+		p.setNum = in.getInt();
+		p.cost = in.getInt();
+		p.baseMod = in.getInt();
+		p.name = string(in.getInt(), strings);
+		p.edition = string(in.getInt(), strings);
+		p.setTeam = string(in.getInt(), strings);
+		p.year = string(in.getInt(), strings);
+		p.icons = (short) in.getInt();
+		int attribute = in.getInt();
+		String side = string(in.getInt(), strings);
+		String hand = string(in.getInt(), strings);
+		in.get(p.positions);
+		byte[] ranges = new byte[2 * RANGES];
+		in.get(ranges);
+		if (type == PITCHER) {
+			p.ranges = Arrays.copyOf(ranges, 2 * PitcherData.slots());
+			((PitcherData) p).restore(attribute, side, hand);
+		} else {
+			p.ranges = Arrays.copyOf(ranges, 2 * HitterData.slots());
+			((HitterData) p).restore(attribute, side);
+		}
+		return p;
+	}
+
+	private static int intern(String s, List<String> strings, Map<String, Integer> indices) {
+		if (s == null) {
+			return NONE;
+		}
+		Integer index = indices.get(s);
+		if (index == null) {
+			index = strings.size();
+			strings.add(s);
+			indices.put(s, index);
+		}
+		return index;
+	}
+
+	private static String string(int index, String[] strings) {
+		return index == NONE ? null : strings[index];
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
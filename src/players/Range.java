@@ -6,13 +6,28 @@ package players;
  * this class exists to expedite the process of generating those results and simplifying
  * the construction of virtual player card result boxes.* 
  * 
+ * Ranges are immutable, so the small ones every card uses are shared: Range.of
+ * hands back the same instance for the same low and high.
+ * 
  * @author Matthew Bunge
  */
 
 public class Range {
    
-   private int low;
-   private int high;
+   private static final int SHARED = 32;
+   private static final Range[][] shared = new Range[SHARED][SHARED + 1];
+   
+   static {
+      for (int low = 0; low < SHARED; low++) {
+         for (int high = 0; high < SHARED; high++) {
+            shared[low][high] = new Range(low, high);
+         }
+         shared[low][SHARED] = new Range(low, Integer.MAX_VALUE);
+      }
+   }
+   
+   private final int low;
+   private final int high;
    
    /**
     * Constructor.
@@ -27,6 +42,26 @@ public class Range {
       this.high = high;
    }
    
+   /**
+    * Gets a Range, sharing a single instance between every caller asking for
+    * the same small Range
+    * 
+    * @param 	low		the lowest number that will produce a result
+    * @param 	high	the highest number that will produce a result,
+    * 					Integer.MAX_VALUE for an open ended "N+" Range
+    * @return	a Range from low to high
+    */
+   public static Range of(int low, int high) {
+      if (low >= 0 && low < SHARED) {
+         if (high == Integer.MAX_VALUE) {
+            return shared[low][SHARED];
+         } else if (high >= 0 && high < SHARED) {
+            return shared[low][high];
+         }
+      }
+      return new Range(low, high);
+   }
+   
    /**
     * Verifies whether or not a given roll falls within the Range
     * 
@@ -41,6 +76,25 @@ public class Range {
       return false;
    }
    
+   /**
+    * Returns the lowest number that produces a result
+    * 
+    * @return	the low end of the Range, 0 if no valid range exists
+    */
+   public int getLow() {
+      return low;
+   }
+   
+   /**
+    * Returns the highest number that produces a result
+    * 
+    * @return	the high end of the Range, Integer.MAX_VALUE for an open ended
+    * 			"N+" Range, 0 if no valid range exists
+    */
+   public int getHigh() {
+      return high;
+   }
+   
    /**
     * Returns a string representation of the Range
     * 
@@ -71,13 +125,13 @@ public class Range {
     */
    public static Range parseRange(String s) {
 	   if (s.equals("-")) {
-		   return new Range(0, 0);
+		   return of(0, 0);
 	   }
 	   int startVal;
 	   int endVal;
 	   if(s.endsWith("+")) {
 		   startVal = Integer.parseInt(s.substring(0, s.length() - 1));
-		   return new Range(startVal, Integer.MAX_VALUE);
+		   return of(startVal, Integer.MAX_VALUE);
 	   } else {
 		   String[] ends = s.split("-");
 		   startVal = Integer.parseInt(ends[0]);
@@ -87,7 +141,7 @@ public class Range {
  		   } else { // is length 1
 			   endVal = startVal;
 		   }
-		   return new Range(startVal, endVal);
+		   return of(startVal, endVal);
 	   }
    }
    
@@ -0,0 +1,64 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gameData.BattingOrderOptimizer;
+import gameData.LineupManager;
+import players.HitterData;
+
+public class BattingOrderOptimizerTest {
+
+	private LineupManager home;
+	private LineupManager away;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws FileNotFoundException {
+		TestTeams.load();
+	}
+
+	@Before
+	public void setUp() {
+		home = TestTeams.team(TestTeams.TEAM_ONE);
+		away = TestTeams.team(TestTeams.TEAM_TWO);
+	}
+
+	@Test
+	public void testFindsBetterOrders() {
+		BattingOrderOptimizer asIs = new BattingOrderOptimizer(away, home);
+		double current = asIs.optimize(1, 0).get(0).getExpectedRuns();
+		BattingOrderOptimizer optimizer = new BattingOrderOptimizer(away, home).setSimulation(2000, 11);
+		List<BattingOrderOptimizer.Result> best = optimizer.optimize(3, 10000);
+		assertEquals(3, best.size());
+		assertTrue(best.get(0).getExpectedRuns() >= current);
+		assertTrue(optimizer.getOrdersScored() < 362880);
+		Set<String> orders = new HashSet<String>();
+		for (int i = 0; i < best.size(); i++) {
+			BattingOrderOptimizer.Result r = best.get(i);
+			if (i > 0) {
+				assertTrue(r.getExpectedRuns() <= best.get(i - 1).getExpectedRuns());
+			}
+			Set<HitterData> batters = new HashSet<HitterData>();
+			LineupManager lm = r.getLineup();
+			for (int spot = 1; spot <= 9; spot++) {
+				batters.add(lm.getBatter(spot));
+				assertSame(r.getBatter(spot), lm.getBatter(spot));
+			}
+			assertEquals(9, batters.size());
+			assertTrue(orders.add(r.toString()));
+			// Nine innings against the simulated games, which go to extra
+			// innings now and then
+			assertEquals(r.getExpectedRuns(), r.getSimulatedRuns(), 0.5);
+		}
+		// The team being optimized isn't touched
+		assertEquals(current, new BattingOrderOptimizer(away, home).optimize(1, 0).get(0).getExpectedRuns(), 0);
+	}
+}
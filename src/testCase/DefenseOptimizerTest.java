@@ -0,0 +1,140 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gameData.DefenseOptimizer;
+import gameData.LineupManager;
+import players.PlayerData;
+
+public class DefenseOptimizerTest {
+
+	private static final String[] BENCH = { "Alex Rodriguez", "Bret Boone", "Carlos Beltran" };
+
+	private LineupManager team;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws FileNotFoundException {
+		TestTeams.load();
+	}
+
+	@Before
+	public void setUp() {
+		team = TestTeams.team(TestTeams.TEAM_ONE);
+	}
+
+	private double value(int[] field) {
+		double total = 0;
+		for (int pos = 2; pos < field.length; pos++) {
+			total += DefenseOptimizer.ENGINE_WEIGHTS[pos] * team.getPlayer(field[pos]).getFielding(pos);
+		}
+		return total;
+	}
+
+	/**
+	 * Tries every way of putting the hitters at the positions other than
+	 * pitcher and keeps the best
+	 */
+	private double bruteForce(List<PlayerData> hitters, int[] field, int pos, double soFar) {
+		if (pos == field.length) {
+			return soFar;
+		}
+		if (pos == 1) {
+			return bruteForce(hitters, field, 2, soFar);
+		}
+		double best = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < hitters.size(); i++) {
+			PlayerData p = hitters.get(i);
+			if (p != null && (pos == 0 || p.getFielding(pos) >= 0)) {
+				hitters.set(i, null);
+				best = Math.max(best, bruteForce(hitters, field, pos + 1,
+						soFar + DefenseOptimizer.ENGINE_WEIGHTS[pos] * p.getFielding(pos)));
+				hitters.set(i, p);
+			}
+		}
+		return best;
+	}
+
+	private List<PlayerData> hitters() {
+		List<PlayerData> hitters = new ArrayList<PlayerData>();
+		for (PlayerData p : team.getTeam()) {
+			if (!p.isPitcher()) {
+				hitters.add(p);
+			}
+		}
+		return hitters;
+	}
+
+	private void assertValid(int[] field) {
+		assertEquals(team.getCurrentPitcher().getHandle(), field[1]);
+		Set<Integer> placed = new HashSet<Integer>();
+		for (int pos = 0; pos < field.length; pos++) {
+			assertTrue(placed.add(field[pos]));
+			PlayerData p = team.getPlayer(field[pos]);
+			assertEquals(pos == 1, p.isPitcher());
+			if (pos > 1) {
+				assertTrue(p.getFielding(pos) >= 0);
+			}
+		}
+	}
+
+	@Test
+	public void testMatchesBruteForce() {
+		int[] field = DefenseOptimizer.assign(team);
+		assertValid(field);
+		assertEquals(bruteForce(hitters(), field, 0, 0), value(field), 1e-9);
+	}
+
+	@Test
+	public void testBench() {
+		double starters = value(DefenseOptimizer.assign(team));
+		for (String name : BENCH) {
+			team.addPlayer(TestTeams.player(name));
+		}
+		int[] field = DefenseOptimizer.assign(team);
+		assertValid(field);
+		assertTrue(value(field) >= starters);
+		assertEquals(bruteForce(hitters(), field, 0, 0), value(field), 1e-9);
+	}
+
+	@Test
+	public void testSetField() {
+		int before = 0;
+		for (int pos = 3; pos <= 6; pos++) {
+			before += team.getFielding(pos);
+		}
+		int[] field = DefenseOptimizer.setField(team);
+		int after = 0;
+		for (int pos = 0; pos < field.length; pos++) {
+			assertEquals(field[pos], team.getPlayerAtPosition(pos).getHandle());
+			if (pos >= 3 && pos <= 6) {
+				after += team.getFielding(pos);
+			}
+		}
+		assertTrue(after >= before);
+	}
+
+	@Test
+	public void testUnfilledPosition() {
+		String[] names = TestTeams.TEAM_ONE.clone();
+		names[2] = BENCH[0];
+		LineupManager noCatcher = TestTeams.team(names);
+		int[] field = DefenseOptimizer.setField(noCatcher);
+		assertEquals(-1, field[2]);
+		assertNull(noCatcher.getPlayerAtPosition(2));
+		Set<PlayerData> placed = new HashSet<PlayerData>();
+		for (int pos = 0; pos < field.length; pos++) {
+			PlayerData p = noCatcher.getPlayerAtPosition(pos);
+			assertTrue(p == null || placed.add(p));
+		}
+	}
+}
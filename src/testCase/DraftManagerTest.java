@@ -0,0 +1,100 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+
+import org.junit.Test;
+
+import gameData.DraftManager;
+import gameData.LineupManager;
+import gameData.PoolLoadReport;
+import players.PlayerData;
+import players.PlayerId;
+
+public class DraftManagerTest {
+
+	private static final File[] TWO_SEASONS = { new File("DataFiles/2001 hitters.txt"),
+			new File("DataFiles/2004 hitters.txt") };
+
+	@Test
+	public void testMultipleSeasons() throws FileNotFoundException {
+		File[] files = new File[12];
+		for (int year = 2000; year <= 2005; year++) {
+			files[(year - 2000) * 2] = new File("DataFiles/" + year + " pitchers.txt");
+			files[(year - 2000) * 2 + 1] = new File("DataFiles/" + year + " hitters.txt");
+		}
+		DraftManager dm = DraftManager.initializePool(files);
+		PoolLoadReport report = dm.getLoadReport();
+		assertEquals(files.length, report.getEntries().size());
+		int parsed = 0;
+		for (PoolLoadReport.Entry e : report.getEntries()) {
+			assertTrue(e.getFile().getName(), e.getPlayers() > 0);
+			parsed += e.getPlayers();
+		}
+		assertTrue(report.getPoolSize() <= parsed);
+		assertEquals(report.getPoolSize(), dm.getPool().size());
+	}
+
+	@Test
+	public void testSameNameDifferentSeasons() throws FileNotFoundException {
+		DraftManager dm = DraftManager.initializePool(TWO_SEASONS);
+		List<PlayerData> arod = dm.findPlayers("Alex Rodriguez");
+		assertEquals(2, arod.size());
+		assertFalse(arod.get(0).equals(arod.get(1)));
+		assertNotEquals(arod.get(0).getHandle(), arod.get(1).getHandle());
+		for (PlayerData p : arod) {
+			assertSame(p, dm.getPlayer(p.getHandle()));
+			assertSame(p, dm.getPlayer(PlayerId.parse(p.getId().toString())));
+		}
+		LineupManager team = dm.draftPlayer(new LineupManager(), arod.get(0));
+		assertFalse(dm.isAvailable(arod.get(0).getHandle()));
+		assertTrue(dm.isAvailable(arod.get(1).getHandle()));
+		assertSame(arod.get(0), team.getPlayer(arod.get(0).getHandle()));
+		dm.reset();
+		assertTrue(dm.isAvailable(arod.get(0).getHandle()));
+	}
+
+	@Test
+	public void testLineupCopyKeepsItsOwnRoster() throws FileNotFoundException {
+		DraftManager dm = DraftManager.initializePool(TWO_SEASONS);
+		List<PlayerData> arod = dm.findPlayers("Alex Rodriguez");
+		LineupManager team = dm.draftPlayer(new LineupManager(), arod.get(0));
+		LineupManager copy = new LineupManager(team);
+		dm.draftPlayer(copy, arod.get(1));
+		assertEquals(2, copy.getTeam().size());
+		assertEquals(1, team.getTeam().size());
+		assertNull(team.getPlayer(arod.get(1).getHandle()));
+	}
+
+	/**
+	 * Saves from before PlayerIds name their players, and with more than one
+	 * season loaded most names have several cards
+	 */
+	@Test
+	public void testLegacySave() throws FileNotFoundException {
+		DraftManager dm = DraftManager.initializePool(new File("DataFiles/2001 pitchers.txt"),
+				new File("DataFiles/2001 hitters.txt"), new File("DataFiles/2004 pitchers.txt"),
+				new File("DataFiles/2004 hitters.txt"));
+		assertTrue(dm.findPlayers("Rafael Furcal").size() > 1);
+		LineupManager braves = LineupManager.teamImport("Braves", dm);
+		for (PlayerData p : braves.getTeam()) {
+			assertEquals("'04", p.getYear());
+		}
+		assertEquals("Rafael Furcal", braves.getPlayerAtPosition(6).toString());
+		assertEquals("Gary Sheffield", braves.getBatter(3).toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDraftAmbiguousName() throws FileNotFoundException {
+		DraftManager dm = DraftManager.initializePool(TWO_SEASONS);
+		dm.draftPlayer(new LineupManager(), "Alex Rodriguez");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownFile() throws FileNotFoundException {
+		DraftManager.initializePool(new File("DataFiles/2004 special.txt"));
+	}
+}
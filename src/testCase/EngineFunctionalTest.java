@@ -2,8 +2,6 @@ package testCase;
 
 import gameData.*;
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
 
 public class EngineFunctionalTest {
 
@@ -15,46 +13,31 @@ public class EngineFunctionalTest {
 		DraftManager dm = DraftManager.initializePool(pitchers, hitters);
 		LineupManager teamOne = new LineupManager();
 		LineupManager teamTwo = new LineupManager();
+		int[] handles1 = new int[10];
+		int[] handles2 = new int[10];
 		for (int i = 0; i < 10; i++) {
-			teamOne = dm.draftPlayer(teamOne, team1[i]);
-			teamTwo = dm.draftPlayer(teamTwo, team2[i]);
+			handles1[i] = dm.findPlayers(team1[i]).get(0).getHandle();
+			handles2[i] = dm.findPlayers(team2[i]).get(0).getHandle();
+			teamOne = dm.draftPlayer(teamOne, handles1[i]);
+			teamTwo = dm.draftPlayer(teamTwo, handles2[i]);
 		}
 		for (int i = 0; i < 10; i++) {
 			if (i == 0) {
-				teamOne.playTheField(team1[i], i);
-				teamOne.hitInOrder(team1[i], 4);
-				teamTwo.playTheField(team2[i], i);
-				teamTwo.hitInOrder(team2[i], 4);
+				teamOne.playTheField(handles1[i], i);
+				teamOne.hitInOrder(handles1[i], 4);
+				teamTwo.playTheField(handles2[i], i);
+				teamTwo.hitInOrder(handles2[i], 4);
 			} else if (i > 1) {
-				teamOne.playTheField(team1[i], i);
-				teamOne.hitInOrder(team1[i], ((i + 2) % 9) + 1);
-				teamTwo.playTheField(team2[i], i);
-				teamTwo.hitInOrder(team2[i], ((i + 2) % 9) + 1);
+				teamOne.playTheField(handles1[i], i);
+				teamOne.hitInOrder(handles1[i], ((i + 2) % 9) + 1);
+				teamTwo.playTheField(handles2[i], i);
+				teamTwo.hitInOrder(handles2[i], ((i + 2) % 9) + 1);
 			}
 		}
-		teamOne.subPitcher(team1[1]);
-		teamTwo.subPitcher(team2[1]);
-		StrategyCard scMan = new StrategyCard();
-		GameManager gm = new GameManager(teamOne, teamTwo, scMan);
-		int i = 0;
-		List<Integer> scores = new ArrayList<Integer>();
-		teamOne.populateSCards();
-		teamTwo.populateSCards();
-		while (i < 1) {
-			gm.advanceProgram();
-			if (gm.getInning() % 10 == 0) {
-				scores.add(gm.getTotalRuns());
-				gm.resetGameTrack();
-				teamOne.populateSCards();
-				teamTwo.populateSCards();
-				i++;
-			}
-		}
-		double totalScore = 0.0;
-		for (Integer j : scores) {
-			totalScore += j;
-		}
-		StrategyCard.printLog();
-		System.out.println("Average score: " + totalScore / scores.size());
+		teamOne.subPitcher(handles1[1]);
+		teamTwo.subPitcher(handles2[1]);
+		SimulationResult result = Simulator.simulate(teamOne, teamTwo, 1000, 0L);
+		System.out.println(result);
+		System.out.println("Average score: " + (result.getHomeRunsPerGame() + result.getAwayRunsPerGame()));
 	}
 }
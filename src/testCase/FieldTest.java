@@ -0,0 +1,71 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import gameData.Field;
+import gameData.GameLog;
+import gameData.GameStat;
+import gameData.Token;
+
+public class FieldTest {
+
+	private Field field;
+	private GameStat gamestat;
+
+	@Before
+	public void setUp() {
+		field = new Field(new GameLog());
+		gamestat = new GameStat();
+	}
+
+	@Test
+	public void testSingleAdvancesEveryone() {
+		field.walk(null, gamestat);
+		field.walk(null, gamestat);
+		field.walk(null, gamestat);
+		assertEquals(7, field.getBases());
+		field.single(null, gamestat);
+		assertEquals(7, field.getBases());
+		assertEquals(1, gamestat.getAwayRuns());
+		assertEquals(1, gamestat.getAwayHits());
+	}
+
+	@Test
+	public void testWalkOnlyMovesForcedRunners() {
+		field.triple(null, gamestat);
+		field.walk(null, gamestat);
+		assertEquals(5, field.getBases());
+		assertEquals(0, gamestat.getAwayRuns());
+	}
+
+	@Test
+	public void testSinglePlusTakesSecondWhenOpen() {
+		field.singlePlus(null, gamestat);
+		assertEquals(2, field.getBases());
+		assertEquals(1, gamestat.getAwayHits());
+	}
+
+	@Test
+	public void testHomerClearsBases() {
+		field.twoBase(null, gamestat);
+		field.homer(gamestat);
+		assertEquals(0, field.getBases());
+		assertEquals(0, field.getState());
+		assertEquals(2, gamestat.getAwayRuns());
+	}
+
+	@Test
+	public void testTablesMatchField() {
+		assertEquals(7, Field.nextBases(Token.Walk, 3));
+		assertEquals(0, Field.runsScored(Token.Walk, 3));
+		assertEquals(1, Field.runsScored(Token.Walk, 7));
+		assertEquals(4, Field.runsScored(Token.Homerun, 7));
+		assertEquals(6, Field.nextBases(Token.Double, 1));
+		assertEquals(5, Field.basesAfterGroundout(3));
+		assertEquals(1, Field.runsOnGroundout(4));
+		assertEquals(16, field.getBaseOutState(2));
+	}
+}
@@ -0,0 +1,81 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gameData.GameManager;
+import gameData.GameSnapshot;
+import gameData.LineupManager;
+import graphicsInterface.GameEngine;
+
+public class GameEngineTest {
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws FileNotFoundException {
+		TestTeams.load();
+	}
+
+	@Test
+	public void testSnapshotsArriveInOrder() throws InterruptedException {
+		List<GameSnapshot> seen = new ArrayList<GameSnapshot>();
+		List<Boolean> onEdt = new ArrayList<Boolean>();
+		CountDownLatch over = new CountDownLatch(1);
+		GameEngine engine = new GameEngine(
+				new GameManager(TestTeams.team(TestTeams.TEAM_ONE), TestTeams.team(TestTeams.TEAM_TWO), null,
+						new SplittableRandom(7)),
+				new GameEngine.Listener() {
+					public void snapshotsArrived(List<GameSnapshot> arrived) {
+						onEdt.add(SwingUtilities.isEventDispatchThread());
+						seen.addAll(arrived);
+						if (arrived.get(arrived.size() - 1).isGameOver()) {
+							over.countDown();
+						}
+					}
+				}, null);
+		for (int i = 0; i < 20; i++) {
+			engine.step();
+		}
+		engine.finish();
+		assertTrue(over.await(30, TimeUnit.SECONDS));
+		engine.shutdown();
+		assertFalse(onEdt.contains(false));
+		// A step for each call, then one for each half inning finish played
+		assertTrue(seen.size() > 22);
+		for (int i = 22; i < seen.size(); i++) {
+			assertTrue(seen.get(i).getInning() - seen.get(i - 1).getInning() <= 1);
+		}
+		GameSnapshot last = seen.get(seen.size() - 1);
+		assertSame(engine.getLatest(), last);
+		int runs = 0;
+		for (GameSnapshot s : seen) {
+			assertTrue(s.getAwayRuns() + s.getHomeRuns() >= runs);
+			runs = s.getAwayRuns() + s.getHomeRuns();
+		}
+	}
+
+	@Test
+	public void testSnapshotDoesNotChange() {
+		GameManager game = new GameManager(TestTeams.team(TestTeams.TEAM_ONE), TestTeams.team(TestTeams.TEAM_TWO),
+				null, new SplittableRandom(7));
+		GameSnapshot start = new GameSnapshot(game);
+		game.finishGame();
+		assertEquals(GameManager.ProgramState.GameOver, game.getProgramState());
+		assertFalse(start.isGameOver());
+		assertEquals(0, start.getAwayRuns() + start.getHomeRuns());
+		assertEquals(0, start.getOuts());
+		assertNull(start.getRunnerOn(1));
+		assertTrue(game.getGameStat().getAwaySpread().size() >= 9);
+		assertTrue(start.getAwaySpread().size() <= 1);
+	}
+}
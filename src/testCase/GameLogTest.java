@@ -0,0 +1,51 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Test;
+
+import gameData.GameLog;
+import gameData.Token;
+
+public class GameLogTest {
+
+	@Test
+	public void testWindowWrapsAround() {
+		GameLog log = new GameLog(4);
+		for (int i = 0; i < 10; i++) {
+			log.emit(i % 2 == 0 ? Token.Single : Token.Walk);
+		}
+		assertEquals(10, log.size());
+		assertEquals(Token.Walk, log.last());
+		assertEquals(Token.Single, log.back(2));
+		assertEquals(4, log.getTokens().size());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testLookingPastWindow() {
+		GameLog log = new GameLog(4);
+		for (int i = 0; i < 10; i++) {
+			log.emit(Token.Single);
+		}
+		log.back(5);
+	}
+
+	@Test
+	public void testSinkReplaysFullHistory() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		GameLog log = new GameLog(2, out);
+		Token[] tokens = Token.values();
+		for (Token t : tokens) {
+			log.emit(t);
+		}
+		log.close();
+		assertEquals(tokens.length, out.size());
+		List<Token> history = GameLog.replay(new ByteArrayInputStream(out.toByteArray()));
+		assertArrayEquals(tokens, history.toArray());
+	}
+}
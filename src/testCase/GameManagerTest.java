@@ -0,0 +1,60 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.util.SplittableRandom;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gameData.GameManager;
+import gameData.LineupManager;
+import gameData.StrategyCard;
+
+public class GameManagerTest {
+
+	private static StrategyCard deck;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws FileNotFoundException {
+		TestTeams.load();
+		deck = new StrategyCard();
+	}
+
+	private static GameManager game(StrategyCard scMan) {
+		SplittableRandom dice = new SplittableRandom(5);
+		LineupManager home = TestTeams.team(TestTeams.TEAM_ONE);
+		LineupManager away = TestTeams.team(TestTeams.TEAM_TWO);
+		home.populateSCards(dice);
+		away.populateSCards(dice);
+		return new GameManager(home, away, scMan, dice);
+	}
+
+	@Test
+	public void testHeadlessPlaysThrough() {
+		assertEquals(GameManager.ProgramState.GameOver, game(null).finishGame());
+	}
+
+	@Test
+	public void testPlaysPastCards() {
+		GameManager game = game(deck);
+		game.setStopForCards(false);
+		assertEquals(GameManager.ProgramState.GameOver, game.finishGame());
+	}
+
+	/**
+	 * A game with a deck stops for cards, but only where the cards held could
+	 * be played
+	 */
+	@Test
+	public void testStopsForCards() {
+		GameManager game = game(deck);
+		int stops = 0;
+		while (game.finishGame() != GameManager.ProgramState.GameOver) {
+			assertTrue(game.awaitingCard());
+			stops++;
+		}
+		assertTrue(stops > 0);
+	}
+}
@@ -65,4 +65,39 @@ public class GameStatTest {
 		assertEquals(2, gamestat.getInning());
 		assertTrue(gamestat.getHalf());
 	}
+
+	@Test
+	public void testReset() {
+		gamestat.score();
+		gamestat.hit();
+		for (int i = 0; i < 3; i++) {
+			gamestat.yerOut();
+		}
+		gamestat.update();
+		gamestat.reset();
+		assertEquals(0, gamestat.getAwayRuns());
+		assertEquals(0, gamestat.getAwayHits());
+		assertEquals(1, gamestat.getInning());
+		assertTrue(gamestat.getHalf());
+		assertEquals(1, gamestat.getAwaySpread().size());
+		assertEquals(0, (int) gamestat.getAwaySpread().get(0));
+		assertTrue(gamestat.getHomeSpread().isEmpty());
+	}
+
+	@Test
+	public void testExtraInnings() {
+		for (int half = 0; half < 2 * (GameStat.REGULATION_INNINGS + 5); half++) {
+			if (half == 2 * GameStat.REGULATION_INNINGS + 7) {
+				gamestat.score();
+			}
+			for (int i = 0; i < 3; i++) {
+				gamestat.yerOut();
+			}
+			gamestat.update();
+		}
+		assertTrue(gamestat.isGameOver());
+		assertEquals(GameStat.REGULATION_INNINGS + 4, gamestat.getHomeSpread().size());
+		assertEquals(1, gamestat.getHomeRuns(GameStat.REGULATION_INNINGS + 4));
+		assertEquals(1, (int) gamestat.getHomeSpread().get(GameStat.REGULATION_INNINGS + 3));
+	}
 }
@@ -0,0 +1,111 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gameData.DraftManager;
+import gameData.MatchupMatrix;
+import gameData.PlateAppearance;
+import gameData.RunExpectancy;
+import gameData.Token;
+import players.HitterData;
+import players.PitcherData;
+import players.PlayerData;
+
+public class MatchupMatrixTest {
+
+	private static DraftManager dm;
+	private static List<HitterData> hitters;
+	private static List<PitcherData> pitchers;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws FileNotFoundException {
+		dm = TestTeams.load();
+		hitters = new ArrayList<HitterData>();
+		pitchers = new ArrayList<PitcherData>();
+		for (PlayerData p : dm.getPool()) {
+			if (p.isPitcher()) {
+				pitchers.add((PitcherData) p);
+			} else {
+				hitters.add((HitterData) p);
+			}
+		}
+	}
+
+	@Test
+	public void testMatchesPlateAppearance() {
+		MatchupMatrix matrix = new MatchupMatrix(dm.getPool());
+		for (int i = 0; i < pitchers.size(); i += 7) {
+			PitcherData p = pitchers.get(i);
+			for (int j = 0; j < hitters.size(); j += 5) {
+				HitterData h = hitters.get(j);
+				PlateAppearance pa = new PlateAppearance(h, p, 0, 0, 2);
+				for (Token t : Token.values()) {
+					assertEquals(pa.getChance(t), matrix.getChance(h.getHandle(), p.getHandle(), 2, t), 1e-7);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testEviction() {
+		MatchupMatrix matrix = new MatchupMatrix(dm.getPool(), 3);
+		int hitter = hitters.get(0).getHandle();
+		for (PitcherData p : pitchers) {
+			matrix.getChance(hitter, p.getHandle(), Token.Single);
+		}
+		assertEquals(3, matrix.getRowCount());
+		PitcherData first = pitchers.get(0);
+		assertEquals(new PlateAppearance(hitters.get(0), first, 0).getChance(Token.Single),
+				matrix.getChance(hitter, first.getHandle(), Token.Single), 1e-7);
+		try {
+			matrix.getChance(first.getHandle(), first.getHandle(), Token.Single);
+			fail("A pitcher isn't a hitter in the matrix");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testSharedBetweenThreads() throws Exception {
+		MatchupMatrix matrix = new MatchupMatrix(dm.getPool(), 8);
+		ExecutorService threads = Executors.newFixedThreadPool(4);
+		List<Future<Double>> sums = new ArrayList<Future<Double>>();
+		for (int t = 0; t < 8; t++) {
+			sums.add(threads.submit(new Callable<Double>() {
+				public Double call() {
+					double sum = 0;
+					for (PitcherData p : pitchers.subList(0, 12)) {
+						for (HitterData h : hitters) {
+							sum += matrix.getChance(h.getHandle(), p.getHandle(), Token.Homerun);
+						}
+					}
+					return sum;
+				}
+			}));
+		}
+		double expected = sums.get(0).get();
+		for (Future<Double> f : sums) {
+			assertEquals(expected, f.get(), 1e-9);
+		}
+		threads.shutdown();
+	}
+
+	@Test
+	public void testRunExpectancy() {
+		MatchupMatrix matrix = new MatchupMatrix(dm.getPool());
+		HitterData[] order = hitters.subList(0, 9).toArray(new HitterData[9]);
+		PitcherData p = pitchers.get(0);
+		double exact = new RunExpectancy(order, p, 8, 12).getExpectedRuns(1);
+		assertEquals(exact, new RunExpectancy(order, p, 8, 12, matrix).getExpectedRuns(1), 1e-5);
+	}
+}
@@ -0,0 +1,83 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.util.SplittableRandom;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gameData.GameManager;
+import gameData.LineupManager;
+import gameData.PlateAppearance;
+import gameData.Token;
+import players.HitterData;
+import players.PitcherData;
+
+public class PlateAppearanceTest {
+
+	private HitterData hitter;
+	private PitcherData pitcher;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws FileNotFoundException {
+		TestTeams.load();
+	}
+
+	@Before
+	public void setUp() {
+		hitter = (HitterData) TestTeams.player("Todd Helton");
+		pitcher = (PitcherData) TestTeams.player("Tim Hudson");
+	}
+
+	@Test
+	public void testChancesAddUp() {
+		PlateAppearance pa = new PlateAppearance(hitter, pitcher, 1);
+		int total = 0;
+		for (Token t : Token.values()) {
+			total += pa.getCount(t);
+		}
+		assertEquals(PlateAppearance.OUTCOMES, total);
+		assertEquals(0, pa.getNoResultChance(), 0);
+		assertTrue(pa.getOutChance() > 0 && pa.getOutChance() < 1);
+	}
+
+	@Test
+	public void testModifiers() {
+		PlateAppearance base = new PlateAppearance(hitter, pitcher, 1);
+		// A pitcher far enough past their innings never wins the advantage
+		assertEquals(0, new PlateAppearance(hitter, pitcher, 40).getPitcherChartChance(), 0);
+		assertEquals(1, new PlateAppearance(hitter, pitcher, 1, 0, 40).getPitcherChartChance(), 0);
+		assertTrue(new PlateAppearance(hitter, pitcher, 1, 0, 2).getPitcherChartChance() > base
+				.getPitcherChartChance());
+		// Rolls past the top of a chart land on its highest result
+		PlateAppearance swung = new PlateAppearance(hitter, pitcher, 40, 40, 0);
+		assertEquals(1, swung.getChance(hitter.getResult(Integer.MAX_VALUE)), 0);
+		PlateAppearance pitched = new PlateAppearance(hitter, pitcher, 1, -40, 40);
+		assertEquals(1, pitched.getChance(pitcher.getResult(1)), 0);
+	}
+
+	/**
+	 * Rolls the plate appearance many times the way a game does and compares
+	 * how often each result comes up to its exact chance
+	 */
+	@Test
+	public void testMatchesSwing() {
+		PlateAppearance pa = new PlateAppearance(hitter, pitcher, 1);
+		GameManager game = new GameManager(new LineupManager(), new LineupManager(), null, new SplittableRandom(3));
+		SplittableRandom dice = new SplittableRandom(4);
+		int swings = 40000;
+		int[] seen = new int[Token.values().length];
+		for (int i = 0; i < swings; i++) {
+			int pitch = pitcher.getBaseMod() + dice.nextInt(20) + 1 + pitcher.checkInnings(1);
+			game.swing(pitch, hitter, pitcher);
+			seen[game.getLog().last().ordinal()]++;
+		}
+		for (Token t : Token.values()) {
+			double p = pa.getChance(t);
+			assertEquals(p, (double) seen[t.ordinal()] / swings, 4 * Math.sqrt(p * (1 - p) / swings) + 1e-9);
+		}
+	}
+}
@@ -1,33 +1,57 @@
 package testCase;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.Map;
+import java.util.EnumSet;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import gameData.DraftManager;
+import gameData.PoolFootprint;
 import players.HitterData;
+import players.Icon;
 import players.PitcherData;
 import players.PlayerData;
+import players.Range;
 
 public class PlayerEquivalenceTest {
 	
-	private static Map<String, PlayerData> mainPool;
+	private static DraftManager mainPool;
 	
 	@BeforeClass
 	public static void setUpBeforeClass() throws FileNotFoundException {
 		mainPool = DraftManager.initializePool(new File("DataFiles/2004 pitchers.txt"),
-				new File("DataFiles/2004 hitters.txt")).getPool();
+				new File("DataFiles/2004 hitters.txt"));
 	}
 	
 	@Test
 	public void testPitcherGhosting() {
-		PlayerData moyer = mainPool.get("Jamie Moyer");
+		PlayerData moyer = mainPool.findPlayers("Jamie Moyer").get(0);
 		HitterData hitter = new HitterData((PitcherData) moyer);
 		assertTrue(hitter.equals(moyer));
+		assertEquals(moyer.hashCode(), hitter.hashCode());
+	}
+
+	@Test
+	public void testIcons() {
+		PlayerData gagne = mainPool.findPlayers("Eric Gagne").get(0);
+		assertEquals(EnumSet.of(Icon.CyYoung, Icon.ReliefPitcher), gagne.getIcons());
+		assertFalse(gagne.hasIcon(Icon.TwentyWins));
+	}
+
+	@Test
+	public void testSharedRanges() {
+		for (PlayerData p : mainPool.getPool()) {
+			Range r = p.getSingle();
+			assertSame(Range.of(r.getLow(), r.getHigh()), r);
+		}
+		PoolFootprint footprint = PoolFootprint.measure(mainPool.getPool());
+		assertTrue(footprint.getNewBytes() < footprint.getOldBytes());
 	}
 }
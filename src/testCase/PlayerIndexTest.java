@@ -0,0 +1,98 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gameData.DraftManager;
+import gameData.LineupManager;
+import gameData.PlayerIndex;
+import players.PlayerData;
+
+public class PlayerIndexTest {
+
+	private static DraftManager pool;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws FileNotFoundException {
+		List<File> files = new ArrayList<File>();
+		for (int year = 2000; year <= 2005; year++) {
+			files.add(new File("DataFiles/" + year + " pitchers.txt"));
+			files.add(new File("DataFiles/" + year + " hitters.txt"));
+		}
+		pool = DraftManager.initializePool(files.toArray(new File[files.size()]));
+	}
+
+	@Test
+	public void testNamePrefix() {
+		PlayerIndex index = pool.getIndex();
+		List<PlayerData> byLast = index.query().name("RODRIG").list();
+		List<PlayerData> byFull = index.query().name("alex rod").list();
+		assertFalse(byFull.isEmpty());
+		for (PlayerData p : byFull) {
+			assertEquals("Alex Rodriguez", p.toString());
+			assertTrue(byLast.contains(p));
+		}
+		for (PlayerData p : byLast) {
+			assertTrue(p.toString(), p.toString().toLowerCase().matches("(.* )?rodrig.*"));
+		}
+		assertEquals(index.size(), index.query().name("").count());
+	}
+
+	@Test
+	public void testCompoundQuery() {
+		List<PlayerData> found = pool.getIndex().query().plays(6).cost(0, 300).year("'04")
+				.sortBy(PlayerIndex.Order.Cost).list();
+		int expected = 0;
+		for (PlayerData p : pool.getPool()) {
+			if (p.playsPosition(6) && p.getCost() <= 300 && p.getYear().equals("'04")) {
+				expected++;
+			}
+		}
+		assertEquals(expected, found.size());
+		for (int i = 1; i < found.size(); i++) {
+			assertTrue(found.get(i - 1).getCost() <= found.get(i).getCost());
+		}
+	}
+
+	@Test
+	public void testFieldingOrder() {
+		List<PlayerData> found = pool.getIndex().query().sortByFielding(2).descending().limit(10).list();
+		assertEquals(10, found.size());
+		for (int i = 1; i < found.size(); i++) {
+			assertTrue(found.get(i - 1).getFielding(2) >= found.get(i).getFielding(2));
+		}
+	}
+
+	@Test
+	public void testAvailable() throws FileNotFoundException {
+		DraftManager dm = DraftManager.initializePool(new File("DataFiles/2004 pitchers.txt"),
+				new File("DataFiles/2004 hitters.txt"));
+		PlayerData moyer = dm.findPlayers("Jamie Moyer").get(0);
+		assertEquals(1, dm.getIndex().query().name("moyer").available(dm).count());
+		dm.draftPlayer(new LineupManager(), moyer);
+		assertEquals(0, dm.getIndex().query().name("moyer").available(dm).count());
+		assertEquals(1, dm.getIndex().query().name("moyer").count());
+	}
+
+	@Test
+	public void testDesignatedHitters() {
+		List<PlayerData> found = pool.getIndex().query().plays(0).list();
+		int hitters = 0;
+		for (PlayerData p : pool.getPool()) {
+			if (!p.isPitcher()) {
+				hitters++;
+			}
+		}
+		assertEquals(hitters, found.size());
+		for (PlayerData p : found) {
+			assertFalse(p.toString(), p.isPitcher());
+		}
+	}
+}
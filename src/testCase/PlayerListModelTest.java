@@ -0,0 +1,77 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import gameData.DraftManager;
+import gameData.PlayerIndex;
+import graphicsInterface.PlayerListModel;
+import players.PlayerData;
+
+public class PlayerListModelTest {
+
+	private PlayerIndex index;
+	private PlayerListModel model;
+	private List<String> events;
+
+	@Before
+	public void setUp() throws FileNotFoundException {
+		index = DraftManager.initializePool(new File("DataFiles/2004 pitchers.txt"),
+				new File("DataFiles/2004 hitters.txt")).getIndex();
+		model = new PlayerListModel(index);
+		events = new ArrayList<String>();
+		model.addListDataListener(new ListDataListener() {
+			public void intervalAdded(ListDataEvent e) {
+				events.add("added " + e.getIndex0() + "-" + e.getIndex1());
+			}
+
+			public void intervalRemoved(ListDataEvent e) {
+				events.add("removed " + e.getIndex0() + "-" + e.getIndex1());
+			}
+
+			public void contentsChanged(ListDataEvent e) {
+				events.add("changed " + e.getIndex0() + "-" + e.getIndex1());
+			}
+		});
+	}
+
+	@Test
+	public void testRemove() {
+		model.setResults(index.query().sortBy(PlayerIndex.Order.Name));
+		List<PlayerData> expected = index.sorted(PlayerIndex.Order.Name);
+		assertEquals(expected.size(), model.getSize());
+		for (int i : new int[] { 100, 0, 57, expected.size() - 10 }) {
+			PlayerData p = expected.remove(i);
+			assertEquals(i, model.indexOf(p));
+			assertTrue(model.remove(p));
+			assertFalse(model.remove(p));
+			assertEquals("removed " + i + "-" + i, events.get(events.size() - 1));
+		}
+		assertEquals(expected.size(), model.getSize());
+		for (int i = 0; i < expected.size(); i++) {
+			assertSame(expected.get(i), model.getElementAt(i));
+		}
+	}
+
+	@Test
+	public void testSetResults() {
+		model.setResults(index.query().name("j"));
+		int first = model.getSize();
+		model.setResults(index.query().name("ja"));
+		int second = model.getSize();
+		assertTrue(second < first);
+		assertEquals("added 0-" + (first - 1), events.get(0));
+		assertEquals("changed 0-" + (second - 1), events.get(1));
+		assertEquals("removed " + second + "-" + (first - 1), events.get(2));
+	}
+}
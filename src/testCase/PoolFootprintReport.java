@@ -0,0 +1,31 @@
+package testCase;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+
+import gameData.DraftManager;
+import gameData.PoolFootprint;
+
+/**
+ * Prints the estimated footprint of the pool in the old and packed layouts,
+ * for every season in DataFiles or for the files given as arguments
+ */
+public class PoolFootprintReport {
+
+	public static void main(String[] args) throws FileNotFoundException {
+		File[] files = new File[args.length];
+		for (int i = 0; i < args.length; i++) {
+			files[i] = new File(args[i]);
+		}
+		if (files.length == 0) {
+			files = new File[12];
+			for (int year = 2000; year <= 2005; year++) {
+				files[(year - 2000) * 2] = new File("DataFiles/" + year + " pitchers.txt");
+				files[(year - 2000) * 2 + 1] = new File("DataFiles/" + year + " hitters.txt");
+			}
+		}
+		DraftManager dm = DraftManager.initializePool(files);
+		System.out.println(dm.getLoadReport());
+		System.out.print(PoolFootprint.measure(dm.getPool()));
+	}
+}
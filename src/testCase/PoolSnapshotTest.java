@@ -0,0 +1,68 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import gameData.DraftManager;
+import players.PlayerData;
+import players.PoolSnapshot;
+
+public class PoolSnapshotTest {
+
+	private static final File PITCHERS = new File("DataFiles/2005 pitchers.txt");
+	private static final File HITTERS = new File("DataFiles/2005 hitters.txt");
+
+	private File snapshot;
+
+	@Before
+	public void setUp() throws IOException {
+		snapshot = File.createTempFile("pool", ".snapshot");
+		snapshot.delete();
+	}
+
+	@After
+	public void tearDown() {
+		snapshot.delete();
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		DraftManager parsed = DraftManager.initializePool(PITCHERS, HITTERS);
+		PoolSnapshot.write(parsed.getPool(), snapshot, PITCHERS, HITTERS);
+		List<PlayerData> read = PoolSnapshot.read(snapshot, PITCHERS, HITTERS);
+		assertEquals(parsed.getPool().size(), read.size());
+		for (PlayerData p : read) {
+			PlayerData original = parsed.getPlayer(p.getId());
+			assertEquals(original.toString(), p.toString());
+			assertEquals(original, p);
+			assertEquals(original.getCard(), p.getCard());
+			for (int roll = 0; roll <= 30; roll++) {
+				assertEquals(original.getResult(roll), p.getResult(roll));
+			}
+		}
+	}
+
+	@Test
+	public void testStaleSnapshot() throws IOException {
+		assertNull(PoolSnapshot.read(snapshot, PITCHERS, HITTERS));
+		List<PlayerData> parsed = DraftManager.initializePool(PITCHERS, null).getPool();
+		PoolSnapshot.write(parsed, snapshot, PITCHERS);
+		assertNull(PoolSnapshot.read(snapshot, PITCHERS, HITTERS));
+		assertNotNull(PoolSnapshot.read(snapshot, PITCHERS));
+	}
+
+	@Test
+	public void testLoadPoolWritesSnapshot() throws IOException {
+		DraftManager first = DraftManager.loadPool(snapshot, PITCHERS, HITTERS);
+		assertTrue(snapshot.isFile());
+		DraftManager second = DraftManager.loadPool(snapshot, PITCHERS, HITTERS);
+		assertEquals(first.getPool(), second.getPool());
+	}
+}
@@ -0,0 +1,72 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import gameData.GameLog;
+import gameData.Precondition;
+import gameData.StrategyCard;
+import gameData.Token;
+
+public class PreconditionTest {
+
+	private static GameLog swing(Token chart, Token result) {
+		GameLog log = new GameLog();
+		log.emit(Token.BeforePitch);
+		log.emit(chart);
+		log.emit(result);
+		return log;
+	}
+
+	@Test
+	public void testSinglePlus() {
+		Precondition pre = Precondition.compile("1B+");
+		assertTrue(pre.isMet(swing(Token.HitterChart, Token.SinglePlus)));
+		assertTrue(pre.isMet(swing(Token.PitcherChart, Token.SinglePlus)));
+		assertFalse(pre.isMet(swing(Token.HitterChart, Token.Single)));
+	}
+
+	@Test
+	public void testSinglePlusAlternate() {
+		Precondition pre = Precondition.compile("1B+^3B");
+		assertTrue(pre.isMet(swing(Token.HitterChart, Token.SinglePlus)));
+		assertTrue(pre.isMet(swing(Token.HitterChart, Token.Triple)));
+		assertFalse(pre.isMet(swing(Token.HitterChart, Token.Single)));
+		assertFalse(pre.isMet(swing(Token.HitterChart, Token.Double)));
+	}
+
+	@Test
+	public void testSinglePlusOnChart() {
+		Precondition pre = Precondition.compile("1B+^2B+PC");
+		assertTrue(pre.isMet(swing(Token.PitcherChart, Token.SinglePlus)));
+		assertTrue(pre.isMet(swing(Token.PitcherChart, Token.Double)));
+		assertFalse(pre.isMet(swing(Token.HitterChart, Token.SinglePlus)));
+		assertFalse(pre.isMet(swing(Token.PitcherChart, Token.Single)));
+	}
+
+	/**
+	 * A card on 1B+ is playable after a 1B+ and nothing else, as the cards
+	 * "Foul Ball" and "Inside the Park Home Run" need
+	 */
+	@Test
+	public void testCardOnSinglePlus() {
+		StrategyCard card = StrategyCard.maker(9, "Inside the Park Home Run", "O", "'04", "1B+^3B", "RRS", "");
+		assertTrue(card.isPlayable(swing(Token.HitterChart, Token.SinglePlus)));
+		assertTrue(card.isPlayable(swing(Token.PitcherChart, Token.Triple)));
+		assertFalse(card.isPlayable(swing(Token.HitterChart, Token.Single)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadChart() {
+		Precondition.compile("1B^2B+XC");
+	}
+
+	@Test
+	public void testAlwaysMet() {
+		assertTrue(Precondition.compile("A").isAlwaysMet());
+		assertFalse(Precondition.compile("A+HC").isAlwaysMet());
+		assertFalse(Precondition.compile("BP").isAlwaysMet());
+		assertFalse(Precondition.compile("AO").isAlwaysMet());
+	}
+}
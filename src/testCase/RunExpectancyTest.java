@@ -0,0 +1,80 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.util.SplittableRandom;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gameData.GameManager;
+import gameData.LineupManager;
+import gameData.RunExpectancy;
+
+public class RunExpectancyTest {
+
+	private LineupManager home;
+	private LineupManager away;
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws FileNotFoundException {
+		TestTeams.load();
+	}
+
+	@Before
+	public void setUp() {
+		home = TestTeams.team(TestTeams.TEAM_ONE);
+		away = TestTeams.team(TestTeams.TEAM_TWO);
+	}
+
+	@Test
+	public void testDistributionMatchesExpectation() {
+		RunExpectancy re = RunExpectancy.of(away, home, 1);
+		for (int spot = 1; spot <= 9; spot++) {
+			double[] d = re.getRunsDistribution(spot);
+			double total = 0;
+			double mean = 0;
+			for (int k = 0; k < d.length; k++) {
+				assertTrue(d[k] >= 0);
+				total += d[k];
+				mean += k * d[k];
+			}
+			assertEquals(1, total, 1e-9);
+			assertEquals(re.getExpectedRuns(spot), mean, 1e-6);
+		}
+		// Loaded with nobody out is worth more than empty with two out
+		assertTrue(re.getExpectedRuns(7, 1) > re.getExpectedRuns(16, 1));
+	}
+
+	/**
+	 * Plays the top of the first of many games and compares the runs the
+	 * away team scores to the exact answer
+	 */
+	@Test
+	public void testMatchesSimulation() {
+		RunExpectancy re = RunExpectancy.of(away, home, 1);
+		int games = 20000;
+		double sum = 0;
+		double squares = 0;
+		int scoreless = 0;
+		SplittableRandom seeds = new SplittableRandom(21);
+		for (int i = 0; i < games; i++) {
+			GameManager game = new GameManager(new LineupManager(home), new LineupManager(away), null,
+					seeds.split());
+			game.finishHalfInning();
+			int runs = game.getGameStat().getAwayRuns();
+			sum += runs;
+			squares += runs * runs;
+			if (runs == 0) {
+				scoreless++;
+			}
+		}
+		double mean = sum / games;
+		double error = Math.sqrt((squares / games - mean * mean) / games);
+		assertEquals(re.getExpectedRuns(1), mean, 4 * error);
+		double p0 = re.getRunsDistribution(1)[0];
+		assertEquals(p0, (double) scoreless / games, 4 * Math.sqrt(p0 * (1 - p0) / games));
+	}
+}
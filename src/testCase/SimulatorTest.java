@@ -0,0 +1,50 @@
+package testCase;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gameData.LineupManager;
+import gameData.SimulationResult;
+import gameData.Simulator;
+import gameData.StrategyCard;
+
+public class SimulatorTest {
+
+	@BeforeClass
+	public static void setUpBeforeClass() throws FileNotFoundException {
+		TestTeams.load();
+	}
+
+	private static SimulationResult simulate() {
+		LineupManager home = TestTeams.team(TestTeams.TEAM_ONE);
+		LineupManager away = TestTeams.team(TestTeams.TEAM_TWO);
+		return Simulator.simulate(home, away, 200, 42);
+	}
+
+	@Test
+	public void testSeedRepeats() {
+		SimulationResult first = simulate();
+		SimulationResult second = simulate();
+		assertEquals(first.getHomeRunsPerGame(), second.getHomeRunsPerGame(), 0);
+		assertEquals(first.getAwayRunsPerGame(), second.getAwayRunsPerGame(), 0);
+		assertEquals(first.getHomeWinRate(), second.getHomeWinRate(), 0);
+	}
+
+	/**
+	 * Headless games have no deck of their own, so loading one mustn't change
+	 * what a seed plays out
+	 */
+	@Test
+	public void testDeckDoesNotChangeResults() throws FileNotFoundException {
+		SimulationResult before = simulate();
+		new StrategyCard();
+		SimulationResult after = simulate();
+		assertEquals(before.getHomeRunsPerGame(), after.getHomeRunsPerGame(), 0);
+		assertEquals(before.getAwayRunsPerGame(), after.getAwayRunsPerGame(), 0);
+		assertEquals(before.getHomeWinRate(), after.getHomeWinRate(), 0);
+	}
+}
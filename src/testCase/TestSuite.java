@@ -5,7 +5,22 @@ import org.junit.runner.RunWith;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 	PlayerEquivalenceTest.class,
-	GameStatTest.class
+	GameStatTest.class,
+	FieldTest.class,
+	GameLogTest.class,
+	PreconditionTest.class,
+	PoolSnapshotTest.class,
+	DraftManagerTest.class,
+	PlayerIndexTest.class,
+	PlayerListModelTest.class,
+	GameEngineTest.class,
+	RunExpectancyTest.class,
+	PlateAppearanceTest.class,
+	MatchupMatrixTest.class,
+	BattingOrderOptimizerTest.class,
+	DefenseOptimizerTest.class,
+	SimulatorTest.class,
+	GameManagerTest.class
 })
 
 public class TestSuite {
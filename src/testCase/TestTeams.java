@@ -0,0 +1,66 @@
+package testCase;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+
+import gameData.DraftManager;
+import gameData.LineupManager;
+import players.PlayerData;
+
+/**
+ * Two teams from the 2004 cards shared by the tests that play or score
+ * games. The pool is parsed once however many tests use it, and teams are
+ * built without drafting, so every test gets fresh teams from the same pool.
+ */
+public class TestTeams {
+
+	public static final String[] TEAM_ONE = { "Frank Thomas", "Tim Hudson", "Jorge Posada", "Todd Helton",
+			"Jose Vidro", "Morgan Ensberg", "Nomar Garciaparra", "Manny Ramirez", "Scott Podsednik",
+			"Reggie Sanders" };
+	public static final String[] TEAM_TWO = { "Edgar Martinez", "Roy Halladay", "Mike Piazza", "Albert Pujols",
+			"Bret Boone", "Bill Mueller", "Alex Rodriguez", "Vladimir Guerrero", "Carlos Beltran", "Aubrey Huff" };
+
+	private static DraftManager pool;
+
+	/**
+	 * Loads the 2004 pool if it hasn't been already, for a test's
+	 * BeforeClass
+	 */
+	public static synchronized DraftManager load() throws FileNotFoundException {
+		if (pool == null) {
+			pool = DraftManager.initializePool(new File("DataFiles/2004 pitchers.txt"),
+					new File("DataFiles/2004 hitters.txt"));
+		}
+		return pool;
+	}
+
+	/**
+	 * Gets the first card in the pool with a name
+	 */
+	public static PlayerData player(String name) {
+		return pool.findPlayers(name).get(0);
+	}
+
+	/**
+	 * Builds a team from ten names: the designated hitter, the pitcher, then
+	 * the catcher through right field. Everyone but the pitcher plays the
+	 * position of their place in the list, and the order starts from the
+	 * third fielder with the designated hitter batting fourth.
+	 */
+	public static LineupManager team(String[] names) {
+		LineupManager lm = new LineupManager();
+		for (int i = 0; i < names.length; i++) {
+			PlayerData p = player(names[i]);
+			lm.addPlayer(p);
+			if (i == 0) {
+				lm.playTheField(p.getHandle(), i);
+				lm.hitInOrder(p.getHandle(), 4);
+			} else if (i > 1) {
+				lm.playTheField(p.getHandle(), i);
+				lm.hitInOrder(p.getHandle(), ((i + 2) % 9) + 1);
+			}
+		}
+		lm.subPitcher(player(names[1]).getHandle());
+		return lm;
+	}
+}